@@ -18,6 +18,8 @@ package io.pivotal.literx;
 
 import java.util.concurrent.CompletableFuture;
 
+import io.pivotal.literx.adapt.FutureBridge;
+import io.pivotal.literx.adapt.RxBridge;
 import io.pivotal.literx.domain.User;
 import io.reactivex.Flowable;
 import io.reactivex.Observable;
@@ -41,14 +43,14 @@ public class Part09Adapt {
 
 //========================================================================================
 
-	// TODO Adapt Flux to RxJava Flowable
+	// Adapt Flux to RxJava Flowable, keeping fusion across the boundary
 	Flowable<User> fromFluxToFlowable(Flux<User> flux) {
-		return null;
+		return RxBridge.toFlowable(flux);
 	}
 
-	// TODO Adapt RxJava Flowable to Flux
+	// Adapt RxJava Flowable to Flux, keeping fusion across the boundary
 	Flux<User> fromFlowableToFlux(Flowable<User> flowable) {
-		return null;
+		return RxBridge.toFlux(flowable);
 	}
 
 //========================================================================================
@@ -77,14 +79,14 @@ public class Part09Adapt {
 
 //========================================================================================
 
-	// TODO Adapt Mono to Java 8+ CompletableFuture
+	// Adapt Mono to Java 8+ CompletableFuture, cancelling the subscription with the future
 	CompletableFuture<User> fromMonoToCompletableFuture(Mono<User> mono) {
-		return null;
+		return FutureBridge.toFuture(mono);
 	}
 
-	// TODO Adapt Java 8+ CompletableFuture to Mono
+	// Adapt Java 8+ CompletableFuture to Mono, cancelling the future with the subscription
 	Mono<User> fromCompletableFutureToMono(CompletableFuture<User> future) {
-		return null;
+		return FutureBridge.toMono(future);
 	}
 
 }
@@ -0,0 +1,106 @@
+package io.pivotal.literx.adapt;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Subscribes Reactor subscribers to a {@link Flowable}, exposing RxJava fuseable subscriptions as
+ * Reactor ones.
+ */
+final class FlowableToFlux<T> extends Flux<T> implements Fuseable {
+
+	final Flowable<T> source;
+
+	FlowableToFlux(Flowable<T> source) {
+		this.source = source;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		source.subscribe(new RxToReactorSubscriber<>(actual));
+	}
+
+	static final class RxToReactorSubscriber<T> implements FlowableSubscriber<T>, Fuseable.QueueSubscription<T> {
+
+		final CoreSubscriber<? super T> actual;
+
+		Subscription s;
+
+		io.reactivex.internal.fuseable.QueueSubscription<T> qs;
+
+		RxToReactorSubscriber(CoreSubscriber<? super T> actual) {
+			this.actual = actual;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void onSubscribe(Subscription s) {
+			this.s = s;
+			if (s instanceof io.reactivex.internal.fuseable.QueueSubscription) {
+				this.qs = (io.reactivex.internal.fuseable.QueueSubscription<T>) s;
+			}
+			actual.onSubscribe(this);
+		}
+
+		@Override
+		public void onNext(T t) {
+			actual.onNext(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			// both libraries use the same values for NONE, SYNC, ASYNC, ANY and THREAD_BARRIER
+			return qs == null ? Fuseable.NONE : qs.requestFusion(requestedMode);
+		}
+
+		@Override
+		public T poll() {
+			try {
+				return qs.poll();
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return qs.isEmpty();
+		}
+
+		@Override
+		public void clear() {
+			qs.clear();
+		}
+
+		@Override
+		public int size() {
+			return qs.isEmpty() ? 0 : 1;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package io.pivotal.literx.adapt;
+
+import io.reactivex.Flowable;
+import io.reactivex.internal.fuseable.QueueSubscription;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+
+/**
+ * Subscribes RxJava subscribers to a Reactor {@link Publisher}, exposing Reactor fuseable
+ * subscriptions as RxJava ones.
+ */
+final class FluxToFlowable<T> extends Flowable<T> {
+
+	final Publisher<T> source;
+
+	FluxToFlowable(Publisher<T> source) {
+		this.source = source;
+	}
+
+	@Override
+	protected void subscribeActual(Subscriber<? super T> actual) {
+		source.subscribe(new ReactorToRxSubscriber<>(actual));
+	}
+
+	static final class ReactorToRxSubscriber<T> implements CoreSubscriber<T>, QueueSubscription<T> {
+
+		final Subscriber<? super T> actual;
+
+		Subscription s;
+
+		Fuseable.QueueSubscription<T> qs;
+
+		ReactorToRxSubscriber(Subscriber<? super T> actual) {
+			this.actual = actual;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void onSubscribe(Subscription s) {
+			this.s = s;
+			if (s instanceof Fuseable.QueueSubscription) {
+				this.qs = (Fuseable.QueueSubscription<T>) s;
+			}
+			actual.onSubscribe(this);
+		}
+
+		@Override
+		public void onNext(T t) {
+			actual.onNext(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		public int requestFusion(int mode) {
+			// both libraries use the same values for NONE, SYNC, ASYNC, ANY and BOUNDARY
+			return qs == null ? NONE : qs.requestFusion(mode);
+		}
+
+		@Override
+		public T poll() {
+			return qs.poll();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return qs.isEmpty();
+		}
+
+		@Override
+		public void clear() {
+			qs.clear();
+		}
+
+		@Override
+		public boolean offer(T value) {
+			throw new UnsupportedOperationException("Should not be called");
+		}
+
+		@Override
+		public boolean offer(T v1, T v2) {
+			throw new UnsupportedOperationException("Should not be called");
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package io.pivotal.literx.adapt;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adapts between Reactor {@link Mono} and {@link CompletableFuture}, propagating cancellation
+ * both ways.
+ *
+ * {@link Mono#fromFuture(CompletableFuture)} leaves the future running when the subscriber
+ * cancels, and a future obtained with {@link Mono#toFuture()} is not tied to the subscription
+ * feeding it. With the bridge, cancelling one side cancels the other, so async work nobody waits
+ * for anymore is not started, or its result is dropped right away.
+ *
+ * Note that cancelling a {@link CompletableFuture} does not interrupt a task already running,
+ * it only prevents a queued {@link CompletableFuture#supplyAsync supplyAsync} task from starting.
+ *
+ * The bulk variants only bound the work in flight if the publisher creates each future when it
+ * is requested, as in {@code Flux.range(0, n).map(i -> CompletableFuture.supplyAsync(...))}.
+ */
+public final class FutureBridge {
+
+	private FutureBridge() {
+	}
+
+	/**
+	 * The future is only cancelled once every subscriber to the returned {@link Mono} that has
+	 * not received the result has cancelled, so subscribers sharing the Mono do not fail each
+	 * other. The Mono is taken to be the only consumer of the future: use
+	 * {@link Mono#fromFuture(CompletableFuture)} for a future also awaited elsewhere.
+	 *
+	 * @return a {@link Mono} of the result of the future, that cancels the future if its
+	 * subscribers all cancel first
+	 */
+	public static <T> Mono<T> toMono(CompletableFuture<? extends T> future) {
+		AtomicInteger waiting = new AtomicInteger();
+		return Mono.create(sink -> {
+			waiting.incrementAndGet();
+			sink.onCancel(() -> {
+				if (waiting.decrementAndGet() == 0) {
+					future.cancel(true);
+				}
+			});
+			future.whenComplete((value, error) -> {
+				if (error != null) {
+					sink.error(unwrap(error));
+				}
+				else if (value != null) {
+					sink.success(value);
+				}
+				else {
+					sink.success();
+				}
+			});
+		});
+	}
+
+	/**
+	 * @return a future subscribing to the mono right away, that cancels the subscription if it
+	 * is cancelled first
+	 */
+	public static <T> CompletableFuture<T> toFuture(Mono<? extends T> mono) {
+		SubscriptionFuture<T> future = new SubscriptionFuture<>();
+		future.attach(mono.subscribe(future::complete, future::completeExceptionally,
+				() -> future.complete(null)));
+		return future;
+	}
+
+	/**
+	 * @return the results of the futures, in the order they complete, subscribing to at most
+	 * {@code maxInFlight} futures at a time
+	 */
+	public static <T> Flux<T> merge(Publisher<? extends CompletableFuture<? extends T>> futures, int maxInFlight) {
+		return Flux.from(futures).flatMap(FutureBridge::toMono, maxInFlight);
+	}
+
+	/**
+	 * @return the results of the futures, in the order of the futures, subscribing to at most
+	 * {@code maxInFlight} futures at a time
+	 */
+	public static <T> Flux<T> mergeSequential(Publisher<? extends CompletableFuture<? extends T>> futures,
+			int maxInFlight) {
+		return Flux.from(futures).flatMapSequential(FutureBridge::toMono, maxInFlight);
+	}
+
+	private static Throwable unwrap(Throwable error) {
+		if (error instanceof CompletionException && error.getCause() != null) {
+			return error.getCause();
+		}
+		return error;
+	}
+
+	private static final class SubscriptionFuture<T> extends CompletableFuture<T> {
+
+		private volatile Disposable subscription;
+
+		void attach(Disposable subscription) {
+			this.subscription = subscription;
+			if (isCancelled()) {
+				subscription.dispose();
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			Disposable subscription = this.subscription;
+			if (cancelled && subscription != null) {
+				subscription.dispose();
+			}
+			return cancelled;
+		}
+	}
+}
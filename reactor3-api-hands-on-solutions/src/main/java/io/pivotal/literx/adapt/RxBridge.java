@@ -0,0 +1,68 @@
+package io.pivotal.literx.adapt;
+
+import io.reactivex.Flowable;
+import io.reactivex.internal.fuseable.ScalarCallable;
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Adapts between Reactor {@link Flux} and RxJava 2 {@link Flowable} without losing operator
+ * fusion.
+ *
+ * {@link Flux#from(Publisher)} and {@link Flowable#fromPublisher(Publisher)} hide the
+ * subscription of the other library, so operators on both sides of the boundary fall back to
+ * their own queues. The bridge instead exposes the fuseable subscription of each library as one
+ * of the other, both libraries sharing the same fusion protocol and modes: a {@code publishOn}
+ * or {@code observeOn} downstream of the boundary can then poll the source directly. Requests
+ * are passed through unchanged, so each side keeps requesting in its own batches, and nothing is
+ * queued in the bridge itself.
+ *
+ * Adapting back an adapted publisher returns the original one, and scalar sources are adapted
+ * to the scalar source of the other library.
+ */
+public final class RxBridge {
+
+	private RxBridge() {
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> Flowable<T> toFlowable(Publisher<T> publisher) {
+		if (publisher instanceof FlowableToFlux) {
+			return ((FlowableToFlux<T>) publisher).source;
+		}
+		if (publisher instanceof Flowable) {
+			return (Flowable<T>) publisher;
+		}
+		if (publisher instanceof Fuseable.ScalarCallable) {
+			T value;
+			try {
+				value = ((Fuseable.ScalarCallable<T>) publisher).call();
+			}
+			catch (Exception e) {
+				return Flowable.error(Exceptions.unwrap(e));
+			}
+			return value == null ? Flowable.<T>empty() : Flowable.just(value);
+		}
+		return new FluxToFlowable<>(publisher);
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> Flux<T> toFlux(Publisher<T> publisher) {
+		if (publisher instanceof FluxToFlowable) {
+			return Flux.from(((FluxToFlowable<T>) publisher).source);
+		}
+		if (publisher instanceof Flux) {
+			return (Flux<T>) publisher;
+		}
+		if (publisher instanceof ScalarCallable) {
+			T value = ((ScalarCallable<T>) publisher).call();
+			return value == null ? Flux.empty() : Flux.just(value);
+		}
+		if (publisher instanceof Flowable) {
+			return new FlowableToFlux<>((Flowable<T>) publisher);
+		}
+		return Flux.from(publisher);
+	}
+}
@@ -0,0 +1,100 @@
+package io.pivotal.literx.blocking;
+
+import java.util.Arrays;
+
+/**
+ * A blocking call caught on a non-blocking thread.
+ */
+public final class BlockingCall {
+
+	private static final String[] LIBRARY_PACKAGES = {
+			"java.", "javax.", "sun.", "jdk.", "reactor.core.", "reactor.util."
+	};
+
+	private static final String DETECTOR = BlockingCallDetector.class.getName();
+
+	private final String threadName;
+
+	private final String blockingMethod;
+
+	private final StackTraceElement callSite;
+
+	private final StackTraceElement[] stackTrace;
+
+	private final boolean rejected;
+
+	private BlockingCall(String threadName, String blockingMethod, StackTraceElement callSite,
+			StackTraceElement[] stackTrace, boolean rejected) {
+		this.threadName = threadName;
+		this.blockingMethod = blockingMethod;
+		this.callSite = callSite;
+		this.stackTrace = stackTrace;
+		this.rejected = rejected;
+	}
+
+	static BlockingCall of(String threadName, StackTraceElement[] stackTrace, boolean rejected) {
+		// the call site is the first frame out of the libraries, the blocking method the one it calls
+		int site = 0;
+		while (site < stackTrace.length - 1 && isLibrary(stackTrace[site])) {
+			site++;
+		}
+		StackTraceElement blocking = stackTrace[site > 0 ? site - 1 : 0];
+		return new BlockingCall(threadName, blocking.getClassName() + "." + blocking.getMethodName(),
+				stackTrace[site], stackTrace, rejected);
+	}
+
+	private static boolean isLibrary(StackTraceElement frame) {
+		String className = frame.getClassName();
+		if (className.equals(DETECTOR) || className.startsWith(DETECTOR + "$")) {
+			return true;
+		}
+		for (String prefix : LIBRARY_PACKAGES) {
+			if (className.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * @return the library method that blocked, such as {@code java.lang.Thread.sleep}
+	 */
+	public String getBlockingMethod() {
+		return blockingMethod;
+	}
+
+	/**
+	 * @return the frame of the application code calling the blocking method
+	 */
+	public StackTraceElement getCallSite() {
+		return callSite;
+	}
+
+	public StackTraceElement[] getStackTrace() {
+		return stackTrace.clone();
+	}
+
+	/**
+	 * @return {@code true} if Reactor refused the call itself, as it does for {@code block()} and
+	 * {@code toIterable()} on non-blocking threads
+	 */
+	public boolean isRejected() {
+		return rejected;
+	}
+
+	@Override
+	public String toString() {
+		return "Blocking call " + blockingMethod + " at " + callSite + " on thread " + threadName +
+				(rejected ? " (rejected)" : "");
+	}
+
+	String format() {
+		StringBuilder builder = new StringBuilder(toString());
+		Arrays.stream(stackTrace).forEach(frame -> builder.append("\n\tat ").append(frame));
+		return builder.toString();
+	}
+}
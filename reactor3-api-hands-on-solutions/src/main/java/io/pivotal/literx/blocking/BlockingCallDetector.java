@@ -0,0 +1,257 @@
+package io.pivotal.literx.blocking;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Consumer;
+
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Hooks;
+import reactor.core.scheduler.NonBlocking;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Opt-in detector of blocking calls made on non-blocking threads, such as the ones of {@link
+ * Schedulers#parallel()} and {@link Schedulers#single()}, installed through {@link
+ * Schedulers#onScheduleHook} and {@link Hooks#onOperatorError}.
+ *
+ * The tasks run by Reactor schedulers on {@link NonBlocking} threads are marked while they run,
+ * and a daemon thread samples the marked threads: one found waiting, sleeping or blocked on a
+ * lock is reported with its stack, which covers {@code Thread.sleep}, {@code Object.wait},
+ * {@code Future.get}, locks and blocking queues whatever the code calling them. Blocking I/O
+ * keeps its thread runnable and goes unnoticed. Reactor already rejects {@code block()} and
+ * {@code toIterable()} on these threads with an {@link IllegalStateException}, those rejections
+ * are reported as well.
+ *
+ * The cost on the scheduler threads is a couple of field writes per task, calls blocking for
+ * less than the sampling period may go unnoticed.
+ *
+ * @see BlockingCall
+ */
+public final class BlockingCallDetector {
+
+	private static final String HOOK_KEY = BlockingCallDetector.class.getName();
+
+	private static final Duration DEFAULT_PERIOD = Duration.ofMillis(10);
+
+	private static final int MAX_RECORDED_CALLS = 1_000;
+
+	private static final Set<ActiveTask> THREADS = ConcurrentHashMap.newKeySet();
+
+	private static final ThreadLocal<ActiveTask> ACTIVE_TASK = ThreadLocal.withInitial(() -> {
+		ActiveTask task = new ActiveTask(Thread.currentThread());
+		THREADS.add(task);
+		return task;
+	});
+
+	private static final ConcurrentLinkedQueue<BlockingCall> CALLS = new ConcurrentLinkedQueue<>();
+
+	private static final AtomicInteger CALL_COUNT = new AtomicInteger();
+
+	private static volatile DetectionMode mode = DetectionMode.REPORT;
+
+	private static volatile Consumer<BlockingCall> reporter;
+
+	private static ScheduledExecutorService sampler;
+
+	private BlockingCallDetector() {
+	}
+
+	/**
+	 * Detect blocking calls every 10ms, logging each of them as a warning.
+	 */
+	public static void enable(DetectionMode mode) {
+		enable(mode, DEFAULT_PERIOD,
+				call -> LoggerFactory.getLogger(BlockingCallDetector.class).warn(call.format()));
+	}
+
+	public static synchronized void enable(DetectionMode mode, Duration period, Consumer<BlockingCall> reporter) {
+		disable();
+		BlockingCallDetector.mode = mode;
+		BlockingCallDetector.reporter = reporter;
+		Schedulers.onScheduleHook(HOOK_KEY, BlockingCallDetector::mark);
+		Hooks.onOperatorError(HOOK_KEY, (error, data) -> {
+			if (isRejectedBlockingCall(error)) {
+				record(BlockingCall.of(Thread.currentThread().getName(), error.getStackTrace(), true));
+			}
+			return error;
+		});
+		sampler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "blocking-call-detector");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long periodNanos = period.toNanos();
+		sampler.scheduleAtFixedRate(BlockingCallDetector::sample, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+	}
+
+	public static synchronized void disable() {
+		if (sampler != null) {
+			sampler.shutdownNow();
+			try {
+				// a sample still running could interrupt a task started after disable()
+				sampler.awaitTermination(1, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			sampler = null;
+			Schedulers.resetOnScheduleHook(HOOK_KEY);
+			Hooks.resetOnOperatorError(HOOK_KEY);
+		}
+	}
+
+	/**
+	 * @return the last blocking calls detected, oldest first
+	 */
+	public static List<BlockingCall> getBlockingCalls() {
+		return new ArrayList<>(CALLS);
+	}
+
+	public static void reset() {
+		CALLS.clear();
+		CALL_COUNT.set(0);
+	}
+
+	static Runnable mark(Runnable task) {
+		return () -> {
+			if (!Schedulers.isInNonBlockingThread()) {
+				task.run();
+				return;
+			}
+			ActiveTask active = ACTIVE_TASK.get();
+			active.start();
+			try {
+				task.run();
+			}
+			finally {
+				active.end();
+			}
+		};
+	}
+
+	static void sample() {
+		for (ActiveTask active : THREADS) {
+			Thread thread = active.thread;
+			if (!thread.isAlive()) {
+				THREADS.remove(active);
+				continue;
+			}
+			long run = active.run();
+			if (run == 0 || run == active.reportedRun || !isBlocked(thread.getState())) {
+				continue;
+			}
+			StackTraceElement[] stackTrace = thread.getStackTrace();
+			// the task may have ended in between, leaving the thread idle
+			if (active.run() != run || !isBlocked(thread.getState()) || stackTrace.length == 0) {
+				continue;
+			}
+			active.reportedRun = run;
+			record(BlockingCall.of(thread.getName(), stackTrace, false));
+			if (mode == DetectionMode.FAIL_FAST) {
+				active.interrupt(run);
+			}
+		}
+	}
+
+	private static void record(BlockingCall call) {
+		CALLS.offer(call);
+		if (CALL_COUNT.incrementAndGet() > MAX_RECORDED_CALLS && CALLS.poll() != null) {
+			CALL_COUNT.decrementAndGet();
+		}
+		Consumer<BlockingCall> reporter = BlockingCallDetector.reporter;
+		if (reporter != null) {
+			reporter.accept(call);
+		}
+	}
+
+	private static boolean isBlocked(Thread.State state) {
+		return state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING
+				|| state == Thread.State.BLOCKED;
+	}
+
+	private static boolean isRejectedBlockingCall(Throwable error) {
+		// thrown by BlockingSingleSubscriber and BlockingIterable on non-blocking threads
+		StackTraceElement[] stackTrace = error.getStackTrace();
+		return error instanceof IllegalStateException && stackTrace.length > 0
+				&& stackTrace[0].getClassName().startsWith("reactor.core.publisher.Blocking")
+				&& Schedulers.isInNonBlockingThread();
+	}
+
+	private static final class ActiveTask {
+
+		private static final long INTERRUPTING = 1;
+
+		private static final long INTERRUPTED = 2;
+
+		final Thread thread;
+
+		/**
+		 * Sequence number of the task running, 0 when idle, shifted left by 2 to make room for
+		 * the {@link #INTERRUPTING} and {@link #INTERRUPTED} flags.
+		 */
+		private volatile long state;
+
+		private static final AtomicLongFieldUpdater<ActiveTask> STATE =
+				AtomicLongFieldUpdater.newUpdater(ActiveTask.class, "state");
+
+		long reportedRun;
+
+		private long runs;
+
+		private int depth;
+
+		ActiveTask(Thread thread) {
+			this.thread = thread;
+		}
+
+		/**
+		 * @return the sequence number of the task running, 0 when idle
+		 */
+		long run() {
+			return state >>> 2;
+		}
+
+		void start() {
+			if (depth++ == 0) {
+				state = ++runs << 2;
+			}
+		}
+
+		/**
+		 * Interrupts the thread if it is still running the given task, the task ending in
+		 * between making this a no-op.
+		 */
+		void interrupt(long run) {
+			if (STATE.compareAndSet(this, run << 2, run << 2 | INTERRUPTING)) {
+				thread.interrupt();
+				state = run << 2 | INTERRUPTED;
+			}
+		}
+
+		void end() {
+			if (--depth != 0) {
+				return;
+			}
+			long running = runs << 2;
+			if (STATE.compareAndSet(this, running, 0)) {
+				return;
+			}
+			// lost to interrupt(): wait for the interrupt to land, then clear it so that it does
+			// not leak to the next task
+			while (state == (running | INTERRUPTING)) {
+				Thread.yield();
+			}
+			state = 0;
+			Thread.interrupted();
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package io.pivotal.literx.blocking;
+
+/**
+ * What {@link BlockingCallDetector} does once it has reported a blocking call.
+ */
+public enum DetectionMode {
+
+	/**
+	 * Let the call proceed.
+	 */
+	REPORT,
+
+	/**
+	 * Interrupt the blocked thread, so the blocking call fails in the pipeline that made it.
+	 */
+	FAIL_FAST
+}
@@ -0,0 +1,81 @@
+package io.pivotal.literx.codec;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free pool of heap {@link ByteBuffer}s of a fixed capacity, shared by the encoding and
+ * decoding stages.
+ *
+ * Released buffers are parked in a fixed number of slots, which acquiring threads scan and empty
+ * with a CAS. When every slot is taken a released buffer is left to the garbage collector, when
+ * every slot is empty a new buffer is allocated.
+ */
+public final class ByteBufferPool {
+
+	private final int bufferSize;
+
+	private final AtomicReferenceArray<ByteBuffer> slots;
+
+	private final LongAdder created = new LongAdder();
+
+	private final LongAdder reused = new LongAdder();
+
+	/**
+	 * @param bufferSize the capacity of each buffer
+	 * @param maxPooled the maximum number of released buffers kept for reuse
+	 */
+	public ByteBufferPool(int bufferSize, int maxPooled) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize > 0 required but it was " + bufferSize);
+		}
+		if (maxPooled <= 0) {
+			throw new IllegalArgumentException("maxPooled > 0 required but it was " + maxPooled);
+		}
+		this.bufferSize = bufferSize;
+		this.slots = new AtomicReferenceArray<>(maxPooled);
+	}
+
+	/**
+	 * @return a cleared buffer, to {@link #release(ByteBuffer)} once done with it
+	 */
+	public ByteBuffer acquire() {
+		for (int i = 0; i < slots.length(); i++) {
+			ByteBuffer buffer = slots.get(i);
+			if (buffer != null && slots.compareAndSet(i, buffer, null)) {
+				reused.increment();
+				buffer.clear();
+				return buffer;
+			}
+		}
+		created.increment();
+		return ByteBuffer.allocate(bufferSize);
+	}
+
+	/**
+	 * Hands a buffer back for reuse, buffers of another capacity or not heap based are ignored.
+	 */
+	public void release(ByteBuffer buffer) {
+		if (buffer.capacity() != bufferSize || !buffer.hasArray()) {
+			return;
+		}
+		for (int i = 0; i < slots.length(); i++) {
+			if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+				return;
+			}
+		}
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public long getCreated() {
+		return created.sum();
+	}
+
+	public long getReused() {
+		return reused.sum();
+	}
+}
@@ -0,0 +1,223 @@
+package io.pivotal.literx.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import io.pivotal.literx.domain.User;
+
+/**
+ * Compact binary encoding of {@link User}s.
+ *
+ * A record is its length, then the username, first name and last name, each as its length and
+ * its UTF-8 bytes, every length being an unsigned varint (7 bits per byte, low bits first). A
+ * user with short ASCII names takes 4 bytes more than its names. Strings are encoded straight
+ * into the buffer without an intermediate byte array; unpaired surrogates become {@code '?'}, as
+ * with {@link String#getBytes(java.nio.charset.Charset)}.
+ *
+ * See {@link UserStreams} to encode and decode whole streams through pooled buffers.
+ */
+public final class UserCodec {
+
+	private static final int MAX_VARINT_SIZE = 5;
+
+	private UserCodec() {
+	}
+
+	/**
+	 * @return the number of bytes {@link #encode(User, ByteBuffer)} writes
+	 */
+	public static int encodedSize(User user) {
+		int body = bodySize(user);
+		return varintSize(body) + body;
+	}
+
+	/**
+	 * Writes the record at the position of the buffer.
+	 *
+	 * @throws BufferOverflowException if the buffer has less than {@link #encodedSize(User)}
+	 * remaining, nothing being written then
+	 */
+	public static void encode(User user, ByteBuffer buffer) {
+		int username = utf8Length(user.getUsername());
+		int firstname = utf8Length(user.getFirstname());
+		int lastname = utf8Length(user.getLastname());
+		int body = varintSize(username) + username + varintSize(firstname) + firstname
+				+ varintSize(lastname) + lastname;
+		if (buffer.remaining() < varintSize(body) + body) {
+			throw new BufferOverflowException();
+		}
+		putVarint(buffer, body);
+		putVarint(buffer, username);
+		putUtf8(buffer, user.getUsername());
+		putVarint(buffer, firstname);
+		putUtf8(buffer, user.getFirstname());
+		putVarint(buffer, lastname);
+		putUtf8(buffer, user.getLastname());
+	}
+
+	/**
+	 * Reads the record at the position of the buffer.
+	 *
+	 * @throws IllegalArgumentException if the buffer does not hold a whole, well formed record,
+	 * the position being left unchanged then
+	 */
+	public static User decode(ByteBuffer buffer) {
+		int start = buffer.position();
+		try {
+			int body = getVarint(buffer);
+			if (body > buffer.remaining()) {
+				throw new IllegalArgumentException("Truncated record of " + body + " bytes, "
+						+ buffer.remaining() + " remaining");
+			}
+			int end = buffer.position() + body;
+			String username = getUtf8(buffer, end);
+			String firstname = getUtf8(buffer, end);
+			String lastname = getUtf8(buffer, end);
+			if (buffer.position() != end) {
+				throw new IllegalArgumentException("Record of " + body + " bytes has "
+						+ (end - buffer.position()) + " trailing bytes");
+			}
+			return new User(username, firstname, lastname);
+		}
+		catch (IllegalArgumentException e) {
+			buffer.position(start);
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the size of the whole record starting at the position of the buffer, without
+	 * moving it, or -1 if the buffer does not even hold its length
+	 */
+	static int peekRecordSize(ByteBuffer buffer) {
+		int value = 0;
+		int limit = Math.min(buffer.remaining(), MAX_VARINT_SIZE);
+		for (int i = 0; i < limit; i++) {
+			byte b = buffer.get(buffer.position() + i);
+			value |= (b & 0x7F) << (7 * i);
+			if (b >= 0) {
+				return i + 1 + value;
+			}
+		}
+		if (limit == MAX_VARINT_SIZE) {
+			throw new IllegalArgumentException("Malformed record length");
+		}
+		return -1;
+	}
+
+	private static int bodySize(User user) {
+		int username = utf8Length(user.getUsername());
+		int firstname = utf8Length(user.getFirstname());
+		int lastname = utf8Length(user.getLastname());
+		return varintSize(username) + username + varintSize(firstname) + firstname
+				+ varintSize(lastname) + lastname;
+	}
+
+	static int varintSize(int value) {
+		int size = 1;
+		while ((value & ~0x7F) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+	private static void putVarint(ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	private static int getVarint(ByteBuffer buffer) {
+		int value = 0;
+		for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+			if (!buffer.hasRemaining()) {
+				throw new IllegalArgumentException("Truncated length");
+			}
+			byte b = buffer.get();
+			value |= (b & 0x7F) << (7 * i);
+			if (b >= 0) {
+				if (value < 0) {
+					break;
+				}
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed length");
+	}
+
+	private static int utf8Length(String s) {
+		int length = s.length();
+		int bytes = length;
+		for (int i = 0; i < length; i++) {
+			char c = s.charAt(i);
+			if (c < 0x80) {
+				continue;
+			}
+			if (c < 0x800) {
+				bytes += 1;
+			}
+			else if (!Character.isSurrogate(c)) {
+				bytes += 2;
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+				// 4 bytes for the pair
+				bytes += 2;
+				i++;
+			}
+		}
+		return bytes;
+	}
+
+	private static void putUtf8(ByteBuffer buffer, String s) {
+		int length = s.length();
+		for (int i = 0; i < length; i++) {
+			char c = s.charAt(i);
+			if (c < 0x80) {
+				buffer.put((byte) c);
+			}
+			else if (c < 0x800) {
+				buffer.put((byte) (0xC0 | (c >> 6)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+			else if (!Character.isSurrogate(c)) {
+				buffer.put((byte) (0xE0 | (c >> 12)));
+				buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, s.charAt(++i));
+				buffer.put((byte) (0xF0 | (codePoint >> 18)));
+				buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+				buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+			}
+			else {
+				buffer.put((byte) '?');
+			}
+		}
+	}
+
+	private static String getUtf8(ByteBuffer buffer, int end) {
+		int length = getVarint(buffer);
+		int position = buffer.position();
+		if (length > end - position) {
+			throw new IllegalArgumentException("Field of " + length + " bytes overruns its record");
+		}
+		String value;
+		if (buffer.hasArray()) {
+			value = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+		}
+		else {
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			buffer.position(position);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		buffer.position(position + length);
+		return value;
+	}
+}
@@ -0,0 +1,92 @@
+package io.pivotal.literx.codec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.pivotal.literx.domain.User;
+
+/**
+ * Decodes the records of one subscription out of buffers cut anywhere.
+ *
+ * Whole records are decoded in place. The bytes of a record cut by the end of a buffer are kept
+ * in an array growing up to the size of the largest such record, and completed from the next
+ * buffers.
+ */
+final class UserDecoder {
+
+	private final ByteBufferPool pool;
+
+	private byte[] partial = new byte[256];
+
+	private int partialLength;
+
+	private int partialSize = -1;
+
+	UserDecoder(ByteBufferPool pool) {
+		this.pool = pool;
+	}
+
+	List<User> decode(ByteBuffer buffer) {
+		List<User> users = new ArrayList<>();
+		try {
+			if (partialLength > 0 && !complete(buffer, users)) {
+				return users;
+			}
+			while (buffer.hasRemaining()) {
+				int size = UserCodec.peekRecordSize(buffer);
+				if (size < 0 || size > buffer.remaining()) {
+					partialSize = size;
+					append(buffer, buffer.remaining());
+					break;
+				}
+				users.add(UserCodec.decode(buffer));
+			}
+			return users;
+		}
+		finally {
+			if (pool != null) {
+				pool.release(buffer);
+			}
+		}
+	}
+
+	void finish() {
+		if (partialLength > 0) {
+			throw new IllegalArgumentException("Truncated record, the stream ended "
+					+ partialLength + " bytes into it");
+		}
+	}
+
+	/**
+	 * Feeds the partial record from the buffer.
+	 *
+	 * @return true if it is complete, false if the buffer ran out first
+	 */
+	private boolean complete(ByteBuffer buffer, List<User> users) {
+		while (partialSize < 0) {
+			if (!buffer.hasRemaining()) {
+				return false;
+			}
+			append(buffer, 1);
+			partialSize = UserCodec.peekRecordSize(ByteBuffer.wrap(partial, 0, partialLength));
+		}
+		append(buffer, Math.min(partialSize - partialLength, buffer.remaining()));
+		if (partialLength < partialSize) {
+			return false;
+		}
+		users.add(UserCodec.decode(ByteBuffer.wrap(partial, 0, partialLength)));
+		partialLength = 0;
+		partialSize = -1;
+		return true;
+	}
+
+	private void append(ByteBuffer buffer, int length) {
+		if (partialLength + length > partial.length) {
+			partial = Arrays.copyOf(partial, Math.max(partial.length * 2, partialLength + length));
+		}
+		buffer.get(partial, partialLength, length);
+		partialLength += length;
+	}
+}
@@ -0,0 +1,85 @@
+package io.pivotal.literx.codec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.pivotal.literx.domain.User;
+
+/**
+ * Packs the records of one subscription into pooled buffers.
+ *
+ * A record fitting the buffer being filled is encoded straight into it. One that does not is
+ * encoded into a scratch array and copied over as many buffers as it takes.
+ */
+final class UserEncoder {
+
+	private final ByteBufferPool pool;
+
+	private ByteBuffer current;
+
+	private byte[] scratch = new byte[256];
+
+	UserEncoder(ByteBufferPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @return the buffers filled up by the user, usually none
+	 */
+	List<ByteBuffer> encode(User user) {
+		if (current == null) {
+			current = pool.acquire();
+		}
+		int size = UserCodec.encodedSize(user);
+		if (size <= current.remaining()) {
+			UserCodec.encode(user, current);
+			return current.hasRemaining() ? Collections.emptyList() : Collections.singletonList(take());
+		}
+		if (scratch.length < size) {
+			scratch = new byte[Math.max(size, scratch.length * 2)];
+		}
+		ByteBuffer record = ByteBuffer.wrap(scratch, 0, size);
+		UserCodec.encode(user, record);
+		record.flip();
+		List<ByteBuffer> full = new ArrayList<>(2);
+		while (record.hasRemaining()) {
+			if (!current.hasRemaining()) {
+				full.add(take());
+				current = pool.acquire();
+			}
+			int length = Math.min(record.remaining(), current.remaining());
+			current.put(scratch, record.position(), length);
+			record.position(record.position() + length);
+		}
+		if (!current.hasRemaining()) {
+			full.add(take());
+		}
+		return full;
+	}
+
+	/**
+	 * @return the buffer being filled, or {@code null} if it is empty
+	 */
+	ByteBuffer flush() {
+		if (current == null || current.position() == 0) {
+			return null;
+		}
+		return take();
+	}
+
+	void discard() {
+		if (current != null) {
+			pool.release(current);
+			current = null;
+		}
+	}
+
+	private ByteBuffer take() {
+		ByteBuffer buffer = current;
+		current = null;
+		buffer.flip();
+		return buffer;
+	}
+}
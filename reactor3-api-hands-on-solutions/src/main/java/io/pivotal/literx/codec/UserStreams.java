@@ -0,0 +1,59 @@
+package io.pivotal.literx.codec;
+
+import java.nio.ByteBuffer;
+
+import io.pivotal.literx.domain.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streaming {@link UserCodec} stages, to persist or send users in pooled buffers:
+ *
+ * <pre>
+ * ByteBufferPool pool = new ByteBufferPool(64 * 1024, 16);
+ * Flux&lt;ByteBuffer&gt; bytes = UserStreams.encode(repository.findAll(), pool);
+ * Flux&lt;User&gt; users = UserStreams.decode(bytes, pool);
+ * </pre>
+ *
+ * Records are packed back to back, and split across buffers when they do not fit the one being
+ * filled, so the decoding stage reassembles records from any chunking of the bytes.
+ */
+public final class UserStreams {
+
+	private UserStreams() {
+	}
+
+	/**
+	 * @return buffers acquired from the pool, flipped for reading, whose subscriber releases them
+	 * once written out, or through {@link #decode(Flux, ByteBufferPool)}
+	 */
+	public static Flux<ByteBuffer> encode(Flux<User> users, ByteBufferPool pool) {
+		return Flux.defer(() -> {
+			UserEncoder encoder = new UserEncoder(pool);
+			return users.concatMapIterable(encoder::encode)
+					.concatWith(Mono.fromSupplier(encoder::flush))
+					.doFinally(signal -> encoder.discard());
+		});
+	}
+
+	/**
+	 * Decodes the buffers, leaving them to their owner.
+	 *
+	 * @return the users, or an {@link IllegalArgumentException} on malformed bytes or bytes
+	 * ending in the middle of a record
+	 */
+	public static Flux<User> decode(Flux<ByteBuffer> buffers) {
+		return decode(buffers, null);
+	}
+
+	/**
+	 * Decodes the buffers, releasing each one to the pool once consumed.
+	 */
+	public static Flux<User> decode(Flux<ByteBuffer> buffers, ByteBufferPool pool) {
+		return Flux.defer(() -> {
+			UserDecoder decoder = new UserDecoder(pool);
+			return buffers.concatMapIterable(decoder::decode)
+					.concatWith(Mono.fromRunnable(decoder::finish));
+		});
+	}
+}
@@ -0,0 +1,88 @@
+package io.pivotal.literx.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+/**
+ * Absolute point in time after which nobody waits for the result of a request, attached by the
+ * caller to the subscriber {@link Context}:
+ *
+ * <pre>
+ * Deadline deadline = Deadline.after(Duration.ofMillis(50));
+ * repository.findById("swhite")
+ *     .timeout(deadline.getTimeLeft())
+ *     .subscriberContext(deadline.asContext())
+ * </pre>
+ *
+ * Time is read from the clock of {@link Schedulers#parallel()}, so deadlines follow virtual time
+ * in tests.
+ */
+public final class Deadline {
+
+	private static final String CONTEXT_KEY = Deadline.class.getName();
+
+	private final long epochMillis;
+
+	private Deadline(long epochMillis) {
+		this.epochMillis = epochMillis;
+	}
+
+	public static Deadline at(long epochMillis) {
+		return new Deadline(epochMillis);
+	}
+
+	public static Deadline after(Duration timeout) {
+		return new Deadline(now() + timeout.toMillis());
+	}
+
+	/**
+	 * @return the deadline of the context, or {@code null} if the caller set none
+	 */
+	public static Deadline of(Context context) {
+		return context.getOrDefault(CONTEXT_KEY, null);
+	}
+
+	public Context asContext() {
+		return Context.of(CONTEXT_KEY, this);
+	}
+
+	public long getEpochMillis() {
+		return epochMillis;
+	}
+
+	/**
+	 * @return the time left, negative once the deadline has passed
+	 */
+	public Duration getTimeLeft() {
+		return Duration.ofMillis(epochMillis - now());
+	}
+
+	public boolean isExpired() {
+		return now() >= epochMillis;
+	}
+
+	/**
+	 * @return whether work expected to take {@code expectedMillis} can still finish in time
+	 */
+	public boolean allows(long expectedMillis) {
+		return now() + expectedMillis <= epochMillis;
+	}
+
+	DeadlineExceededException exceeded() {
+		return new DeadlineExceededException("Deadline exceeded by " + (now() - epochMillis) + "ms");
+	}
+
+	private static long now() {
+		return Schedulers.parallel().now(TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public String toString() {
+		return "Deadline{" +
+				"epochMillis=" + epochMillis +
+				'}';
+	}
+}
@@ -0,0 +1,16 @@
+package io.pivotal.literx.deadline;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Signalled instead of doing work whose {@link Deadline} has passed, or would pass before it
+ * finishes.
+ */
+public class DeadlineExceededException extends TimeoutException {
+
+	private static final long serialVersionUID = 1L;
+
+	public DeadlineExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,93 @@
+package io.pivotal.literx.deadline;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Drops the work of subscribers whose {@link Deadline} has passed, to use with {@code transform}:
+ *
+ * <pre>
+ * requests.publishOn(scheduler).transform(guard::check).map(this::expensiveWork)
+ * </pre>
+ *
+ * The deadline is checked on subscription, so an expired request never subscribes to the
+ * source, and again on every element, so that elements which waited too long in a queue are not
+ * handed to the stages below. Either way the subscriber gets a {@link DeadlineExceededException}
+ * and the drop is counted. Subscribers without a deadline are left alone.
+ */
+public class DeadlineGuard {
+
+	private final LongAdder dropped = new LongAdder();
+
+	public <T> Mono<T> check(Mono<T> source) {
+		return check(source, 0);
+	}
+
+	/**
+	 * Also drops the subscription when less than {@code expectedMillis} is left, since the source
+	 * would not produce its value in time.
+	 */
+	public <T> Mono<T> check(Mono<T> source, long expectedMillis) {
+		return Mono.deferWithContext(context -> {
+			Deadline deadline = Deadline.of(context);
+			if (deadline == null) {
+				return source;
+			}
+			if (!deadline.allows(expectedMillis)) {
+				return drop(deadline);
+			}
+			return source.<T>handle((value, sink) -> {
+				if (deadline.isExpired()) {
+					dropped.increment();
+					sink.error(deadline.exceeded());
+				}
+				else {
+					sink.next(value);
+				}
+			});
+		});
+	}
+
+	public <T> Flux<T> check(Flux<T> source) {
+		return check(source, 0);
+	}
+
+	/**
+	 * Also drops the subscription when less than {@code expectedMillis} is left for the first
+	 * element.
+	 */
+	public <T> Flux<T> check(Flux<T> source, long expectedMillis) {
+		return Flux.deferWithContext(context -> {
+			Deadline deadline = Deadline.of(context);
+			if (deadline == null) {
+				return source;
+			}
+			if (!deadline.allows(expectedMillis)) {
+				return this.<T>drop(deadline).flux();
+			}
+			return source.<T>handle((value, sink) -> {
+				if (deadline.isExpired()) {
+					dropped.increment();
+					sink.error(deadline.exceeded());
+				}
+				else {
+					sink.next(value);
+				}
+			});
+		});
+	}
+
+	/**
+	 * @return the number of subscriptions dropped because of their deadline
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	private <T> Mono<T> drop(Deadline deadline) {
+		dropped.increment();
+		return Mono.error(deadline.exceeded());
+	}
+}
@@ -1,5 +1,7 @@
 package io.pivotal.literx.domain;
 
+import java.util.Objects;
+
 public class User {
 
 	public static final User SKYLER = new User("swhite", "Skyler", "White");
@@ -13,10 +15,17 @@ public class User {
 
 	private final String lastname;
 
+	// users are immutable and hashed over and over by distinct(), caches and indexes
+	private final int hash;
+
 	public User(String username, String firstname, String lastname) {
 		this.username = username;
 		this.firstname = firstname;
 		this.lastname = lastname;
+		int result = Objects.hashCode(username);
+		result = 31 * result + Objects.hashCode(firstname);
+		result = 31 * result + Objects.hashCode(lastname);
+		this.hash = result;
 	}
 
 	public String getUsername() {
@@ -42,6 +51,9 @@ public class User {
 
 		User user = (User) o;
 
+		if (hash != user.hash) {
+			return false;
+		}
 		if (!username.equals(user.username)) {
 			return false;
 		}
@@ -54,10 +66,7 @@ public class User {
 
 	@Override
 	public int hashCode() {
-		int result = username.hashCode();
-		result = 31 * result + firstname.hashCode();
-		result = 31 * result + lastname.hashCode();
-		return result;
+		return hash;
 	}
 
 	@Override
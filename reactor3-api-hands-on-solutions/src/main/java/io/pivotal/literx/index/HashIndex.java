@@ -0,0 +1,45 @@
+package io.pivotal.literx.index;
+
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Secondary index for equality lookups, with the values of each key in insertion order.
+ *
+ * Values are only ever added, by one writer at a time, and readers iterate the values of a key
+ * without locking. The iteration is weakly consistent: it may or may not see the values added
+ * while it runs, and costs nothing more than the values it returns. Values whose key is
+ * {@code null} are not indexed.
+ */
+public final class HashIndex<K, T> {
+
+	private final Function<? super T, ? extends K> key;
+
+	private final ConcurrentHashMap<K, Queue<T>> values = new ConcurrentHashMap<>();
+
+	public HashIndex(Function<? super T, ? extends K> key) {
+		this.key = key;
+	}
+
+	public void add(T value) {
+		K k = key.apply(value);
+		if (k != null) {
+			values.computeIfAbsent(k, x -> new ConcurrentLinkedQueue<>()).add(value);
+		}
+	}
+
+	public Iterable<T> get(K k) {
+		Queue<T> matching = k == null ? null : values.get(k);
+		return matching == null ? Collections.emptyList() : matching;
+	}
+
+	/**
+	 * @return the number of distinct keys
+	 */
+	public int getKeyCount() {
+		return values.size();
+	}
+}
@@ -0,0 +1,44 @@
+package io.pivotal.literx.index;
+
+/**
+ * Sizing and hash spreading shared by the open addressing tables.
+ */
+final class Hashing {
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private Hashing() {
+	}
+
+	/**
+	 * Spreads the bits of a hash code over the low bits used as slot index, so that hash codes
+	 * following a pattern, such as those of usernames differing in their last characters, do not
+	 * pile up in runs of neighbouring slots, which linear probing handles much worse than the
+	 * chains of a {@code HashMap}.
+	 */
+	static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @return the power of two capacity holding {@code expectedSize} keys without growing
+	 */
+	static int capacity(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize >= 0 required but it was " + expectedSize);
+		}
+		long needed = Math.max(4, (long) expectedSize * 3 / 2 + 1);
+		if (needed > MAX_CAPACITY) {
+			return MAX_CAPACITY;
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+
+	/**
+	 * @return the number of keys past which a table of that capacity grows, two thirds of it
+	 */
+	static int threshold(int capacity) {
+		return capacity == MAX_CAPACITY ? Integer.MAX_VALUE : capacity / 3 * 2;
+	}
+}
@@ -0,0 +1,220 @@
+package io.pivotal.literx.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Compact index for prefix queries over a {@code String} key: two runs of values sorted by key, a
+ * large base run and a small pending run taking the values added since the last merge, each kept
+ * as an array of keys and an array of values.
+ *
+ * A query binary searches the first key of the prefix in both runs then walks them in key order,
+ * values with the same key coming in insertion order, so its cost is {@code O(log n)} plus the
+ * values it returns. Adding a value inserts it into a copy of the pending run, and once that run
+ * holds more than the square root of the base run it is merged into a copy of the base run, which
+ * keeps both the inserts and the amortized merges at {@code O(sqrt(n))} per value. The index holds
+ * two array slots per value instead of the nodes of a skip list or a trie.
+ *
+ * Values are only ever added, by one writer at a time. Each add publishes a new immutable snapshot
+ * of the runs, and readers walk the snapshot they started with, without locking. Values whose key
+ * is {@code null} are not indexed.
+ */
+public final class PrefixIndex<T> {
+
+	private static final int MIN_PENDING = 256;
+
+	private static final String[] NO_KEYS = new String[0];
+
+	private static final Object[] NO_VALUES = new Object[0];
+
+	private final Function<? super T, String> key;
+
+	private volatile Snapshot snapshot = new Snapshot(NO_KEYS, NO_VALUES, NO_KEYS, NO_VALUES);
+
+	public PrefixIndex(Function<? super T, String> key) {
+		this.key = key;
+	}
+
+	public void add(T value) {
+		String k = key.apply(value);
+		if (k == null) {
+			return;
+		}
+		Snapshot s = snapshot;
+		int at = upperBound(s.pendingKeys, 0, s.pendingKeys.length, k);
+		int length = s.pendingKeys.length;
+		String[] pendingKeys = new String[length + 1];
+		Object[] pendingValues = new Object[length + 1];
+		System.arraycopy(s.pendingKeys, 0, pendingKeys, 0, at);
+		System.arraycopy(s.pendingValues, 0, pendingValues, 0, at);
+		pendingKeys[at] = k;
+		pendingValues[at] = value;
+		System.arraycopy(s.pendingKeys, at, pendingKeys, at + 1, length - at);
+		System.arraycopy(s.pendingValues, at, pendingValues, at + 1, length - at);
+
+		if (pendingKeys.length > Math.max(MIN_PENDING, (int) Math.sqrt(s.baseKeys.length))) {
+			snapshot = merge(s.baseKeys, s.baseValues, pendingKeys, pendingValues);
+		}
+		else {
+			snapshot = new Snapshot(s.baseKeys, s.baseValues, pendingKeys, pendingValues);
+		}
+	}
+
+	/**
+	 * Adds the values at once, sorting them then merging them into the base run in one pass,
+	 * instead of the repeated merges of adding them one by one.
+	 */
+	public void addAll(Collection<? extends T> values) {
+		Object[] sorted = values.stream().filter(value -> key.apply(value) != null).toArray();
+		@SuppressWarnings("unchecked")
+		Comparator<Object> byKey = Comparator.comparing(value -> key.apply((T) value));
+		// stable, values with the same key keep their order
+		Arrays.sort(sorted, byKey);
+		String[] keys = new String[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			@SuppressWarnings("unchecked")
+			T value = (T) sorted[i];
+			keys[i] = key.apply(value);
+		}
+		Snapshot s = snapshot;
+		if (s.pendingKeys.length > 0) {
+			s = merge(s.baseKeys, s.baseValues, s.pendingKeys, s.pendingValues);
+		}
+		snapshot = merge(s.baseKeys, s.baseValues, keys, sorted);
+	}
+
+	/**
+	 * @return the values whose key starts with {@code prefix}, in key order
+	 */
+	public Iterable<T> prefix(String prefix) {
+		return () -> new PrefixIterator(snapshot, prefix);
+	}
+
+	public int size() {
+		Snapshot s = snapshot;
+		return s.baseKeys.length + s.pendingKeys.length;
+	}
+
+	/**
+	 * Merges the pending run into the base run, binary searching where each pending value goes in
+	 * the base run and copying the base run between them in bulk, rather than comparing every key
+	 * of the much larger base run.
+	 */
+	private static Snapshot merge(String[] baseKeys, Object[] baseValues,
+			String[] pendingKeys, Object[] pendingValues) {
+		String[] keys = new String[baseKeys.length + pendingKeys.length];
+		Object[] values = new Object[keys.length];
+		int b = 0;
+		int i = 0;
+		for (int p = 0; p < pendingKeys.length; p++) {
+			// after the base values with the same key, they were added earlier
+			int at = upperBound(baseKeys, b, baseKeys.length, pendingKeys[p]);
+			System.arraycopy(baseKeys, b, keys, i, at - b);
+			System.arraycopy(baseValues, b, values, i, at - b);
+			i += at - b;
+			b = at;
+			keys[i] = pendingKeys[p];
+			values[i++] = pendingValues[p];
+		}
+		System.arraycopy(baseKeys, b, keys, i, baseKeys.length - b);
+		System.arraycopy(baseValues, b, values, i, baseKeys.length - b);
+		return new Snapshot(keys, values, NO_KEYS, NO_VALUES);
+	}
+
+	/**
+	 * @return the index of the first key not less than {@code key}
+	 */
+	private static int lowerBound(String[] keys, String key) {
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid].compareTo(key) < 0) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return the index of the first key greater than {@code key} between {@code from} included
+	 * and {@code to} excluded, or {@code to}
+	 */
+	private static int upperBound(String[] keys, int from, int to, String key) {
+		int low = from;
+		int high = to;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid].compareTo(key) <= 0) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static final class Snapshot {
+
+		final String[] baseKeys;
+
+		final Object[] baseValues;
+
+		final String[] pendingKeys;
+
+		final Object[] pendingValues;
+
+		Snapshot(String[] baseKeys, Object[] baseValues, String[] pendingKeys, Object[] pendingValues) {
+			this.baseKeys = baseKeys;
+			this.baseValues = baseValues;
+			this.pendingKeys = pendingKeys;
+			this.pendingValues = pendingValues;
+		}
+	}
+
+	private final class PrefixIterator implements Iterator<T> {
+
+		private final Snapshot s;
+
+		private final String prefix;
+
+		private int b;
+
+		private int p;
+
+		PrefixIterator(Snapshot s, String prefix) {
+			this.s = s;
+			this.prefix = prefix;
+			b = lowerBound(s.baseKeys, prefix);
+			p = lowerBound(s.pendingKeys, prefix);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return b < s.baseKeys.length && s.baseKeys[b].startsWith(prefix)
+					|| p < s.pendingKeys.length && s.pendingKeys[p].startsWith(prefix);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			boolean base = b < s.baseKeys.length && s.baseKeys[b].startsWith(prefix);
+			boolean pending = p < s.pendingKeys.length && s.pendingKeys[p].startsWith(prefix);
+			if (base && (!pending || s.baseKeys[b].compareTo(s.pendingKeys[p]) <= 0)) {
+				return (T) s.baseValues[b++];
+			}
+			if (pending) {
+				return (T) s.pendingValues[p++];
+			}
+			throw new NoSuchElementException();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package io.pivotal.literx.index;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Secondary index for prefix and range queries over a {@code String} key, kept in a skip list.
+ *
+ * A query finds its first key in {@code O(log n)} then walks the keys in order, values with the
+ * same key coming in insertion order, so its cost grows with the number of values it returns.
+ * Values are only ever added, by one writer at a time, and readers walk the index without
+ * locking. The iteration is weakly consistent: it may or may not see the values added while it
+ * runs. Values whose key is {@code null} are not indexed.
+ */
+public final class SortedIndex<T> {
+
+	private final Function<? super T, String> key;
+
+	private final ConcurrentSkipListMap<String, Queue<T>> values = new ConcurrentSkipListMap<>();
+
+	public SortedIndex(Function<? super T, String> key) {
+		this.key = key;
+	}
+
+	public void add(T value) {
+		String k = key.apply(value);
+		if (k != null) {
+			values.computeIfAbsent(k, x -> new ConcurrentLinkedQueue<>()).add(value);
+		}
+	}
+
+	/**
+	 * @return the values whose key is at least {@code from} and less than {@code to}
+	 */
+	public Iterable<T> range(String from, String to) {
+		if (from.compareTo(to) >= 0) {
+			return Collections.emptyList();
+		}
+		return () -> flatten(values.subMap(from, true, to, false).values().iterator(), null);
+	}
+
+	/**
+	 * @return the values whose key starts with {@code prefix}
+	 */
+	public Iterable<T> prefix(String prefix) {
+		return () -> flatten(values.tailMap(prefix, true).entrySet().iterator(), prefix);
+	}
+
+	/**
+	 * @return the number of distinct keys
+	 */
+	public int getKeyCount() {
+		return values.size();
+	}
+
+	/**
+	 * @param keys the queues of values, or the entries holding them when walking a prefix
+	 * @param prefix the prefix past which to stop, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Iterator<T> flatten(Iterator<?> keys, String prefix) {
+		return new Iterator<T>() {
+
+			private Iterator<T> current = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext()) {
+					if (!keys.hasNext()) {
+						return false;
+					}
+					Object next = keys.next();
+					if (prefix == null) {
+						current = ((Queue<T>) next).iterator();
+					}
+					else {
+						Map.Entry<String, Queue<T>> entry = (Map.Entry<String, Queue<T>>) next;
+						if (!entry.getKey().startsWith(prefix)) {
+							return false;
+						}
+						current = entry.getValue().iterator();
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return current.next();
+			}
+		};
+	}
+}
@@ -0,0 +1,135 @@
+package io.pivotal.literx.index;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import io.pivotal.literx.domain.User;
+
+/**
+ * {@link User}s by username, in two parallel arrays with linear probing: the hash codes of the
+ * usernames, and the users. Probing only reads the dense array of hash codes, 0 marking an empty
+ * slot, and a user is only read when its hash code matches. Adding a user allocates nothing
+ * unless the table grows, unlike the {@code HashMap.Node} of a {@code HashMap}.
+ *
+ * The table is kept at most two thirds full. Users cannot be removed, and the index is not thread
+ * safe.
+ */
+public final class UsernameIndex {
+
+	private int[] hashes;
+
+	private User[] users;
+
+	private int size;
+
+	public UsernameIndex() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize the number of users to hold without growing
+	 */
+	public UsernameIndex(int expectedSize) {
+		int capacity = Hashing.capacity(expectedSize);
+		hashes = new int[capacity];
+		users = new User[capacity];
+	}
+
+	/**
+	 * @return the user with that username, or {@code null}
+	 */
+	public User get(String username) {
+		if (username == null) {
+			return null;
+		}
+		int hash = hash(username);
+		int mask = hashes.length - 1;
+		for (int i = Hashing.mix(hash) & mask; ; i = (i + 1) & mask) {
+			int slot = hashes[i];
+			if (slot == 0) {
+				return null;
+			}
+			if (slot == hash && users[i].getUsername().equals(username)) {
+				return users[i];
+			}
+		}
+	}
+
+	/**
+	 * Indexes the user, replacing the one with the same username.
+	 *
+	 * @return the replaced user, or {@code null}
+	 */
+	public User put(User user) {
+		return put(user, true);
+	}
+
+	/**
+	 * Indexes the user unless one with the same username already is.
+	 *
+	 * @return the user already indexed, or {@code null} if the given one was added
+	 */
+	public User putIfAbsent(User user) {
+		return put(user, false);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		Arrays.fill(hashes, 0);
+		Arrays.fill(users, null);
+		size = 0;
+	}
+
+	/**
+	 * @return the hash code of the username, never 0 which marks empty slots
+	 */
+	private static int hash(String username) {
+		int hash = username.hashCode();
+		return hash == 0 ? 1 : hash;
+	}
+
+	private User put(User user, boolean replace) {
+		String username = Objects.requireNonNull(user.getUsername(), "username");
+		int hash = hash(username);
+		int mask = hashes.length - 1;
+		for (int i = Hashing.mix(hash) & mask; ; i = (i + 1) & mask) {
+			int slot = hashes[i];
+			if (slot == 0) {
+				hashes[i] = hash;
+				users[i] = user;
+				if (++size > Hashing.threshold(hashes.length)) {
+					grow();
+				}
+				return null;
+			}
+			User existing = users[i];
+			if (slot == hash && existing.getUsername().equals(username)) {
+				if (replace) {
+					users[i] = user;
+				}
+				return existing;
+			}
+		}
+	}
+
+	private void grow() {
+		int[] oldHashes = hashes;
+		User[] oldUsers = users;
+		hashes = new int[oldHashes.length * 2];
+		users = new User[oldUsers.length * 2];
+		int mask = hashes.length - 1;
+		for (int j = 0; j < oldHashes.length; j++) {
+			if (oldHashes[j] != 0) {
+				int i = Hashing.mix(oldHashes[j]) & mask;
+				while (hashes[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				hashes[i] = oldHashes[j];
+				users[i] = oldUsers[j];
+			}
+		}
+	}
+}
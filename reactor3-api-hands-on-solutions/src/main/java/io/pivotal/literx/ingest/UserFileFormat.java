@@ -0,0 +1,42 @@
+package io.pivotal.literx.ingest;
+
+import io.pivotal.literx.domain.User;
+
+/**
+ * Record formats understood by {@link UserFiles}, one {@link User} per record.
+ */
+public enum UserFileFormat {
+
+	/**
+	 * {@code username,firstname,lastname} lines, RFC 4180 quoting.
+	 */
+	CSV(false),
+
+	/**
+	 * Same as {@link #CSV}, the first line is a header and is skipped.
+	 */
+	CSV_WITH_HEADER(true),
+
+	/**
+	 * One {@code {"username":..,"firstname":..,"lastname":..}} object per line.
+	 */
+	NDJSON(false);
+
+	private final boolean header;
+
+	UserFileFormat(boolean header) {
+		this.header = header;
+	}
+
+	boolean hasHeader() {
+		return header;
+	}
+
+	boolean isCsv() {
+		return this != NDJSON;
+	}
+
+	User parse(String record, long line) {
+		return isCsv() ? UserRecords.csv(record, line) : UserRecords.json(record, line);
+	}
+}
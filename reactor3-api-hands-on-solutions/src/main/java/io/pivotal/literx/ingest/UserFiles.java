@@ -0,0 +1,83 @@
+package io.pivotal.literx.ingest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Backpressured {@link User} sources reading CSV or NDJSON files, to bulk load a repository:
+ *
+ * <pre>
+ * repository.save(UserFiles.read(path, UserFileFormat.CSV_WITH_HEADER))
+ * </pre>
+ *
+ * Records are parsed one per request out of a fixed-size buffer, and the file is only read
+ * further when downstream asks for more. Reads block, so they happen on the elastic scheduler.
+ * A malformed record terminates the flux with an {@link IllegalArgumentException}.
+ */
+public final class UserFiles {
+
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private UserFiles() {
+	}
+
+	public static Flux<User> read(Path file, UserFileFormat format) {
+		return read(file, format, DEFAULT_BUFFER_SIZE);
+	}
+
+	public static Flux<User> read(Path file, UserFileFormat format, int bufferSize) {
+		return read(file, format, bufferSize, new LongAdder());
+	}
+
+	/**
+	 * @param bytesRead the number of bytes read from the file so far
+	 */
+	static Flux<User> read(Path file, UserFileFormat format, int bufferSize, LongAdder bytesRead) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize > 0 required but it was " + bufferSize);
+		}
+		return Flux.<User, UserRecordReader>generate(
+				() -> new UserRecordReader(file, format, bufferSize, bytesRead),
+				(reader, sink) -> {
+					try {
+						User user = reader.next();
+						if (user == null) {
+							sink.complete();
+						}
+						else {
+							sink.next(user);
+						}
+					}
+					catch (IOException | IllegalArgumentException e) {
+						sink.error(e);
+					}
+					return reader;
+				},
+				UserFiles::close)
+				.subscribeOn(Schedulers.elastic());
+	}
+
+	/**
+	 * Save every user of the file, completing once the repository has them all.
+	 */
+	public static Mono<Void> load(Path file, UserFileFormat format, ReactiveRepository<User> repository) {
+		return repository.save(read(file, format));
+	}
+
+	private static void close(UserRecordReader reader) {
+		try {
+			reader.close();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package io.pivotal.literx.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.pivotal.literx.domain.User;
+
+/**
+ * Pulls one record at a time out of a file, through a single fixed-size buffer.
+ *
+ * The channel is only read when the buffer holds no complete record anymore, so the memory
+ * used is the buffer plus the longest record seen, whatever the size of the file.
+ */
+final class UserRecordReader implements Closeable {
+
+	private final FileChannel channel;
+
+	private final ByteBuffer buffer;
+
+	private final UserFileFormat format;
+
+	private final LongAdder bytesRead;
+
+	private byte[] record = new byte[128];
+
+	private int recordLength;
+
+	private boolean inQuotes;
+
+	private long line;
+
+	private boolean eof;
+
+	UserRecordReader(Path file, UserFileFormat format, int bufferSize, LongAdder bytesRead)
+			throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.buffer = ByteBuffer.allocate(bufferSize);
+		this.buffer.flip();
+		this.format = format;
+		this.bytesRead = bytesRead;
+	}
+
+	/**
+	 * @return the next user, or {@code null} at the end of the file
+	 */
+	User next() throws IOException {
+		while (true) {
+			if (!buffer.hasRemaining()) {
+				if (eof) {
+					return recordLength > 0 ? complete() : null;
+				}
+				buffer.clear();
+				int read = channel.read(buffer);
+				eof = read < 0;
+				if (read > 0) {
+					bytesRead.add(read);
+				}
+				buffer.flip();
+				continue;
+			}
+			if (scan()) {
+				User user = complete();
+				if (user != null) {
+					return user;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Append the buffered bytes to the current record, up to the end of the record.
+	 *
+	 * @return true if the record is complete
+	 */
+	private boolean scan() {
+		byte[] array = buffer.array();
+		int from = buffer.position();
+		int limit = buffer.limit();
+		boolean csv = format.isCsv();
+		for (int i = from; i < limit; i++) {
+			byte b = array[i];
+			if (b == '"' && csv) {
+				inQuotes = !inQuotes;
+			}
+			else if (b == '\n' && !inQuotes) {
+				append(array, from, i - from);
+				buffer.position(i + 1);
+				return true;
+			}
+		}
+		append(array, from, limit - from);
+		buffer.position(limit);
+		return false;
+	}
+
+	private void append(byte[] bytes, int offset, int length) {
+		if (recordLength + length > record.length) {
+			record = Arrays.copyOf(record, Math.max(record.length * 2, recordLength + length));
+		}
+		System.arraycopy(bytes, offset, record, recordLength, length);
+		recordLength += length;
+	}
+
+	private User complete() {
+		line++;
+		int length = recordLength;
+		recordLength = 0;
+		if (length > 0 && record[length - 1] == '\r') {
+			length--;
+		}
+		if (inQuotes) {
+			inQuotes = false;
+			throw UserRecords.malformed("unterminated quoted field",
+					new String(record, 0, length, StandardCharsets.UTF_8), line);
+		}
+		if (length == 0 || (line == 1 && format.hasHeader())) {
+			return null;
+		}
+		return format.parse(new String(record, 0, length, StandardCharsets.UTF_8), line);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,218 @@
+package io.pivotal.literx.ingest;
+
+import io.pivotal.literx.domain.User;
+
+/**
+ * Parsers for a single CSV or NDJSON record.
+ */
+final class UserRecords {
+
+	private UserRecords() {
+	}
+
+	static User csv(String record, long line) {
+		String[] fields = new String[3];
+		StringBuilder field = new StringBuilder();
+		int count = 0;
+		int i = 0;
+		int length = record.length();
+		while (true) {
+			field.setLength(0);
+			if (i < length && record.charAt(i) == '"') {
+				i++;
+				while (true) {
+					if (i >= length) {
+						throw malformed("unterminated quoted field", record, line);
+					}
+					char c = record.charAt(i++);
+					if (c == '"') {
+						if (i < length && record.charAt(i) == '"') {
+							field.append('"');
+							i++;
+						}
+						else {
+							break;
+						}
+					}
+					else {
+						field.append(c);
+					}
+				}
+			}
+			else {
+				while (i < length && record.charAt(i) != ',') {
+					field.append(record.charAt(i++));
+				}
+			}
+			if (count == fields.length) {
+				throw malformed("more than 3 fields", record, line);
+			}
+			fields[count++] = field.toString();
+			if (i >= length) {
+				break;
+			}
+			if (record.charAt(i++) != ',') {
+				throw malformed("expected ',' after quoted field", record, line);
+			}
+		}
+		if (count != fields.length) {
+			throw malformed("expected 3 fields", record, line);
+		}
+		return new User(fields[0], fields[1], fields[2]);
+	}
+
+	static User json(String record, long line) {
+		JsonCursor cursor = new JsonCursor(record, line);
+		String username = null;
+		String firstname = null;
+		String lastname = null;
+		cursor.expect('{');
+		if (!cursor.consume('}')) {
+			do {
+				String key = cursor.string();
+				cursor.expect(':');
+				if (cursor.peek() != '"') {
+					cursor.skipScalar();
+					continue;
+				}
+				String value = cursor.string();
+				switch (key) {
+					case "username":
+						username = value;
+						break;
+					case "firstname":
+						firstname = value;
+						break;
+					case "lastname":
+						lastname = value;
+						break;
+					default:
+						break;
+				}
+			}
+			while (cursor.consume(','));
+			cursor.expect('}');
+		}
+		cursor.end();
+		if (username == null || firstname == null || lastname == null) {
+			throw malformed("expected username, firstname and lastname", record, line);
+		}
+		return new User(username, firstname, lastname);
+	}
+
+	static IllegalArgumentException malformed(String reason, String record, long line) {
+		return new IllegalArgumentException("Malformed record #" + line + " (" + reason + "): " + record);
+	}
+
+	/**
+	 * Just enough JSON for flat objects: string values are read, other scalars skipped.
+	 */
+	private static final class JsonCursor {
+
+		private final String record;
+
+		private final long line;
+
+		private int i;
+
+		JsonCursor(String record, long line) {
+			this.record = record;
+			this.line = line;
+		}
+
+		char peek() {
+			skipWhitespace();
+			if (i >= record.length()) {
+				throw malformed("unexpected end of record", record, line);
+			}
+			return record.charAt(i);
+		}
+
+		boolean consume(char c) {
+			if (peek() == c) {
+				i++;
+				return true;
+			}
+			return false;
+		}
+
+		void expect(char c) {
+			if (!consume(c)) {
+				throw malformed("expected '" + c + "'", record, line);
+			}
+		}
+
+		String string() {
+			expect('"');
+			StringBuilder value = new StringBuilder();
+			while (true) {
+				if (i >= record.length()) {
+					throw malformed("unterminated string", record, line);
+				}
+				char c = record.charAt(i++);
+				if (c == '"') {
+					return value.toString();
+				}
+				if (c != '\\') {
+					value.append(c);
+					continue;
+				}
+				if (i >= record.length()) {
+					throw malformed("unterminated escape", record, line);
+				}
+				char escaped = record.charAt(i++);
+				switch (escaped) {
+					case 'b':
+						value.append('\b');
+						break;
+					case 'f':
+						value.append('\f');
+						break;
+					case 'n':
+						value.append('\n');
+						break;
+					case 'r':
+						value.append('\r');
+						break;
+					case 't':
+						value.append('\t');
+						break;
+					case 'u':
+						if (i + 4 > record.length()) {
+							throw malformed("truncated unicode escape", record, line);
+						}
+						try {
+							value.append((char) Integer.parseInt(record.substring(i, i + 4), 16));
+						}
+						catch (NumberFormatException e) {
+							throw malformed("invalid unicode escape", record, line);
+						}
+						i += 4;
+						break;
+					default:
+						value.append(escaped);
+				}
+			}
+		}
+
+		void skipScalar() {
+			peek();
+			while (i < record.length() && ",}".indexOf(record.charAt(i)) < 0) {
+				i++;
+			}
+		}
+
+		void end() {
+			skipWhitespace();
+			if (i != record.length()) {
+				throw malformed("trailing characters", record, line);
+			}
+		}
+
+		private void skipWhitespace() {
+			while (i < record.length() && Character.isWhitespace(record.charAt(i))) {
+				i++;
+			}
+		}
+	}
+}
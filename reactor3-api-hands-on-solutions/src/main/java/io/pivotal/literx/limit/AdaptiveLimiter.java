@@ -0,0 +1,120 @@
+package io.pivotal.literx.limit;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Caps the calls in flight with the limit of a {@link LimitAlgorithm}, fed with the latency of
+ * every call that completes:
+ *
+ * <pre>
+ * AdaptiveLimiter limiter = new AdaptiveLimiter(new VegasLimit(10, 1, 200));
+ * ids.flatMap(id -> limiter.limit(repository.findById(id)), 256)
+ * </pre>
+ *
+ * A call beyond the limit is rejected on subscription with a {@link RejectedExecutionException},
+ * without reaching the backend. Calls failing with a {@link TimeoutException} count as dropped,
+ * other errors and cancellations free their slot without a sample.
+ */
+public final class AdaptiveLimiter {
+
+	private final LimitAlgorithm algorithm;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final LongAdder rejected = new LongAdder();
+
+	public AdaptiveLimiter(LimitAlgorithm algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	public <T> Mono<T> limit(Mono<T> call) {
+		return Mono.defer(() -> {
+			int started = acquire();
+			if (started < 0) {
+				return Mono.error(rejection());
+			}
+			Call sample = new Call(started);
+			return call.doOnError(sample::failed).doFinally(sample::finish);
+		});
+	}
+
+	public <T> Flux<T> limit(Flux<T> call) {
+		return Flux.defer(() -> {
+			int started = acquire();
+			if (started < 0) {
+				return Flux.error(rejection());
+			}
+			Call sample = new Call(started);
+			return call.doOnError(sample::failed).doFinally(sample::finish);
+		});
+	}
+
+	public int getLimit() {
+		return algorithm.getLimit();
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * @return the number of calls rejected because the limit was reached
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * @return the calls in flight including the new one, or -1 if the limit is reached
+	 */
+	private int acquire() {
+		for (;;) {
+			int current = inFlight.get();
+			if (current >= algorithm.getLimit()) {
+				rejected.increment();
+				return -1;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return current + 1;
+			}
+		}
+	}
+
+	private RejectedExecutionException rejection() {
+		return new RejectedExecutionException("Concurrency limit of " + algorithm.getLimit() + " reached");
+	}
+
+	private final class Call {
+
+		private final int started;
+
+		private final long startNanos = System.nanoTime();
+
+		private Throwable error;
+
+		Call(int started) {
+			this.started = started;
+		}
+
+		void failed(Throwable e) {
+			error = e;
+		}
+
+		void finish(SignalType signal) {
+			inFlight.decrementAndGet();
+			if (signal == SignalType.ON_COMPLETE) {
+				algorithm.onSample(System.nanoTime() - startNanos, started, false);
+			}
+			else if (error instanceof TimeoutException) {
+				algorithm.onSample(System.nanoTime() - startNanos, started, true);
+			}
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package io.pivotal.literx.limit;
+
+/**
+ * Estimates how many calls may be in flight from the latencies of the calls that completed.
+ *
+ * Implementations are called concurrently by the completing calls.
+ */
+public interface LimitAlgorithm {
+
+	int getLimit();
+
+	/**
+	 * @param rttNanos the latency of the call that completed
+	 * @param inFlight the calls in flight when it started, itself included
+	 * @param dropped whether it timed out, a sign of overload regardless of its latency
+	 */
+	void onSample(long rttNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,57 @@
+package io.pivotal.literx.limit;
+
+import io.pivotal.literx.repository.OverflowPolicy;
+import io.pivotal.literx.repository.ReactiveRepository;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveRepository} passing every call through an {@link AdaptiveLimiter}, except for
+ * the {@code watch} streams which stay open for as long as their subscribers want.
+ */
+public class LimitedRepository<T> implements ReactiveRepository<T> {
+
+	private final ReactiveRepository<T> delegate;
+
+	private final AdaptiveLimiter limiter;
+
+	public LimitedRepository(ReactiveRepository<T> delegate, AdaptiveLimiter limiter) {
+		this.delegate = delegate;
+		this.limiter = limiter;
+	}
+
+	@Override
+	public Mono<Void> save(Publisher<T> publisher) {
+		return limiter.limit(delegate.save(publisher));
+	}
+
+	@Override
+	public Mono<T> findFirst() {
+		return limiter.limit(delegate.findFirst());
+	}
+
+	@Override
+	public Flux<T> findAll() {
+		return limiter.limit(delegate.findAll());
+	}
+
+	@Override
+	public Mono<T> findById(String id) {
+		return limiter.limit(delegate.findById(id));
+	}
+
+	@Override
+	public Flux<T> watch() {
+		return delegate.watch();
+	}
+
+	@Override
+	public Flux<T> watch(int bufferSize, OverflowPolicy policy) {
+		return delegate.watch(bufferSize, policy);
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+}
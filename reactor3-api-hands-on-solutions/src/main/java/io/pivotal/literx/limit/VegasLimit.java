@@ -0,0 +1,87 @@
+package io.pivotal.literx.limit;
+
+/**
+ * TCP Vegas style limit: the queue in front of the backend is estimated as {@code limit * (1 -
+ * minRtt / rtt)}, the limit grows while that queue is shorter than {@code alpha} and shrinks
+ * once it is longer than {@code beta}, both scaled by {@code log10(limit)}. A dropped call halves
+ * the limit.
+ *
+ * Since a backend that got slower for good would otherwise look permanently queued, the minimum
+ * RTT is forgotten every {@code probeInterval} limits worth of samples and measured again.
+ */
+public final class VegasLimit implements LimitAlgorithm {
+
+	private static final int ALPHA = 3;
+
+	private static final int BETA = 6;
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final int probeInterval;
+
+	private volatile int limit;
+
+	private long minRtt = Long.MAX_VALUE;
+
+	private long samplesSinceProbe;
+
+	public VegasLimit(int initialLimit, int minLimit, int maxLimit) {
+		this(initialLimit, minLimit, maxLimit, 30);
+	}
+
+	public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+		if (minLimit <= 0 || initialLimit < minLimit || maxLimit < initialLimit) {
+			throw new IllegalArgumentException("0 < minLimit <= initialLimit <= maxLimit required but they were "
+					+ minLimit + ", " + initialLimit + " and " + maxLimit);
+		}
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.probeInterval = probeInterval;
+	}
+
+	@Override
+	public int getLimit() {
+		return limit;
+	}
+
+	@Override
+	public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+		int limit = this.limit;
+		++samplesSinceProbe;
+		// the RTT of a dropped call says nothing of the backend latency, only that it is overloaded
+		if (dropped) {
+			this.limit = Math.max(minLimit, limit / 2);
+			return;
+		}
+		if (samplesSinceProbe > (long) probeInterval * limit) {
+			samplesSinceProbe = 0;
+			minRtt = rttNanos;
+			return;
+		}
+		if (rttNanos < minRtt) {
+			minRtt = rttNanos;
+			return;
+		}
+		double log = Math.max(1, Math.log10(limit));
+		double queue = limit * (1 - (double) minRtt / rttNanos);
+		if (queue < ALPHA * log) {
+			// no point in growing a limit the callers do not use
+			if (inFlight * 2 >= limit) {
+				this.limit = Math.min(maxLimit, limit + (int) log);
+			}
+		}
+		else if (queue > BETA * log) {
+			this.limit = Math.max(minLimit, limit - (int) log);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "VegasLimit{" +
+				"limit=" + limit +
+				'}';
+	}
+}
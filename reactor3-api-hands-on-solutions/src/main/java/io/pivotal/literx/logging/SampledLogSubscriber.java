@@ -0,0 +1,80 @@
+package io.pivotal.literx.logging;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+
+/**
+ * Pass-through subscriber handing sampled signals to a {@link SignalLogWriter}.
+ */
+final class SampledLogSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+	private final CoreSubscriber<? super T> actual;
+
+	private final String category;
+
+	private final SignalSampler sampler;
+
+	private final SignalLogWriter writer;
+
+	private Subscription s;
+
+	private long index;
+
+	SampledLogSubscriber(CoreSubscriber<? super T> actual, String category, SignalSampler sampler,
+			SignalLogWriter writer) {
+		this.actual = actual;
+		this.category = category;
+		this.sampler = sampler;
+		this.writer = writer;
+	}
+
+	@Override
+	public Context currentContext() {
+		return actual.currentContext();
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		this.s = s;
+		record(SignalType.ON_SUBSCRIBE, s.getClass().getSimpleName());
+		actual.onSubscribe(this);
+	}
+
+	@Override
+	public void onNext(T t) {
+		if (sampler.sample(index++)) {
+			record(SignalType.ON_NEXT, t);
+		}
+		actual.onNext(t);
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		record(SignalType.ON_ERROR, t);
+		actual.onError(t);
+	}
+
+	@Override
+	public void onComplete() {
+		record(SignalType.ON_COMPLETE, null);
+		actual.onComplete();
+	}
+
+	@Override
+	public void request(long n) {
+		record(SignalType.REQUEST, n == Long.MAX_VALUE ? "unbounded" : n);
+		s.request(n);
+	}
+
+	@Override
+	public void cancel() {
+		record(SignalType.CANCEL, null);
+		s.cancel();
+	}
+
+	private void record(SignalType type, Object payload) {
+		writer.offer(new SignalRecord(category, type, payload));
+	}
+}
@@ -0,0 +1,34 @@
+package io.pivotal.literx.logging;
+
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+/**
+ * Sampled, asynchronous alternative to {@link Flux#log()}, to use with {@code transform}:
+ *
+ * <pre>
+ * repository.findAll().transform(SignalLog.sampled("users", SignalSampler.everyNth(100)))
+ * </pre>
+ *
+ * The emitting thread only captures the sampled signals, they are formatted and written by
+ * a {@link SignalLogWriter}.
+ */
+public final class SignalLog {
+
+	private SignalLog() {
+	}
+
+	public static <T> Function<Flux<T>, Flux<T>> sampled(String category, SignalSampler sampler) {
+		return sampled(category, sampler, SignalLogWriter.shared());
+	}
+
+	public static <T> Function<Flux<T>, Flux<T>> sampled(String category, SignalSampler sampler,
+			SignalLogWriter writer) {
+		Function<? super Publisher<T>, ? extends Publisher<T>> lift = Operators.<T, T>lift(
+				(scannable, actual) -> new SampledLogSubscriber<>(actual, category, sampler, writer));
+		return flux -> flux.transform(lift);
+	}
+}
@@ -0,0 +1,153 @@
+package io.pivotal.literx.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+
+/**
+ * Background thread draining {@link SignalRecord}s from a lock-free ring buffer into a sink.
+ *
+ * Emitting threads only pay for a CAS on the buffer tail, formatting and I/O happen on the
+ * writer thread. When the buffer is full, records are dropped and counted instead of
+ * slowing the pipeline down.
+ */
+public final class SignalLogWriter implements Disposable {
+
+	private static final int DEFAULT_CAPACITY = 8192;
+
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static volatile SignalLogWriter shared;
+
+	private final SignalRingBuffer<SignalRecord> buffer;
+
+	private final Consumer<SignalRecord> sink;
+
+	private final LongAdder dropped = new LongAdder();
+
+	private volatile long written;
+
+	private volatile boolean running;
+
+	private Thread thread;
+
+	/**
+	 * @param capacity size of the ring buffer, a power of 2
+	 * @param sink     receives the records on the writer thread
+	 */
+	public SignalLogWriter(int capacity, Consumer<SignalRecord> sink) {
+		this.buffer = new SignalRingBuffer<>(capacity);
+		this.sink = sink;
+	}
+
+	/**
+	 * @return a started writer sending records to their SLF4J logger at INFO level
+	 */
+	public static SignalLogWriter shared() {
+		SignalLogWriter writer = shared;
+		if (writer == null) {
+			synchronized (SignalLogWriter.class) {
+				writer = shared;
+				if (writer == null) {
+					writer = new SignalLogWriter(DEFAULT_CAPACITY, slf4j()).start();
+					shared = writer;
+				}
+			}
+		}
+		return writer;
+	}
+
+	public static Consumer<SignalRecord> slf4j() {
+		return record -> LoggerFactory.getLogger(record.getCategory()).info(record.format());
+	}
+
+	public synchronized SignalLogWriter start() {
+		if (thread == null) {
+			running = true;
+			thread = new Thread(this::run, "signal-log-writer");
+			thread.setDaemon(true);
+			thread.start();
+		}
+		return this;
+	}
+
+	/**
+	 * Stop the writer thread once it has written the records already buffered.
+	 */
+	@Override
+	public synchronized void dispose() {
+		if (thread == null || !running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(thread);
+		try {
+			thread.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return thread != null && !running;
+	}
+
+	/**
+	 * @return {@code false} if the record was dropped because the buffer is full
+	 */
+	public boolean offer(SignalRecord record) {
+		if (buffer.offer(record)) {
+			return true;
+		}
+		dropped.increment();
+		return false;
+	}
+
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	public long getWritten() {
+		return written;
+	}
+
+	public int getBuffered() {
+		return buffer.size();
+	}
+
+	/**
+	 * Write the buffered records on the calling thread, which must be the only consumer.
+	 */
+	int drain() {
+		int count = 0;
+		SignalRecord record;
+		while ((record = buffer.poll()) != null) {
+			try {
+				sink.accept(record);
+			}
+			catch (Throwable t) {
+				Exceptions.throwIfJvmFatal(t);
+				dropped.increment();
+			}
+			count++;
+		}
+		written += count;
+		return count;
+	}
+
+	private void run() {
+		while (running) {
+			if (drain() == 0) {
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			}
+		}
+		drain();
+	}
+}
@@ -0,0 +1,63 @@
+package io.pivotal.literx.logging;
+
+import reactor.core.publisher.SignalType;
+
+/**
+ * A signal captured on the emitting thread, formatted later by the {@link SignalLogWriter}.
+ */
+public final class SignalRecord {
+
+	private final long timestamp;
+
+	private final String thread;
+
+	private final String category;
+
+	private final SignalType type;
+
+	private final Object payload;
+
+	SignalRecord(String category, SignalType type, Object payload) {
+		this.timestamp = System.currentTimeMillis();
+		this.thread = Thread.currentThread().getName();
+		this.category = category;
+		this.type = type;
+		this.payload = payload;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public String getThread() {
+		return thread;
+	}
+
+	public String getCategory() {
+		return category;
+	}
+
+	public SignalType getType() {
+		return type;
+	}
+
+	/**
+	 * @return the value for onNext, the error for onError, the amount for request, otherwise {@code null}
+	 */
+	public Object getPayload() {
+		return payload;
+	}
+
+	/**
+	 * Same shape as the lines printed by {@code Flux#log()}.
+	 */
+	public String format() {
+		String argument = payload == null ? "" : String.valueOf(payload);
+		return "[" + thread + "] | " + type + "(" + argument + ")";
+	}
+
+	@Override
+	public String toString() {
+		return category + " " + format();
+	}
+}
@@ -0,0 +1,70 @@
+package io.pivotal.literx.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer single-consumer ring buffer.
+ *
+ * Producers claim a slot with a CAS on the tail and never wait: {@link #offer(Object)}
+ * returns {@code false} when the buffer is full. Only one thread may call {@link #poll()}.
+ */
+final class SignalRingBuffer<E> {
+
+	private final AtomicReferenceArray<E> slots;
+
+	private final int mask;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	private volatile long head;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicLongFieldUpdater<SignalRingBuffer> HEAD =
+			AtomicLongFieldUpdater.newUpdater(SignalRingBuffer.class, "head");
+
+	SignalRingBuffer(int capacity) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("capacity must be a power of 2 but it was " + capacity);
+		}
+		this.slots = new AtomicReferenceArray<>(capacity);
+		this.mask = capacity - 1;
+	}
+
+	boolean offer(E e) {
+		for (;;) {
+			long t = tail.get();
+			if (t - head >= slots.length()) {
+				return false;
+			}
+			if (tail.compareAndSet(t, t + 1)) {
+				slots.lazySet((int) t & mask, e);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * @return the oldest element, or {@code null} if empty or if its producer has not published it yet
+	 */
+	E poll() {
+		long h = head;
+		int index = (int) h & mask;
+		E e = slots.get(index);
+		if (e == null) {
+			return null;
+		}
+		slots.lazySet(index, null);
+		HEAD.lazySet(this, h + 1);
+		return e;
+	}
+
+	int size() {
+		return (int) (tail.get() - head);
+	}
+
+	int capacity() {
+		return slots.length();
+	}
+}
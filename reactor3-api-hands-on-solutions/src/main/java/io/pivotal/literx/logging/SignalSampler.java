@@ -0,0 +1,41 @@
+package io.pivotal.literx.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which onNext signals of a subscription are logged, terminal and demand signals
+ * are always logged.
+ */
+@FunctionalInterface
+public interface SignalSampler {
+
+	/**
+	 * @param index zero-based position of the onNext signal in its subscription
+	 * @return whether that signal is logged
+	 */
+	boolean sample(long index);
+
+	static SignalSampler all() {
+		return index -> true;
+	}
+
+	/**
+	 * Log the first onNext signal then one in every {@code n}.
+	 */
+	static SignalSampler everyNth(long n) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("n > 0 required but it was " + n);
+		}
+		return index -> index % n == 0;
+	}
+
+	/**
+	 * Log each onNext signal with the given probability.
+	 */
+	static SignalSampler rate(double fraction) {
+		if (fraction < 0 || fraction > 1) {
+			throw new IllegalArgumentException("fraction must be between 0 and 1 but it was " + fraction);
+		}
+		return index -> ThreadLocalRandom.current().nextDouble() < fraction;
+	}
+}
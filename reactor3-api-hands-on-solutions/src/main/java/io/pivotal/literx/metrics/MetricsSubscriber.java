@@ -0,0 +1,115 @@
+package io.pivotal.literx.metrics;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.util.context.Context;
+
+/**
+ * Pass-through subscriber recording the signals exchanged with the final subscriber of a
+ * named pipeline.
+ *
+ * The onNext count lives in this subscriber while it is active, written with an ordered
+ * store by the (serial) signalling thread and read by {@link PipelineCounters#snapshot()},
+ * then folded into the shared counters once the subscription terminates or is cancelled.
+ */
+final class MetricsSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+	private final CoreSubscriber<? super T> actual;
+
+	private final String name;
+
+	private PipelineCounters counters;
+
+	private Subscription s;
+
+	private long subscribedAt;
+
+	private boolean firstReceived;
+
+	private volatile long emitted;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicLongFieldUpdater<MetricsSubscriber> EMITTED =
+			AtomicLongFieldUpdater.newUpdater(MetricsSubscriber.class, "emitted");
+
+	private volatile int retired;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<MetricsSubscriber> RETIRED =
+			AtomicIntegerFieldUpdater.newUpdater(MetricsSubscriber.class, "retired");
+
+	MetricsSubscriber(CoreSubscriber<? super T> actual, String name) {
+		this.actual = actual;
+		this.name = name;
+	}
+
+	@Override
+	public Context currentContext() {
+		return actual.currentContext();
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		this.s = s;
+		this.subscribedAt = System.nanoTime();
+		counters = PipelineMetrics.subscribe(name, this);
+		counters.subscriptions.increment();
+		actual.onSubscribe(this);
+	}
+
+	@Override
+	public void onNext(T t) {
+		if (!firstReceived) {
+			firstReceived = true;
+			counters.recordFirstElement(System.nanoTime() - subscribedAt);
+		}
+		EMITTED.lazySet(this, emitted + 1);
+		actual.onNext(t);
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		counters.errors.increment();
+		retire();
+		actual.onError(t);
+	}
+
+	@Override
+	public void onComplete() {
+		counters.completions.increment();
+		retire();
+		actual.onComplete();
+	}
+
+	@Override
+	public void request(long n) {
+		if (n == Long.MAX_VALUE) {
+			counters.unboundedRequests.increment();
+		}
+		else {
+			counters.requested.add(n);
+		}
+		s.request(n);
+	}
+
+	@Override
+	public void cancel() {
+		counters.cancellations.increment();
+		retire();
+		s.cancel();
+	}
+
+	long emitted() {
+		return emitted;
+	}
+
+	private void retire() {
+		if (RETIRED.compareAndSet(this, 0, 1)) {
+			counters.onNext.add(emitted);
+			counters.live.remove(this);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package io.pivotal.literx.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of one named pipeline, shared by all of its subscriptions.
+ */
+final class PipelineCounters {
+
+	final String name;
+
+	volatile long startedAt = System.nanoTime();
+
+	final LongAdder subscriptions = new LongAdder();
+
+	final Set<MetricsSubscriber<?>> live = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * onNext count of the subscriptions that are no longer {@link #live}, less what the live ones
+	 * had emitted at the last {@link #reset()}.
+	 */
+	final LongAdder onNext = new LongAdder();
+
+	final LongAdder requested = new LongAdder();
+
+	final LongAdder unboundedRequests = new LongAdder();
+
+	final LongAdder cancellations = new LongAdder();
+
+	final LongAdder errors = new LongAdder();
+
+	final LongAdder completions = new LongAdder();
+
+	final LongAdder firstElements = new LongAdder();
+
+	final LongAdder firstElementNanos = new LongAdder();
+
+	final AtomicLong firstElementMaxNanos = new AtomicLong();
+
+	PipelineCounters(String name) {
+		this.name = name;
+	}
+
+	void recordFirstElement(long nanos) {
+		firstElements.increment();
+		firstElementNanos.add(nanos);
+		firstElementMaxNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * Starts the counters again from zero, the live subscriptions counting their onNext from now
+	 * on. Signals recorded concurrently may or may not be dropped.
+	 *
+	 * @return whether some subscriptions are still live
+	 */
+	boolean reset() {
+		startedAt = System.nanoTime();
+		subscriptions.reset();
+		onNext.reset();
+		requested.reset();
+		unboundedRequests.reset();
+		cancellations.reset();
+		errors.reset();
+		completions.reset();
+		firstElements.reset();
+		firstElementNanos.reset();
+		firstElementMaxNanos.set(0);
+		for (MetricsSubscriber<?> subscriber : live) {
+			onNext.add(-subscriber.emitted());
+		}
+		return !live.isEmpty();
+	}
+
+	PipelineSnapshot snapshot() {
+		long next = onNext.sum();
+		for (MetricsSubscriber<?> subscriber : live) {
+			next += subscriber.emitted();
+		}
+		return new PipelineSnapshot(name,
+				System.nanoTime() - startedAt,
+				subscriptions.sum(),
+				next,
+				requested.sum(),
+				unboundedRequests.sum(),
+				cancellations.sum(),
+				errors.sum(),
+				completions.sum(),
+				firstElements.sum(),
+				firstElementNanos.sum(),
+				firstElementMaxNanos.get());
+	}
+}
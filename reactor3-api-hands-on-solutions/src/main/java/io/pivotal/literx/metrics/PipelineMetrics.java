@@ -0,0 +1,94 @@
+package io.pivotal.literx.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+/**
+ * Opt-in signal metrics for named pipelines, installed through {@link Hooks#onLastOperator}.
+ *
+ * A pipeline is named with {@link Flux#name(String)} or {@link Mono#name(String)} anywhere in
+ * its chain; the signals recorded are the ones exchanged with its final subscriber. Only named
+ * pipelines are instrumented, each with a single extra subscriber whatever its length.
+ *
+ * @see PipelineSnapshot
+ */
+public final class PipelineMetrics {
+
+	private static final String HOOK_KEY = PipelineMetrics.class.getName();
+
+	private static final ConcurrentMap<String, PipelineCounters> COUNTERS = new ConcurrentHashMap<>();
+
+	private PipelineMetrics() {
+	}
+
+	public static void enable() {
+		Hooks.onLastOperator(HOOK_KEY, Operators.lift(
+				scannable -> pipelineName(scannable) != null,
+				(scannable, actual) -> new MetricsSubscriber<>(actual, pipelineName(scannable))));
+	}
+
+	public static void disable() {
+		Hooks.resetOnLastOperator(HOOK_KEY);
+	}
+
+	/**
+	 * Drop the counters of the pipelines without an active subscription, the others start again
+	 * from zero.
+	 */
+	public static void reset() {
+		for (String name : COUNTERS.keySet()) {
+			COUNTERS.computeIfPresent(name, (n, counters) -> counters.reset() ? counters : null);
+		}
+	}
+
+	/**
+	 * @return a copy of the counters of every pipeline seen so far, sorted by pipeline name
+	 */
+	public static Map<String, PipelineSnapshot> snapshot() {
+		Map<String, PipelineSnapshot> snapshot = new TreeMap<>();
+		COUNTERS.forEach((name, counters) -> snapshot.put(name, counters.snapshot()));
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+	/**
+	 * @return a copy of the counters of the given pipeline, or {@code null} if it was never subscribed
+	 */
+	public static PipelineSnapshot snapshot(String name) {
+		PipelineCounters counters = COUNTERS.get(name);
+		return counters == null ? null : counters.snapshot();
+	}
+
+	private static String pipelineName(Scannable scannable) {
+		String name = scannable.scan(Scannable.Attr.NAME);
+		if (name != null) {
+			return name;
+		}
+		return scannable.parents()
+				.map(parent -> parent.scan(Scannable.Attr.NAME))
+				.filter(Objects::nonNull)
+				.findFirst()
+				.orElse(null);
+	}
+
+	/**
+	 * @return the counters of the pipeline, the subscriber being made live atomically with respect
+	 * to {@link #reset()} so that it never records into dropped counters
+	 */
+	static PipelineCounters subscribe(String name, MetricsSubscriber<?> subscriber) {
+		return COUNTERS.compute(name, (n, counters) -> {
+			PipelineCounters pipeline = counters == null ? new PipelineCounters(n) : counters;
+			pipeline.live.add(subscriber);
+			return pipeline;
+		});
+	}
+}
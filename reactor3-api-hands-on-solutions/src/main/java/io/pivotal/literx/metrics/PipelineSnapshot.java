@@ -0,0 +1,128 @@
+package io.pivotal.literx.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time copy of the signal counters of one named pipeline.
+ */
+public final class PipelineSnapshot {
+
+	private final String name;
+
+	private final long elapsedNanos;
+
+	private final long subscriptions;
+
+	private final long onNext;
+
+	private final long requested;
+
+	private final long unboundedRequests;
+
+	private final long cancellations;
+
+	private final long errors;
+
+	private final long completions;
+
+	private final long firstElements;
+
+	private final long firstElementNanos;
+
+	private final long firstElementMaxNanos;
+
+	PipelineSnapshot(String name, long elapsedNanos, long subscriptions, long onNext, long requested,
+			long unboundedRequests, long cancellations, long errors, long completions,
+			long firstElements, long firstElementNanos, long firstElementMaxNanos) {
+		this.name = name;
+		this.elapsedNanos = elapsedNanos;
+		this.subscriptions = subscriptions;
+		this.onNext = onNext;
+		this.requested = requested;
+		this.unboundedRequests = unboundedRequests;
+		this.cancellations = cancellations;
+		this.errors = errors;
+		this.completions = completions;
+		this.firstElements = firstElements;
+		this.firstElementNanos = firstElementNanos;
+		this.firstElementMaxNanos = firstElementMaxNanos;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Duration getElapsed() {
+		return Duration.ofNanos(elapsedNanos);
+	}
+
+	public long getSubscriptions() {
+		return subscriptions;
+	}
+
+	public long getOnNext() {
+		return onNext;
+	}
+
+	/**
+	 * Sum of all bounded {@code request(n)} amounts, see {@link #getUnboundedRequests()} for the others.
+	 */
+	public long getRequested() {
+		return requested;
+	}
+
+	/**
+	 * Number of {@code request(Long.MAX_VALUE)} calls, which are not added to {@link #getRequested()}.
+	 */
+	public long getUnboundedRequests() {
+		return unboundedRequests;
+	}
+
+	public long getCancellations() {
+		return cancellations;
+	}
+
+	public long getErrors() {
+		return errors;
+	}
+
+	public long getCompletions() {
+		return completions;
+	}
+
+	/**
+	 * Average number of onNext signals per second since the pipeline was first seen.
+	 */
+	public double getOnNextRate() {
+		return elapsedNanos == 0 ? 0 : onNext * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	/**
+	 * Mean time between subscription and first element, over the subscriptions that received one.
+	 */
+	public Duration getMeanTimeToFirstElement() {
+		return firstElements == 0 ? Duration.ZERO : Duration.ofNanos(firstElementNanos / firstElements);
+	}
+
+	public Duration getMaxTimeToFirstElement() {
+		return Duration.ofNanos(firstElementMaxNanos);
+	}
+
+	@Override
+	public String toString() {
+		return "PipelineSnapshot{" +
+				"name='" + name + '\'' +
+				", subscriptions=" + subscriptions +
+				", onNext=" + onNext +
+				", onNextRate=" + String.format("%.1f/s", getOnNextRate()) +
+				", requested=" + requested +
+				", unboundedRequests=" + unboundedRequests +
+				", cancellations=" + cancellations +
+				", errors=" + errors +
+				", completions=" + completions +
+				", meanTimeToFirstElement=" + getMeanTimeToFirstElement() +
+				", maxTimeToFirstElement=" + getMaxTimeToFirstElement() +
+				'}';
+	}
+}
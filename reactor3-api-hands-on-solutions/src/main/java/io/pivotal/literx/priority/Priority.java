@@ -0,0 +1,36 @@
+package io.pivotal.literx.priority;
+
+import reactor.util.context.Context;
+
+/**
+ * Priority class of a request, attached by the caller to the subscriber {@link Context}:
+ *
+ * <pre>
+ * repository.findAll().subscriberContext(Priority.BULK.asContext())
+ * </pre>
+ *
+ * Requests without one are {@link #INTERACTIVE}.
+ */
+public enum Priority {
+
+	/**
+	 * Latency sensitive requests, such as lookups, run first.
+	 */
+	INTERACTIVE,
+
+	/**
+	 * Throughput oriented requests, such as exports, run when no interactive work is waiting,
+	 * within their guaranteed share.
+	 */
+	BULK;
+
+	private static final String CONTEXT_KEY = Priority.class.getName();
+
+	public Context asContext() {
+		return Context.of(CONTEXT_KEY, this);
+	}
+
+	public static Priority of(Context context) {
+		return context.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+	}
+}
@@ -0,0 +1,417 @@
+package io.pivotal.literx.priority;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.scheduler.NonBlocking;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Pool of threads shared by all {@link Priority} classes, running the waiting {@link
+ * Priority#INTERACTIVE} tasks first.
+ *
+ * Each class is scheduled through its own {@link #forPriority(Priority) view}. To keep bulk
+ * work from starving, a waiting bulk task runs at the latest after {@code (1 - bulkShare) /
+ * bulkShare} interactive ones: with a share of 0.1, bulk work gets at least one task in ten
+ * whenever it has some waiting. Delayed and periodic tasks are queued by a timer thread when
+ * they are due.
+ */
+public final class PriorityScheduler implements Disposable {
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notEmpty = lock.newCondition();
+
+	private final ArrayDeque<Runnable> interactive = new ArrayDeque<>();
+
+	private final ArrayDeque<Runnable> bulk = new ArrayDeque<>();
+
+	private final int interactivePerBulk;
+
+	private int interactiveInARow;
+
+	private volatile boolean disposed;
+
+	private final Thread[] threads;
+
+	private final ScheduledExecutorService timer;
+
+	private final Map<Priority, PriorityView> views = new EnumMap<>(Priority.class);
+
+	private final Map<Priority, LongAdder> executed = new EnumMap<>(Priority.class);
+
+	private PriorityScheduler(String name, int parallelism, double bulkShare) {
+		this.interactivePerBulk = (int) Math.round((1 - bulkShare) / bulkShare);
+		for (Priority priority : Priority.values()) {
+			views.put(priority, new PriorityView(priority));
+			executed.put(priority, new LongAdder());
+		}
+		this.threads = new Thread[parallelism];
+		for (int i = 0; i < parallelism; i++) {
+			threads[i] = new PriorityThread(this::work, name + "-" + (i + 1));
+			threads[i].start();
+		}
+		this.timer = Executors.newSingleThreadScheduledExecutor(task -> new PriorityThread(task, name + "-timer"));
+	}
+
+	/**
+	 * @param bulkShare the minimum share of the tasks run that goes to bulk work when it has
+	 * some waiting, in {@code (0, 0.5]}
+	 */
+	public static PriorityScheduler create(String name, int parallelism, double bulkShare) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+		}
+		if (bulkShare <= 0 || bulkShare > 0.5) {
+			throw new IllegalArgumentException("bulkShare must be in (0, 0.5] but it was " + bulkShare);
+		}
+		return new PriorityScheduler(name, parallelism, bulkShare);
+	}
+
+	/**
+	 * @return the scheduler running tasks with the given priority
+	 */
+	public Scheduler forPriority(Priority priority) {
+		return views.get(priority);
+	}
+
+	public long getExecutedTasks(Priority priority) {
+		return executed.get(priority).sum();
+	}
+
+	@Override
+	public void dispose() {
+		disposed = true;
+		timer.shutdownNow();
+		lock.lock();
+		try {
+			interactive.clear();
+			bulk.clear();
+			notEmpty.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+	void submit(Priority priority, Runnable task) {
+		lock.lock();
+		try {
+			if (disposed) {
+				throw Exceptions.failWithRejected();
+			}
+			(priority == Priority.INTERACTIVE ? interactive : bulk).offer(task);
+			notEmpty.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void work() {
+		for (;;) {
+			Runnable task;
+			Priority priority;
+			lock.lock();
+			try {
+				while (interactive.isEmpty() && bulk.isEmpty() && !disposed) {
+					notEmpty.awaitUninterruptibly();
+				}
+				if (disposed) {
+					return;
+				}
+				if (!interactive.isEmpty() && (bulk.isEmpty() || interactiveInARow < interactivePerBulk)) {
+					task = interactive.poll();
+					interactiveInARow = bulk.isEmpty() ? 0 : interactiveInARow + 1;
+					priority = Priority.INTERACTIVE;
+				}
+				else {
+					task = bulk.poll();
+					interactiveInARow = 0;
+					priority = Priority.BULK;
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+			executed.get(priority).increment();
+			try {
+				task.run();
+			}
+			catch (Throwable e) {
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+			}
+		}
+	}
+
+	private static final class PriorityThread extends Thread implements NonBlocking {
+
+		PriorityThread(Runnable task, String name) {
+			super(task, name);
+			setDaemon(true);
+		}
+	}
+
+	private final class PriorityView implements Scheduler {
+
+		final Priority priority;
+
+		PriorityView(Priority priority) {
+			this.priority = priority;
+		}
+
+		void submit(Runnable task) {
+			PriorityScheduler.this.submit(priority, task);
+		}
+
+		ScheduledFuture<?> delay(Runnable task, long delay, TimeUnit unit) {
+			return timer.schedule(() -> submitIfActive(task), delay, unit);
+		}
+
+		ScheduledFuture<?> repeat(Runnable task, long initialDelay, long period, TimeUnit unit) {
+			PeriodicTask periodic = new PeriodicTask(task);
+			return timer.scheduleAtFixedRate(periodic::submit, initialDelay, period, unit);
+		}
+
+		private void submitIfActive(Runnable task) {
+			if (!disposed) {
+				submit(task);
+			}
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			WorkerTask scheduled = new WorkerTask(task);
+			submit(scheduled);
+			return scheduled;
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			WorkerTask scheduled = new WorkerTask(task);
+			scheduled.timer = delay(scheduled, delay, unit);
+			return scheduled;
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+			WorkerTask scheduled = new WorkerTask(task);
+			scheduled.timer = repeat(scheduled, initialDelay, period, unit);
+			return scheduled;
+		}
+
+		@Override
+		public Worker createWorker() {
+			return new SerialWorker(this);
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return disposed;
+		}
+
+		/**
+		 * Queues its task only once the previous run is over: a period falling while the task
+		 * still waits or runs, as when the pool is backlogged, is skipped rather than letting two
+		 * threads run it at once.
+		 */
+		private final class PeriodicTask implements Runnable {
+
+			final Runnable task;
+
+			final AtomicBoolean running = new AtomicBoolean();
+
+			PeriodicTask(Runnable task) {
+				this.task = task;
+			}
+
+			void submit() {
+				if (!disposed && running.compareAndSet(false, true)) {
+					PriorityView.this.submit(this);
+				}
+			}
+
+			@Override
+			public void run() {
+				try {
+					task.run();
+				}
+				finally {
+					running.set(false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the tasks of a worker in order, one at a time: they are queued on the worker, which
+	 * drains them in a task of its priority, giving its thread back every {@link #BATCH} tasks so
+	 * that more urgent work can cut in.
+	 */
+	private static final class SerialWorker implements Scheduler.Worker, Runnable {
+
+		static final int BATCH = 16;
+
+		final PriorityView view;
+
+		final Queue<WorkerTask> tasks = new ConcurrentLinkedQueue<>();
+
+		final AtomicInteger wip = new AtomicInteger();
+
+		final Disposable.Composite timed = Disposables.composite();
+
+		volatile boolean disposed;
+
+		SerialWorker(PriorityView view) {
+			this.view = view;
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			checkNotDisposed();
+			WorkerTask workerTask = new WorkerTask(task);
+			offer(workerTask);
+			return workerTask;
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			checkNotDisposed();
+			WorkerTask workerTask = new WorkerTask(task);
+			timed.add(workerTask);
+			workerTask.timer = view.delay(() -> {
+				timed.remove(workerTask);
+				offer(workerTask);
+			}, delay, unit);
+			return workerTask;
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+			checkNotDisposed();
+			WorkerTask workerTask = new WorkerTask(task);
+			timed.add(workerTask);
+			workerTask.timer = view.repeat(() -> {
+				// skips the period while the previous run still waits in the queue or runs
+				if (workerTask.queued.compareAndSet(false, true)) {
+					offer(workerTask);
+				}
+			}, initialDelay, period, unit);
+			return workerTask;
+		}
+
+		private void checkNotDisposed() {
+			if (disposed) {
+				throw Exceptions.failWithRejected();
+			}
+		}
+
+		private void offer(WorkerTask task) {
+			if (disposed) {
+				return;
+			}
+			tasks.offer(task);
+			if (wip.getAndIncrement() == 0) {
+				view.submit(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			int ran = 0;
+			for (;;) {
+				WorkerTask task;
+				while ((task = tasks.poll()) != null) {
+					if (disposed) {
+						tasks.clear();
+						return;
+					}
+					task.run();
+					if (++ran == BATCH) {
+						view.submit(this);
+						return;
+					}
+				}
+				missed = wip.addAndGet(-missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void dispose() {
+			disposed = true;
+			timed.dispose();
+			tasks.clear();
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return disposed;
+		}
+	}
+
+	private static final class WorkerTask implements Runnable, Disposable {
+
+		final Runnable task;
+
+		final AtomicBoolean queued = new AtomicBoolean();
+
+		volatile boolean cancelled;
+
+		volatile ScheduledFuture<?> timer;
+
+		WorkerTask(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (!cancelled) {
+					task.run();
+				}
+			}
+			finally {
+				queued.set(false);
+			}
+		}
+
+		@Override
+		public void dispose() {
+			cancelled = true;
+			ScheduledFuture<?> timer = this.timer;
+			if (timer != null) {
+				timer.cancel(false);
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return cancelled;
+		}
+	}
+}
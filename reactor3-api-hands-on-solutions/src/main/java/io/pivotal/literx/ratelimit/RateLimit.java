@@ -0,0 +1,38 @@
+package io.pivotal.literx.ratelimit;
+
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Caps the rate of a pipeline with a shared {@link TokenBucket}, to use with {@code transform}:
+ *
+ * <pre>
+ * TokenBucket imports = TokenBucket.create(10_000, 500);
+ * repository.save(users.transform(RateLimit.limit(imports)))
+ * </pre>
+ *
+ * Nothing is dropped, the traffic is shaped by holding back the demand: the permits for a request
+ * are reserved from the bucket and the request only goes upstream once they are due, on a timer
+ * of the scheduler. Requests go upstream in chunks of a quarter of the burst at most, leaving the
+ * rest of the burst to absorb the lateness of the timers.
+ */
+public final class RateLimit {
+
+	private RateLimit() {
+	}
+
+	public static <T> Function<Flux<T>, Flux<T>> limit(TokenBucket bucket) {
+		return limit(bucket, Schedulers.parallel());
+	}
+
+	public static <T> Function<Flux<T>, Flux<T>> limit(TokenBucket bucket, Scheduler timer) {
+		Function<? super Publisher<T>, ? extends Publisher<T>> lift = Operators.<T, T>lift(
+				(scannable, actual) -> new RateLimitSubscriber<>(actual, bucket, timer.createWorker()));
+		return flux -> flux.transform(lift);
+	}
+}
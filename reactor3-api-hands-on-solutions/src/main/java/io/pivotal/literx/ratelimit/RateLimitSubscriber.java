@@ -0,0 +1,145 @@
+package io.pivotal.literx.ratelimit;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
+
+/**
+ * Pass-through subscriber forwarding the requests of the final subscriber upstream only once the
+ * {@link TokenBucket} grants them.
+ *
+ * At most one reservation is pending at a time, so that a subscriber with an unbounded demand
+ * does not book the bucket far ahead of the pipelines sharing it. The drain loop decides, under
+ * the {@code wip} counter, what to reserve next, and a timer task forwards a request that is not
+ * due yet.
+ */
+final class RateLimitSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+	private final CoreSubscriber<? super T> actual;
+
+	private final TokenBucket bucket;
+
+	private final Scheduler.Worker timer;
+
+	private final int chunk;
+
+	private Subscription s;
+
+	private volatile long requested;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicLongFieldUpdater<RateLimitSubscriber> REQUESTED =
+			AtomicLongFieldUpdater.newUpdater(RateLimitSubscriber.class, "requested");
+
+	private volatile int wip;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<RateLimitSubscriber> WIP =
+			AtomicIntegerFieldUpdater.newUpdater(RateLimitSubscriber.class, "wip");
+
+	private volatile boolean waiting;
+
+	private volatile boolean cancelled;
+
+	RateLimitSubscriber(CoreSubscriber<? super T> actual, TokenBucket bucket, Scheduler.Worker timer) {
+		this.actual = actual;
+		this.bucket = bucket;
+		this.timer = timer;
+		this.chunk = Math.max(1, bucket.getBurst() / 4);
+	}
+
+	@Override
+	public Context currentContext() {
+		return actual.currentContext();
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		this.s = s;
+		actual.onSubscribe(this);
+	}
+
+	@Override
+	public void onNext(T t) {
+		actual.onNext(t);
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		timer.dispose();
+		actual.onError(t);
+	}
+
+	@Override
+	public void onComplete() {
+		timer.dispose();
+		actual.onComplete();
+	}
+
+	@Override
+	public void request(long n) {
+		if (Operators.validate(n)) {
+			Operators.addCap(REQUESTED, this, n);
+			drain();
+		}
+	}
+
+	@Override
+	public void cancel() {
+		cancelled = true;
+		timer.dispose();
+		s.cancel();
+	}
+
+	private void drain() {
+		if (WIP.getAndIncrement(this) != 0) {
+			return;
+		}
+		int missed = 1;
+		for (;;) {
+			while (!cancelled && !waiting) {
+				long r = requested;
+				if (r == 0) {
+					break;
+				}
+				int n = (int) Math.min(r, chunk);
+				if (r != Long.MAX_VALUE) {
+					REQUESTED.addAndGet(this, -n);
+				}
+				long delay = bucket.reserve(n);
+				if (delay == 0) {
+					s.request(n);
+				}
+				else {
+					waiting = true;
+					try {
+						timer.schedule(() -> release(n), delay, TimeUnit.NANOSECONDS);
+					}
+					catch (RejectedExecutionException e) {
+						// only once cancelled or terminated
+					}
+				}
+			}
+			missed = WIP.addAndGet(this, -missed);
+			if (missed == 0) {
+				return;
+			}
+		}
+	}
+
+	private void release(int n) {
+		if (cancelled) {
+			return;
+		}
+		s.request(n);
+		waiting = false;
+		drain();
+	}
+}
@@ -0,0 +1,113 @@
+package io.pivotal.literx.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket, to share between the pipelines whose combined rate it caps.
+ *
+ * The bucket is kept as a single "theoretical arrival time" (the generic cell rate algorithm):
+ * the instant at which the bucket would be full again if nobody took any more permits. Taking
+ * permits pushes it forward by their emission interval with one compare-and-set, and the
+ * permits may be used once it is no more than {@code burst} intervals ahead of the clock. Times
+ * are kept in fractions of nanoseconds from the creation of the bucket, so rates that do not
+ * divide a second still add up exactly.
+ */
+public final class TokenBucket {
+
+	// 1/256th of a nanosecond, for more than a year of uptime
+	private static final int SHIFT = 8;
+
+	private final long permitsPerSecond;
+
+	private final int burst;
+
+	private final long interval;
+
+	private final long tolerance;
+
+	private final LongSupplier nanoClock;
+
+	private final long origin;
+
+	private final AtomicLong arrival = new AtomicLong();
+
+	private TokenBucket(long permitsPerSecond, int burst, LongSupplier nanoClock) {
+		if (permitsPerSecond <= 0) {
+			throw new IllegalArgumentException("permitsPerSecond > 0 required but it was " + permitsPerSecond);
+		}
+		if (burst <= 0) {
+			throw new IllegalArgumentException("burst > 0 required but it was " + burst);
+		}
+		this.permitsPerSecond = permitsPerSecond;
+		this.burst = burst;
+		this.interval = (TimeUnit.SECONDS.toNanos(1) << SHIFT) / permitsPerSecond;
+		this.tolerance = burst * interval;
+		this.nanoClock = nanoClock;
+		this.origin = nanoClock.getAsLong();
+	}
+
+	/**
+	 * A bucket holding up to {@code burst} permits, refilled at {@code permitsPerSecond}, starting
+	 * full.
+	 */
+	public static TokenBucket create(long permitsPerSecond, int burst) {
+		return new TokenBucket(permitsPerSecond, burst, System::nanoTime);
+	}
+
+	/**
+	 * Same as {@link #create(long, int)} with the given clock, in nanoseconds, such as the one of
+	 * a virtual time scheduler.
+	 */
+	public static TokenBucket create(long permitsPerSecond, int burst, LongSupplier nanoClock) {
+		return new TokenBucket(permitsPerSecond, burst, nanoClock);
+	}
+
+	/**
+	 * Takes the permits, whether available now or later, so that callers are served in order.
+	 *
+	 * @return the nanoseconds to wait before using the permits, 0 if they can be used now
+	 */
+	public long reserve(int permits) {
+		long now = now();
+		long cost = permits * interval;
+		for (;;) {
+			long current = arrival.get();
+			long next = Math.max(current, now) + cost;
+			if (arrival.compareAndSet(current, next)) {
+				return Math.max(0, next - tolerance - now) >> SHIFT;
+			}
+		}
+	}
+
+	/**
+	 * Takes the permits only if they can be used now.
+	 */
+	public boolean tryAcquire(int permits) {
+		long now = now();
+		long cost = permits * interval;
+		for (;;) {
+			long current = arrival.get();
+			long next = Math.max(current, now) + cost;
+			if (next - tolerance > now) {
+				return false;
+			}
+			if (arrival.compareAndSet(current, next)) {
+				return true;
+			}
+		}
+	}
+
+	public long getPermitsPerSecond() {
+		return permitsPerSecond;
+	}
+
+	public int getBurst() {
+		return burst;
+	}
+
+	private long now() {
+		return (nanoClock.getAsLong() - origin) << SHIFT;
+	}
+}
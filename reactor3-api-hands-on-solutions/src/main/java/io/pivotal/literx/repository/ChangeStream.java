@@ -0,0 +1,114 @@
+package io.pivotal.literx.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Hot, multicast stream of the changes of a repository.
+ *
+ * Publishing only offers the change to the buffer of each watcher, so the writer never waits
+ * for a watcher. Each watcher consumes its own bounded buffer on the delivery scheduler, and
+ * applies its own {@link OverflowPolicy} when it falls behind.
+ */
+public class ChangeStream<T> {
+
+	private final List<Watcher<T>> watchers = new CopyOnWriteArrayList<>();
+
+	private final AtomicLong ids = new AtomicLong();
+
+	private final Scheduler scheduler;
+
+	public ChangeStream() {
+		this(Schedulers.parallel());
+	}
+
+	public ChangeStream(Scheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	public void publish(T change) {
+		for (Watcher<T> watcher : watchers) {
+			watcher.published.increment();
+			watcher.sink.next(change);
+		}
+	}
+
+	/**
+	 * @return the changes published after the subscription, buffered up to {@code bufferSize}
+	 */
+	public Flux<T> watch(int bufferSize, OverflowPolicy policy) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize > 0 required but it was " + bufferSize);
+		}
+		return Flux.defer(() -> {
+			Watcher<T> watcher = new Watcher<>(ids.incrementAndGet(), policy, bufferSize);
+			Flux<T> changes = Flux.create(sink -> {
+				watcher.sink = sink;
+				watchers.add(watcher);
+				sink.onDispose(() -> watchers.remove(watcher));
+			}, FluxSink.OverflowStrategy.IGNORE);
+			switch (policy) {
+				case DROP_OLDEST:
+					changes = changes.onBackpressureBuffer(bufferSize, watcher::drop, BufferOverflowStrategy.DROP_OLDEST);
+					break;
+				case KEEP_LATEST:
+					changes = changes.onBackpressureBuffer(1, watcher::drop, BufferOverflowStrategy.DROP_OLDEST);
+					break;
+				default:
+					// fails right away, the strategy variant would wait for the buffer to drain first
+					changes = changes.onBackpressureBuffer(bufferSize, watcher::drop);
+			}
+			return changes
+					.publishOn(scheduler, false, 1)
+					.doOnNext(change -> watcher.delivered.increment());
+		});
+	}
+
+	public List<WatcherStats> getWatcherStats() {
+		List<WatcherStats> stats = new ArrayList<>(watchers.size());
+		for (Watcher<T> watcher : watchers) {
+			stats.add(watcher.stats());
+		}
+		return stats;
+	}
+
+	private static final class Watcher<T> {
+
+		final long id;
+
+		final OverflowPolicy policy;
+
+		final int bufferSize;
+
+		final LongAdder published = new LongAdder();
+
+		final LongAdder delivered = new LongAdder();
+
+		final LongAdder dropped = new LongAdder();
+
+		volatile FluxSink<T> sink;
+
+		Watcher(long id, OverflowPolicy policy, int bufferSize) {
+			this.id = id;
+			this.policy = policy;
+			this.bufferSize = bufferSize;
+		}
+
+		void drop(T change) {
+			dropped.increment();
+		}
+
+		WatcherStats stats() {
+			return new WatcherStats(id, policy, bufferSize, published.sum(), delivered.sum(), dropped.sum());
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package io.pivotal.literx.repository;
+
+/**
+ * What a {@link ReactiveRepository#watch(int, OverflowPolicy) watcher} does when changes come
+ * in faster than it consumes them and its buffer is full.
+ */
+public enum OverflowPolicy {
+
+	/**
+	 * Evict the oldest buffered change to make room for the new one.
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * Only keep the latest unseen change, whatever the buffer size: a slow watcher skips
+	 * straight to the most recent state.
+	 */
+	KEEP_LATEST,
+
+	/**
+	 * Terminate the watcher with an overflow error.
+	 */
+	ERROR
+}
@@ -13,4 +13,16 @@ public interface ReactiveRepository<T> {
 	Flux<T> findAll();
 
 	Mono<T> findById(String id);
+
+	/**
+	 * @return a hot stream of the entities saved after the subscription, buffering up to 256
+	 * changes per subscriber and dropping the oldest ones past that
+	 */
+	Flux<T> watch();
+
+	/**
+	 * @return a hot stream of the entities saved after the subscription, buffering up to
+	 * {@code bufferSize} changes for this subscriber and applying {@code policy} past that
+	 */
+	Flux<T> watch(int bufferSize, OverflowPolicy policy);
 }
@@ -4,20 +4,59 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
+import io.pivotal.literx.deadline.DeadlineGuard;
 import io.pivotal.literx.domain.User;
+import io.pivotal.literx.index.HashIndex;
+import io.pivotal.literx.index.PrefixIndex;
+import io.pivotal.literx.index.SortedIndex;
+import io.pivotal.literx.index.UsernameIndex;
+import io.pivotal.literx.priority.Priority;
+import io.pivotal.literx.priority.PriorityScheduler;
+import io.pivotal.literx.ratelimit.RateLimit;
+import io.pivotal.literx.ratelimit.TokenBucket;
+import io.pivotal.literx.view.MaterializedView;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 public class ReactiveUserRepository implements ReactiveRepository<User> {
 
 	private final static long DEFAULT_DELAY_IN_MS = 100;
 
+	private final static int DEFAULT_WATCH_BUFFER_SIZE = 256;
+
 	private final long delayInMs;
 
 	private final List<User> users;
 
+	private final UsernameIndex usersByName = new UsernameIndex();
+
+	private final HashIndex<String, User> usersByLastname = new HashIndex<>(User::getLastname);
+
+	private final SortedIndex<User> usersByFirstname = new SortedIndex<>(User::getFirstname);
+
+	private final PrefixIndex<User> usernames = new PrefixIndex<>(User::getUsername);
+
+	private final ChangeStream<User> changes = new ChangeStream<>();
+
+	private final List<MaterializedView<? super User, ?>> views = new CopyOnWriteArrayList<>();
+
+	private final LongAdder scans = new LongAdder();
+
+	private volatile SharedScan<User> sharedScan;
+
+	private volatile PriorityScheduler priorityScheduler;
+
+	private final DeadlineGuard deadlines = new DeadlineGuard();
+
+	private volatile TokenBucket saveRate;
+
 
 	public ReactiveUserRepository() {
 		this(DEFAULT_DELAY_IN_MS);
@@ -26,6 +65,7 @@ public class ReactiveUserRepository implements ReactiveRepository<User> {
 	public ReactiveUserRepository(long delayInMs) {
 		this.delayInMs = delayInMs;
 		users = new ArrayList<>(Arrays.asList(User.SKYLER, User.JESSE, User.WALTER, User.SAUL));
+		indexAll(users);
 	}
 
 	public ReactiveUserRepository(User... users) {
@@ -35,43 +75,278 @@ public class ReactiveUserRepository implements ReactiveRepository<User> {
 	public ReactiveUserRepository(long delayInMs, User... users) {
 		this.delayInMs = delayInMs;
 		this.users = new ArrayList<>(Arrays.asList(users));
+		indexAll(this.users);
 	}
 
 
 	@Override
 	public Mono<Void> save(Publisher<User> userPublisher) {
-		return withDelay(Flux.from(userPublisher)).doOnNext(users::add).then();
+		TokenBucket saveRate = this.saveRate;
+		Flux<User> saved = Flux.from(userPublisher);
+		if (saveRate != null) {
+			saved = saved.transform(RateLimit.limit(saveRate));
+		}
+		return withDelay(saved).doOnNext(this::store).then();
 	}
 
 	@Override
 	public Mono<User> findFirst() {
-		return withDelay(Mono.just(users.get(0)));
+		User first;
+		synchronized (this) {
+			first = users.get(0);
+		}
+		return withDelay(Mono.just(first));
 	}
 
 	@Override
 	public Flux<User> findAll() {
-		return withDelay(Flux.fromIterable(users));
+		SharedScan<User> sharedScan = this.sharedScan;
+		return sharedScan == null ? scan() : sharedScan.flux();
 	}
 
 	@Override
 	public Mono<User> findById(String username) {
-		User user = users.stream().filter((p) -> p.getUsername().equals(username))
-				.findFirst()
-				.orElseThrow(() -> new IllegalArgumentException("No user with username " + username + " found!"));
+		User user;
+		synchronized (this) {
+			user = usersByName.get(username);
+		}
+		if (user == null) {
+			throw new IllegalArgumentException("No user with username " + username + " found!");
+		}
 		return withDelay(Mono.just(user));
 	}
 
+	/**
+	 * @return the users with the given lastname, in the order they were saved
+	 */
+	public Flux<User> findByLastname(String lastname) {
+		return withDelay(Flux.defer(() -> Flux.fromIterable(usersByLastname.get(lastname))));
+	}
+
+	/**
+	 * @return the users whose firstname starts with {@code prefix}, ordered by firstname
+	 */
+	public Flux<User> findByFirstnameStartingWith(String prefix) {
+		return withDelay(Flux.defer(() -> Flux.fromIterable(usersByFirstname.prefix(prefix))));
+	}
+
+	/**
+	 * @return the users whose firstname is at least {@code from} and less than {@code to},
+	 * ordered by firstname
+	 */
+	public Flux<User> findByFirstnameBetween(String from, String to) {
+		return withDelay(Flux.defer(() -> Flux.fromIterable(usersByFirstname.range(from, to))));
+	}
+
+	/**
+	 * @return the first {@code k} users, in username order, whose username starts with
+	 * {@code prefix}, each emitted as soon as it is found
+	 */
+	public Flux<User> suggest(String prefix, int k) {
+		if (k <= 0) {
+			throw new IllegalArgumentException("k > 0 required but it was " + k);
+		}
+		return withDelay(Flux.defer(() -> Flux.fromIterable(usernames.prefix(prefix)).take(k)));
+	}
+
+	/**
+	 * Suggests usernames for each prefix typed, the suggestions of a prefix being cancelled as
+	 * soon as the next one comes.
+	 *
+	 * @return the first {@code k} users of each prefix, as with {@link #suggest(String, int)}
+	 */
+	public Flux<List<User>> typeAhead(Publisher<String> prefixes, int k) {
+		if (k <= 0) {
+			throw new IllegalArgumentException("k > 0 required but it was " + k);
+		}
+		return Flux.from(prefixes)
+				.distinctUntilChanged()
+				.switchMap(prefix -> suggest(prefix, k).collectList());
+	}
+
+	@Override
+	public Flux<User> watch() {
+		return watch(DEFAULT_WATCH_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+	}
+
+	@Override
+	public Flux<User> watch(int bufferSize, OverflowPolicy policy) {
+		return changes.watch(bufferSize, policy);
+	}
+
+	public List<WatcherStats> getWatcherStats() {
+		return changes.getWatcherStats();
+	}
+
+	/**
+	 * Builds the view from the current users, then keeps it up to date with every saved user.
+	 */
+	public <V extends MaterializedView<? super User, ?>> V materialize(V view) {
+		synchronized (this) {
+			for (User user : users) {
+				view.update(user);
+			}
+			views.add(view);
+		}
+		view.flush();
+		return view;
+	}
+
+
+	/**
+	 * Makes the {@link #findAll()} subscribers arriving within {@code window} of each other
+	 * share one scan, the late ones first catching up on the users they missed. The deadline and
+	 * priority of each subscriber still apply to it alone.
+	 */
+	public void enableScanSharing(Duration window) {
+		sharedScan = new SharedScan<>(this::sharableScan, this::joinScan, window);
+	}
+
+	public void disableScanSharing() {
+		sharedScan = null;
+	}
+
+	/**
+	 * Runs the simulated delays, and what the subscribers do after them, on the given scheduler
+	 * with the {@link Priority} found in the subscriber context.
+	 */
+	public void enablePriorityScheduling(PriorityScheduler scheduler) {
+		priorityScheduler = scheduler;
+	}
+
+	public void disablePriorityScheduling() {
+		priorityScheduler = null;
+	}
+
+	/**
+	 * Makes {@link #save(Publisher)} take the users no faster than the bucket allows, the bucket
+	 * being shared by all the saves.
+	 */
+	public void enableSaveRateLimit(TokenBucket bucket) {
+		saveRate = bucket;
+	}
+
+	public void disableSaveRateLimit() {
+		saveRate = null;
+	}
+
+	/**
+	 * @return the number of full scans started by {@link #findAll()}
+	 */
+	public long getScanCount() {
+		return scans.sum();
+	}
+
+	/**
+	 * @return the number of requests dropped because their
+	 * {@link io.pivotal.literx.deadline.Deadline} passed, or would have passed before the
+	 * simulated delay
+	 */
+	public long getDeadlineDrops() {
+		return deadlines.getDropped();
+	}
+
+
+	private Flux<User> scan() {
+		return withDelay(Flux.defer(() -> Flux.fromIterable(snapshot())))
+				.doOnSubscribe(s -> scans.increment());
+	}
+
+	/**
+	 * @return a scan that does not depend on the subscriber context, running its delays with the
+	 * default priority
+	 */
+	private Flux<User> sharableScan() {
+		Flux<User> users = Flux.defer(() -> Flux.fromIterable(snapshot()));
+		if (delayInMs > 0) {
+			users = delayed(users, scheduler(Context.empty()));
+		}
+		return users.doOnSubscribe(s -> scans.increment());
+	}
+
+	/**
+	 * Hands a shared scan to one subscriber, checking its deadline and moving to the scheduler of
+	 * its priority.
+	 */
+	private Flux<User> joinScan(Flux<User> scan) {
+		return deadlines.check(Flux.deferWithContext(context -> {
+			PriorityScheduler priorityScheduler = this.priorityScheduler;
+			if (priorityScheduler == null) {
+				return scan;
+			}
+			return scan.publishOn(priorityScheduler.forPriority(Priority.of(context)));
+		}), Math.max(delayInMs, 0));
+	}
+
+	/**
+	 * @return a copy of the users, which {@link #store(User)} may append to while a scan reads it
+	 */
+	private synchronized List<User> snapshot() {
+		return new ArrayList<>(users);
+	}
+
+	private void store(User user) {
+		synchronized (this) {
+			users.add(user);
+			index(user);
+			for (MaterializedView<? super User, ?> view : views) {
+				view.update(user);
+			}
+		}
+		for (MaterializedView<? super User, ?> view : views) {
+			view.flush();
+		}
+		changes.publish(user);
+	}
+
+	private void indexAll(List<User> users) {
+		List<User> added = new ArrayList<>(users.size());
+		for (User user : users) {
+			if (usersByName.putIfAbsent(user) == null) {
+				added.add(user);
+			}
+			usersByLastname.add(user);
+			usersByFirstname.add(user);
+		}
+		usernames.addAll(added);
+	}
+
+	private void index(User user) {
+		if (usersByName.putIfAbsent(user) == null) {
+			usernames.add(user);
+		}
+		usersByLastname.add(user);
+		usersByFirstname.add(user);
+	}
 
 	private Mono<User> withDelay(Mono<User> userMono) {
-		return Mono
-				.delay(Duration.ofMillis(delayInMs))
-				.flatMap(c -> userMono);
+		if (delayInMs <= 0) {
+			return deadlines.check(userMono);
+		}
+		return deadlines.check(Mono.deferWithContext(context -> Mono
+				.delay(Duration.ofMillis(delayInMs), scheduler(context))
+				.flatMap(c -> userMono)), delayInMs);
 	}
 
 	private Flux<User> withDelay(Flux<User> userFlux) {
-		return Flux
-				.interval(Duration.ofMillis(delayInMs))
+		if (delayInMs <= 0) {
+			return deadlines.check(userFlux);
+		}
+		return deadlines.check(Flux.deferWithContext(context ->
+				delayed(userFlux, scheduler(context))), delayInMs);
+	}
+
+	private Flux<User> delayed(Flux<User> userFlux, Scheduler scheduler) {
+		return Flux.interval(Duration.ofMillis(delayInMs), scheduler)
 				.zipWith(userFlux, (i, user) -> user);
 	}
 
+	private Scheduler scheduler(Context context) {
+		PriorityScheduler priorityScheduler = this.priorityScheduler;
+		if (priorityScheduler == null) {
+			return Schedulers.parallel();
+		}
+		return priorityScheduler.forPriority(Priority.of(context));
+	}
+
 }
@@ -0,0 +1,69 @@
+package io.pivotal.literx.repository;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Lets the subscribers arriving while a scan is in flight attach to it instead of starting their
+ * own.
+ *
+ * A scan can be joined until it completes or until {@code window} has elapsed since it started,
+ * whichever comes first, so a joiner never reads data older than the window. The scan is replayed:
+ * a late joiner first catches up on what it missed, then follows the scan. Each subscriber
+ * consumes the replay at its own pace, so backpressure stays per subscriber. Once its last
+ * subscriber leaves, the scan is cancelled and the next subscriber starts a new one.
+ *
+ * The scan runs with the context of the subscriber that started it, so it must not depend on
+ * that context: what depends on the context of each subscriber, such as its deadline, goes in
+ * {@code each}, which is applied to every subscriber on its own.
+ */
+final class SharedScan<T> {
+
+	private final Supplier<Flux<T>> scan;
+
+	private final UnaryOperator<Flux<T>> each;
+
+	private final long windowNanos;
+
+	private Scan<T> current;
+
+	SharedScan(Supplier<Flux<T>> scan, UnaryOperator<Flux<T>> each, Duration window) {
+		this.scan = scan;
+		this.each = each;
+		this.windowNanos = window.toNanos();
+	}
+
+	Flux<T> flux() {
+		return Flux.defer(this::attach).transform(each);
+	}
+
+	private synchronized Flux<T> attach() {
+		long now = System.nanoTime();
+		Scan<T> scan = current;
+		if (scan == null || scan.done || now - scan.startedAt >= windowNanos) {
+			scan = new Scan<>(this.scan.get(), now);
+			current = scan;
+		}
+		return scan.flux;
+	}
+
+	private static final class Scan<T> {
+
+		final Flux<T> flux;
+
+		final long startedAt;
+
+		volatile boolean done;
+
+		Scan(Flux<T> source, long startedAt) {
+			this.flux = source.doOnTerminate(() -> done = true)
+					.doOnCancel(() -> done = true)
+					.replay()
+					.refCount();
+			this.startedAt = startedAt;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package io.pivotal.literx.repository;
+
+/**
+ * Point-in-time counters of one watcher of a {@link ChangeStream}.
+ */
+public final class WatcherStats {
+
+	private final long id;
+
+	private final OverflowPolicy policy;
+
+	private final int bufferSize;
+
+	private final long published;
+
+	private final long delivered;
+
+	private final long dropped;
+
+	WatcherStats(long id, OverflowPolicy policy, int bufferSize, long published, long delivered, long dropped) {
+		this.id = id;
+		this.policy = policy;
+		this.bufferSize = bufferSize;
+		this.published = published;
+		this.delivered = delivered;
+		this.dropped = dropped;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public OverflowPolicy getPolicy() {
+		return policy;
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * @return the changes published to this watcher since it subscribed
+	 */
+	public long getPublished() {
+		return published;
+	}
+
+	public long getDelivered() {
+		return delivered;
+	}
+
+	public long getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * @return the changes published but neither delivered nor dropped yet
+	 */
+	public long getLag() {
+		return published - delivered - dropped;
+	}
+
+	@Override
+	public String toString() {
+		return "WatcherStats{" +
+				"id=" + id +
+				", policy=" + policy +
+				", published=" + published +
+				", delivered=" + delivered +
+				", dropped=" + dropped +
+				", lag=" + getLag() +
+				'}';
+	}
+}
@@ -0,0 +1,44 @@
+package io.pivotal.literx.view;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Number of entities per key, such as users per last name. Each change is the new count of the
+ * key of the saved entity. Entities whose key is {@code null} are not counted.
+ */
+public class CountByKeyView<T> extends MaterializedView<T, KeyCount> {
+
+	private final Function<? super T, String> keyExtractor;
+
+	private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+	public CountByKeyView(Function<? super T, String> keyExtractor) {
+		this.keyExtractor = keyExtractor;
+	}
+
+	@Override
+	protected KeyCount apply(T entity) {
+		String key = keyExtractor.apply(entity);
+		if (key == null) {
+			return null;
+		}
+		return new KeyCount(key, counts.merge(key, 1L, Long::sum));
+	}
+
+	public long getCount(String key) {
+		if (key == null) {
+			return 0;
+		}
+		return counts.getOrDefault(key, 0L);
+	}
+
+	/**
+	 * @return a copy of all the counts, in time proportional to the number of keys
+	 */
+	public Map<String, Long> getCounts() {
+		return new HashMap<>(counts);
+	}
+}
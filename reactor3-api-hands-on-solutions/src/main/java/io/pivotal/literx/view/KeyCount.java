@@ -0,0 +1,46 @@
+package io.pivotal.literx.view;
+
+/**
+ * Number of entities sharing a key.
+ */
+public final class KeyCount {
+
+	private final String key;
+
+	private final long count;
+
+	public KeyCount(String key, long count) {
+		this.key = key;
+		this.count = count;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		KeyCount keyCount = (KeyCount) o;
+		return count == keyCount.count && key.equals(keyCount.key);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * key.hashCode() + Long.hashCode(count);
+	}
+
+	@Override
+	public String toString() {
+		return key + "=" + count;
+	}
+}
@@ -0,0 +1,78 @@
+package io.pivotal.literx.view;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.ReplayProcessor;
+
+/**
+ * Result of a query over the entities of a repository, kept up to date as they are saved.
+ *
+ * Once {@link io.pivotal.literx.repository.ReactiveUserRepository#materialize(MaterializedView)
+ * materialized}, every saved entity is applied to the view, which updates its state in time
+ * proportional to the change and reports what changed. Readers either query the current state
+ * directly, or subscribe to {@link #changes()}.
+ *
+ * The repository {@link #update updates} the state while holding its lock, but only
+ * {@link #flush flushes} the changes to the subscribers once it has released it, so that slow
+ * subscribers or subscribers calling back into the repository do not run under that lock.
+ *
+ * @param <T> the type of the entities
+ * @param <C> the type of the changes
+ */
+public abstract class MaterializedView<T, C> {
+
+	private final ReplayProcessor<C> changes = ReplayProcessor.cacheLast();
+
+	private final FluxSink<C> sink = changes.sink();
+
+	private final Queue<C> pending = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger wip = new AtomicInteger();
+
+	/**
+	 * Updates the state of the view with a saved entity. Calls are never concurrent.
+	 *
+	 * @return what changed, or {@code null} if the view did not change
+	 */
+	protected abstract C apply(T entity);
+
+	/**
+	 * Updates the state of the view with a saved entity, keeping what changed until the next
+	 * {@link #flush()}. Calls must not be concurrent.
+	 */
+	public final void update(T entity) {
+		C change = apply(entity);
+		if (change != null) {
+			pending.offer(change);
+		}
+	}
+
+	/**
+	 * Emits the changes kept by {@link #update}, in order. Can be called from any thread, a
+	 * call made while another one is emitting leaving the emission of its changes to it.
+	 */
+	public final void flush() {
+		if (wip.getAndIncrement() != 0) {
+			return;
+		}
+		do {
+			C change;
+			while ((change = pending.poll()) != null) {
+				sink.next(change);
+			}
+		}
+		while (wip.decrementAndGet() != 0);
+	}
+
+	/**
+	 * @return the latest change, if any, then every change of the view, ready to be combined
+	 * with other views through {@link Flux#combineLatest}
+	 */
+	public Flux<C> changes() {
+		return changes;
+	}
+}
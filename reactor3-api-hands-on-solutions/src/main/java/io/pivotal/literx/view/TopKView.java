@@ -0,0 +1,72 @@
+package io.pivotal.literx.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The {@code k} most frequent keys, such as the top first names. Each change is the new ranking,
+ * emitted only when the saved entity changes it. Entities whose key is {@code null} are not
+ * counted.
+ *
+ * Counts only grow, so a key can only enter the ranking by passing its last entry: an update
+ * costs O(k) whatever the number of entities.
+ */
+public class TopKView<T> extends MaterializedView<T, List<KeyCount>> {
+
+	private static final Comparator<KeyCount> RANKING = Comparator
+			.comparingLong(KeyCount::getCount).reversed()
+			.thenComparing(KeyCount::getKey);
+
+	private final Function<? super T, String> keyExtractor;
+
+	private final int k;
+
+	private final Map<String, Long> counts = new HashMap<>();
+
+	private final List<KeyCount> ranking = new ArrayList<>();
+
+	private volatile List<KeyCount> top = Collections.emptyList();
+
+	public TopKView(Function<? super T, String> keyExtractor, int k) {
+		if (k <= 0) {
+			throw new IllegalArgumentException("k > 0 required but it was " + k);
+		}
+		this.keyExtractor = keyExtractor;
+		this.k = k;
+	}
+
+	@Override
+	protected List<KeyCount> apply(T entity) {
+		String key = keyExtractor.apply(entity);
+		if (key == null) {
+			return null;
+		}
+		KeyCount updated = new KeyCount(key, counts.merge(key, 1L, Long::sum));
+
+		boolean ranked = ranking.removeIf(entry -> entry.getKey().equals(key));
+		if (!ranked && ranking.size() == k) {
+			KeyCount last = ranking.get(k - 1);
+			if (RANKING.compare(updated, last) > 0) {
+				return null;
+			}
+			ranking.remove(k - 1);
+		}
+		int index = Collections.binarySearch(ranking, updated, RANKING);
+		ranking.add(-index - 1, updated);
+
+		top = Collections.unmodifiableList(new ArrayList<>(ranking));
+		return top;
+	}
+
+	/**
+	 * @return the current ranking, most frequent first
+	 */
+	public List<KeyCount> getTop() {
+		return top;
+	}
+}
@@ -0,0 +1,72 @@
+package io.pivotal.literx.adapt;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tasks run for nothing when readers only take the first results of a batch of futures, with the
+ * bridge against {@link Mono#fromFuture(CompletableFuture)}.
+ */
+public class FutureBridgeManualTest {
+
+	private static final int READERS = 100;
+
+	private static final int TASKS = 1_000;
+
+	private static final int IN_FLIGHT = 32;
+
+	private static final int TAKE = 4;
+
+	@Test
+	public void wastedWork() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			run("fromFuture", executor, Mono::fromFuture);
+			run("bridge", executor, FutureBridge::toMono);
+		}
+		finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+	}
+
+	private static void run(String name, ExecutorService executor,
+			Function<CompletableFuture<Integer>, Mono<Integer>> toMono) throws InterruptedException {
+		LongAdder executed = new LongAdder();
+		long start = System.nanoTime();
+		for (int reader = 0; reader < READERS; reader++) {
+			Flux.range(0, TASKS)
+					.map(i -> CompletableFuture.supplyAsync(() -> {
+						executed.increment();
+						sleep();
+						return i;
+					}, executor))
+					.flatMap(toMono, IN_FLIGHT)
+					.take(TAKE)
+					.blockLast();
+		}
+		long elapsed = System.nanoTime() - start;
+		// let the tasks left behind run
+		Thread.sleep(1_000);
+		System.out.printf("%-10s %6d tasks run for %d results, %5.1f%% wasted, %5d ms%n",
+				name, executed.sum(), READERS * TAKE,
+				100.0 * (executed.sum() - READERS * TAKE) / executed.sum(), elapsed / 1_000_000);
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(1);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
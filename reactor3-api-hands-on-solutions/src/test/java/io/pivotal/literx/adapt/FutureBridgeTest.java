@@ -0,0 +1,140 @@
+package io.pivotal.literx.adapt;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FutureBridgeTest {
+
+	@Test
+	public void monoCompletesWithTheFuture() {
+		CompletableFuture<String> future = new CompletableFuture<>();
+
+		StepVerifier.create(FutureBridge.toMono(future))
+				.then(() -> future.complete("done"))
+				.expectNext("done")
+				.verifyComplete();
+		StepVerifier.create(FutureBridge.toMono(CompletableFuture.completedFuture(null)))
+				.verifyComplete();
+		StepVerifier.create(FutureBridge.toMono(CompletableFuture.supplyAsync(() -> {
+			throw new IllegalStateException("boom");
+		}))).verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void cancellingTheMonoCancelsTheFuture() {
+		CompletableFuture<String> future = new CompletableFuture<>();
+		Disposable subscription = FutureBridge.toMono(future).subscribe();
+
+		subscription.dispose();
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void futureIsCancelledOnlyOnceEverySubscriberCancelled() {
+		CompletableFuture<String> future = new CompletableFuture<>();
+		Mono<String> mono = FutureBridge.toMono(future);
+		Disposable first = mono.subscribe();
+		Disposable second = mono.subscribe();
+
+		first.dispose();
+		assertFalse(future.isCancelled());
+		StepVerifier.create(mono)
+				.then(() -> future.complete("done"))
+				.expectNext("done")
+				.verifyComplete();
+		second.dispose();
+		assertEquals("done", future.join());
+	}
+
+	@Test
+	public void lastSubscriberCancellingCancelsTheFuture() {
+		CompletableFuture<String> future = new CompletableFuture<>();
+		Mono<String> mono = FutureBridge.toMono(future);
+		Disposable first = mono.subscribe();
+		Disposable second = mono.subscribe();
+
+		first.dispose();
+		assertFalse(future.isCancelled());
+		second.dispose();
+		assertTrue(future.isCancelled());
+	}
+
+//========================================================================================
+
+	@Test
+	public void futureCompletesWithTheMono() throws Exception {
+		assertEquals("done", FutureBridge.toFuture(Mono.just("done")).get(1, TimeUnit.SECONDS));
+		assertEquals(null, FutureBridge.toFuture(Mono.empty()).get(1, TimeUnit.SECONDS));
+		assertTrue(FutureBridge.toFuture(Mono.error(new IllegalStateException("boom")))
+				.isCompletedExceptionally());
+	}
+
+	@Test
+	public void cancellingTheFutureCancelsTheMono() {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		CompletableFuture<Long> future = FutureBridge.toFuture(Mono.delay(Duration.ofHours(1))
+				.doOnCancel(() -> cancelled.set(true)));
+
+		assertTrue(future.cancel(true));
+		assertTrue(cancelled.get());
+	}
+
+//========================================================================================
+
+	@Test
+	public void mergeBoundsFuturesInFlight() {
+		List<CompletableFuture<Integer>> created = new ArrayList<>();
+		Flux<CompletableFuture<Integer>> futures = Flux.range(0, 10).map(i -> {
+			CompletableFuture<Integer> future = new CompletableFuture<>();
+			created.add(future);
+			return future;
+		});
+
+		StepVerifier.create(FutureBridge.merge(futures, 3))
+				.then(() -> assertEquals(3, created.size()))
+				// completion order
+				.then(() -> created.get(1).complete(1))
+				.expectNext(1)
+				.then(() -> assertEquals(4, created.size()))
+				.thenCancel()
+				.verify();
+
+		assertTrue(created.get(0).isCancelled());
+		assertFalse(created.get(1).isCancelled());
+		assertTrue(created.get(3).isCancelled());
+	}
+
+	@Test
+	public void mergeSequentialKeepsInputOrder() {
+		List<CompletableFuture<Integer>> created = new ArrayList<>();
+		Flux<CompletableFuture<Integer>> futures = Flux.range(0, 3).map(i -> {
+			CompletableFuture<Integer> future = new CompletableFuture<>();
+			created.add(future);
+			return future;
+		});
+
+		StepVerifier.create(FutureBridge.mergeSequential(futures, 3))
+				.then(() -> {
+					created.get(2).complete(2);
+					created.get(1).complete(1);
+				})
+				.expectNoEvent(Duration.ofMillis(50))
+				.then(() -> created.get(0).complete(0))
+				.expectNext(0, 1, 2)
+				.verifyComplete();
+	}
+}
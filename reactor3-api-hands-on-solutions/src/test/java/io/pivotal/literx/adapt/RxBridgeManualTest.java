@@ -0,0 +1,45 @@
+package io.pivotal.literx.adapt;
+
+import java.util.function.Function;
+
+import io.reactivex.Flowable;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Throughput of a pipeline crossing the Reactor/RxJava boundary four times, with the bridge
+ * against the {@code from} factories.
+ */
+public class RxBridgeManualTest {
+
+	private static final int ELEMENTS = 10_000_000;
+
+	private static final int ROUNDS = 5;
+
+	@Test
+	public void crossings() {
+		for (int i = 0; i < ROUNDS; i++) {
+			run("from factories", Flowable::fromPublisher, Flux::from);
+			run("bridge", RxBridge::toFlowable, RxBridge::toFlux);
+		}
+	}
+
+	private static void run(String name, Function<Publisher<Integer>, Flowable<Integer>> toFlowable,
+			Function<Publisher<Integer>, Flux<Integer>> toFlux) {
+		Flux<Integer> pipeline = Flux.range(0, ELEMENTS);
+		for (int i = 0; i < 2; i++) {
+			Flowable<Integer> flowable = toFlowable.apply(pipeline)
+					.observeOn(io.reactivex.schedulers.Schedulers.computation())
+					.map(v -> v + 1);
+			pipeline = toFlux.apply(flowable)
+					.publishOn(Schedulers.parallel())
+					.map(v -> v - 1);
+		}
+		long start = System.nanoTime();
+		long count = pipeline.count().block();
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("%-15s %,12d elements/s%n", name, count * 1_000_000_000L / elapsed);
+	}
+}
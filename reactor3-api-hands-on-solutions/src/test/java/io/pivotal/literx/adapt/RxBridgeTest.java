@@ -0,0 +1,118 @@
+package io.pivotal.literx.adapt;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.internal.fuseable.QueueFuseable;
+import io.reactivex.internal.fuseable.QueueSubscription;
+import io.reactivex.schedulers.Schedulers;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RxBridgeTest {
+
+	@Test
+	public void flowableFusesWithReactorOperators() {
+		StepVerifier.create(RxBridge.toFlux(Flowable.range(1, 5)))
+				.expectFusion(Fuseable.ANY, Fuseable.SYNC)
+				.expectNext(1, 2, 3, 4, 5)
+				.verifyComplete();
+
+		StepVerifier.create(RxBridge.toFlux(Flowable.range(1, 5).observeOn(Schedulers.computation())))
+				.expectFusion(Fuseable.ANY, Fuseable.ASYNC)
+				.expectNext(1, 2, 3, 4, 5)
+				.verifyComplete();
+	}
+
+	@Test
+	public void fluxFusesWithRxJavaOperators() {
+		AtomicReference<Subscription> subscription = new AtomicReference<>();
+		RxBridge.toFlowable(Flux.range(1, 5)).subscribe(new FlowableSubscriber<Integer>() {
+			@Override
+			public void onSubscribe(Subscription s) {
+				subscription.set(s);
+			}
+
+			@Override
+			public void onNext(Integer value) {
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		});
+
+		assertTrue(subscription.get() instanceof QueueSubscription);
+		assertEquals(QueueFuseable.SYNC, ((QueueSubscription<?>) subscription.get()).requestFusion(QueueFuseable.ANY));
+	}
+
+//========================================================================================
+
+	@Test
+	public void crossesTheBoundaryBackAndForth() {
+		Flowable<Integer> rx = RxBridge.toFlowable(Flux.range(0, 10_000).map(i -> i + 1))
+				.observeOn(Schedulers.computation())
+				.filter(i -> i % 2 == 0);
+		Flux<Integer> flux = RxBridge.toFlux(rx)
+				.publishOn(reactor.core.scheduler.Schedulers.parallel())
+				.map(i -> i / 2);
+
+		StepVerifier.create(RxBridge.toFlowable(flux).map(i -> (long) i).reduce(0L, Long::sum).toFlowable())
+				.expectNext(5_000L * 5_001 / 2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void passesRequestsThrough() {
+		StringBuilder requests = new StringBuilder();
+		Flowable<Integer> source = Flowable.range(0, 100).doOnRequest(n -> requests.append(n).append(' '));
+
+		StepVerifier.create(RxBridge.toFlux(source).hide(), 3)
+				.expectNextCount(3)
+				.thenRequest(10)
+				.expectNextCount(10)
+				.thenCancel()
+				.verify();
+		assertEquals("3 10 ", requests.toString());
+	}
+
+	@Test
+	public void propagatesErrors() {
+		StepVerifier.create(RxBridge.toFlux(Flowable.concat(Flowable.just(1), Flowable.error(new IllegalStateException("boom")))))
+				.expectNext(1)
+				.verifyErrorMessage("boom");
+		StepVerifier.create(RxBridge.toFlowable(Flux.error(new IllegalStateException("boom"))))
+				.verifyErrorMessage("boom");
+	}
+
+//========================================================================================
+
+	@Test
+	public void adaptingBackReturnsTheOriginal() {
+		Flux<Integer> flux = Flux.range(0, 3);
+		Flowable<Integer> flowable = Flowable.range(0, 3);
+
+		assertSame(flux, RxBridge.toFlux(RxBridge.toFlowable(flux)));
+		assertSame(flowable, RxBridge.toFlowable(RxBridge.toFlux(flowable)));
+	}
+
+	@Test
+	public void scalarsStayScalar() {
+		assertTrue(RxBridge.toFlux(Flowable.just(1)) instanceof Fuseable.ScalarCallable);
+		assertTrue(RxBridge.toFlowable(Mono.just(1)) instanceof io.reactivex.internal.fuseable.ScalarCallable);
+		StepVerifier.create(RxBridge.toFlux(Flowable.<Integer>empty())).verifyComplete();
+	}
+}
@@ -0,0 +1,46 @@
+package io.pivotal.literx.blocking;
+
+import java.time.Duration;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Overhead of {@link BlockingCallDetector} on a pipeline scheduling one task per element on
+ * {@link Schedulers#parallel()}.
+ */
+public class BlockingCallDetectorManualTest {
+
+	private static final int TASKS = 1_000_000;
+
+	private static final int ROUNDS = 10;
+
+	@Test
+	public void overhead() {
+		for (int i = 0; i < ROUNDS / 2; i++) {
+			run();
+		}
+		long plain = 0;
+		long detected = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			BlockingCallDetector.disable();
+			plain += run();
+			BlockingCallDetector.enable(DetectionMode.REPORT, Duration.ofMillis(10), call -> { });
+			detected += run();
+		}
+		BlockingCallDetector.disable();
+		System.out.printf("plain: %d ms, detected: %d ms, overhead: %.1f%%, blocking calls: %d%n",
+				plain / ROUNDS / 1_000_000, detected / ROUNDS / 1_000_000,
+				(detected - plain) * 100.0 / plain, BlockingCallDetector.getBlockingCalls().size());
+	}
+
+	private static long run() {
+		long start = System.nanoTime();
+		Flux.range(0, TASKS)
+				.flatMap(i -> Mono.fromCallable(() -> i * 31).subscribeOn(Schedulers.parallel()), 256)
+				.blockLast();
+		return System.nanoTime() - start;
+	}
+}
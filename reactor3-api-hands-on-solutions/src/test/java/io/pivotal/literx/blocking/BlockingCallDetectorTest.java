@@ -0,0 +1,170 @@
+package io.pivotal.literx.blocking;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlockingCallDetectorTest {
+
+	List<BlockingCall> reported = new CopyOnWriteArrayList<>();
+
+	@After
+	public void disable() {
+		BlockingCallDetector.disable();
+		BlockingCallDetector.reset();
+	}
+
+//========================================================================================
+
+	@Test
+	public void reportsSleepOnParallelThread() {
+		BlockingCallDetector.enable(DetectionMode.REPORT, Duration.ofMillis(5), reported::add);
+
+		sleepOnParallel().block();
+
+		assertEquals(1, reported.size());
+		BlockingCall call = reported.get(0);
+		assertEquals("java.lang.Thread.sleep", call.getBlockingMethod());
+		assertEquals(BlockingCallDetectorTest.class.getName(), call.getCallSite().getClassName());
+		assertTrue(call.getThreadName(), call.getThreadName().startsWith("parallel-"));
+		assertFalse(call.isRejected());
+		assertEquals(reported, BlockingCallDetector.getBlockingCalls());
+	}
+
+	@Test
+	public void ignoresThreadsAllowedToBlock() {
+		BlockingCallDetector.enable(DetectionMode.REPORT, Duration.ofMillis(5), reported::add);
+
+		Mono.just(1L).publishOn(Schedulers.elastic()).map(BlockingCallDetectorTest::sleep).block();
+
+		assertTrue(reported.isEmpty());
+	}
+
+	@Test
+	public void ignoresIdleThreads() throws InterruptedException {
+		BlockingCallDetector.enable(DetectionMode.REPORT, Duration.ofMillis(5), reported::add);
+
+		Flux.range(0, 1_000).publishOn(Schedulers.parallel()).map(i -> i * 2).blockLast();
+		Thread.sleep(100);
+
+		assertTrue(reported.isEmpty());
+	}
+
+//========================================================================================
+
+	@Test
+	public void failFastInterruptsTheBlockingCall() {
+		BlockingCallDetector.enable(DetectionMode.FAIL_FAST, Duration.ofMillis(5), reported::add);
+
+		StepVerifier.create(sleepOnParallel())
+				.verifyErrorMatches(e -> Exceptions.unwrap(e) instanceof InterruptedException);
+		assertEquals(1, reported.size());
+	}
+
+	@Test
+	public void interruptsDoNotLeakToOtherTasks() {
+		Map<String, Integer> running = new ConcurrentHashMap<>();
+		Set<Integer> reportedTasks = ConcurrentHashMap.newKeySet();
+		AtomicInteger leaked = new AtomicInteger();
+		BlockingCallDetector.enable(DetectionMode.FAIL_FAST, Duration.ofMillis(1), call -> {
+			reported.add(call);
+			reportedTasks.add(running.get(call.getThreadName()));
+			// reporting takes longer than the tasks block, which often end before the interrupt
+			sleep(2, 0L);
+		});
+		Flux.range(0, 500)
+				.flatMap(i -> Mono.fromRunnable(() -> {
+					if (Thread.currentThread().isInterrupted()) {
+						leaked.incrementAndGet();
+					}
+					running.put(Thread.currentThread().getName(), i);
+					try {
+						Thread.sleep(1);
+					}
+					catch (InterruptedException e) {
+						if (!reportedTasks.contains(i)) {
+							leaked.incrementAndGet();
+						}
+					}
+				}).subscribeOn(Schedulers.parallel()))
+				.blockLast();
+		assertFalse(reported.isEmpty());
+
+		BlockingCallDetector.enable(DetectionMode.REPORT, Duration.ofMillis(5), reported::add);
+		Flux.range(0, 100)
+				.flatMap(i -> Mono.fromRunnable(() -> {
+					if (Thread.currentThread().isInterrupted()) {
+						leaked.incrementAndGet();
+					}
+				}).subscribeOn(Schedulers.parallel()))
+				.blockLast();
+		sleepOnParallel().block();
+		assertEquals(0, leaked.get());
+	}
+
+	@Test
+	public void reportsBlockRejectedByReactor() {
+		BlockingCallDetector.enable(DetectionMode.REPORT, Duration.ofMillis(5), reported::add);
+
+		StepVerifier.create(Mono.fromCallable(() -> Mono.delay(Duration.ofHours(1)).block())
+				.subscribeOn(Schedulers.parallel()))
+				.verifyError(IllegalStateException.class);
+
+		assertEquals(1, reported.size());
+		BlockingCall call = reported.get(0);
+		assertEquals("reactor.core.publisher.Mono.block", call.getBlockingMethod());
+		assertEquals(BlockingCallDetectorTest.class.getName(), call.getCallSite().getClassName());
+		assertTrue(call.isRejected());
+	}
+
+	@Test
+	public void reportsNothingOnceDisabled() {
+		BlockingCallDetector.enable(DetectionMode.REPORT, Duration.ofMillis(5), reported::add);
+		BlockingCallDetector.disable();
+
+		sleepOnParallel().block();
+
+		assertTrue(reported.isEmpty());
+	}
+
+//========================================================================================
+
+	/**
+	 * Sleeps on a parallel thread. Not {@code Mono.delay(1ms).map(sleep)}: when the delay fires
+	 * before {@code Mono.delay} has stored its task, Reactor disposes the task while it runs,
+	 * interrupting the sleep whatever the detector does.
+	 */
+	static Mono<Long> sleepOnParallel() {
+		return Mono.fromCallable(() -> sleep(0L)).subscribeOn(Schedulers.parallel());
+	}
+
+	static long sleep(long value) {
+		return sleep(100, value);
+	}
+
+	static long sleep(long millis, long value) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			throw Exceptions.propagate(e);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,126 @@
+package io.pivotal.literx.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.pivotal.literx.domain.User;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Encode and decode throughput and allocation of {@link UserStreams} against Java serialization
+ * of the same fields. {@link User} is not serializable, so the baseline
+ * writes an equivalent serializable class.
+ */
+public class UserCodecManualTest {
+
+	private static final int USERS = 200_000;
+
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	@Test
+	public void codecAgainstSerialization() {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			users.add(new User("user" + i, "Firstname" + i, "Lastname" + i));
+		}
+		ByteBufferPool pool = new ByteBufferPool(64 * 1024, 16);
+
+		List<ByteBuffer> encoded = new ArrayList<>();
+		UserStreams.encode(Flux.fromIterable(users), new ByteBufferPool(64 * 1024, 1)).subscribe(encoded::add);
+
+		for (int round = 0; round < 3; round++) {
+			long[] written = new long[1];
+			run("codec encode", () -> {
+				written[0] = 0;
+				// as if each buffer was written out then released
+				UserStreams.encode(Flux.fromIterable(users), pool).subscribe(buffer -> {
+					written[0] += buffer.remaining();
+					pool.release(buffer);
+				});
+				return written[0];
+			});
+			run("codec decode", () -> {
+				UserStreams.decode(Flux.fromIterable(encoded).map(ByteBuffer::duplicate)).subscribe();
+				return written[0];
+			});
+
+			byte[][] serialized = new byte[1][];
+			run("serialize", () -> {
+				serialized[0] = serialize(users);
+				return (long) serialized[0].length;
+			});
+			run("deserialize", () -> {
+				deserialize(serialized[0]);
+				return (long) serialized[0].length;
+			});
+		}
+		System.out.printf("pool created %d buffers, reused %d%n", pool.getCreated(), pool.getReused());
+	}
+
+	private void run(String name, Supplier<Long> work) {
+		long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		long start = System.nanoTime();
+		long bytes = work.get();
+		long elapsed = System.nanoTime() - start;
+		allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+		System.out.printf("%-12s %,10d bytes %7.1f MB/s %,11d users/s %7.1f allocated bytes/user%n", name,
+				bytes, bytes * 1e3 / elapsed, USERS * 1_000_000_000L / elapsed, (double) allocated / USERS);
+	}
+
+	private static byte[] serialize(List<User> users) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeInt(users.size());
+			for (User user : users) {
+				out.writeObject(new SerializableUser(user));
+				// as when every user is a message of its own
+				out.reset();
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void deserialize(byte[] bytes) {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				in.readObject();
+			}
+		}
+		catch (IOException | ClassNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static final class SerializableUser implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String username;
+
+		private final String firstname;
+
+		private final String lastname;
+
+		SerializableUser(User user) {
+			this.username = user.getUsername();
+			this.firstname = user.getFirstname();
+			this.lastname = user.getLastname();
+		}
+	}
+}
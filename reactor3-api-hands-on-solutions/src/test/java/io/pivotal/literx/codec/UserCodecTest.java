@@ -0,0 +1,152 @@
+package io.pivotal.literx.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import io.pivotal.literx.domain.User;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class UserCodecTest {
+
+	static final User ZOE = new User("zoë", "Zoë", "Ōkubo 大久保");
+
+	static final User EMOJI = new User("😀", "Grin", "😀😁");
+
+//========================================================================================
+
+	@Test
+	public void roundTrip() {
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		for (User user : new User[] { User.SKYLER, ZOE, EMOJI }) {
+			buffer.clear();
+			UserCodec.encode(user, buffer);
+			assertEquals(UserCodec.encodedSize(user), buffer.position());
+			buffer.flip();
+			assertEquals(user, UserCodec.decode(buffer));
+			assertTrue(!buffer.hasRemaining());
+		}
+	}
+
+	@Test
+	public void fieldsAreLengthPrefixedUtf8() {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		UserCodec.encode(User.SKYLER, buffer);
+
+		byte[] expected = ("\u0014\u0006swhite\u0006Skyler\u0005White").getBytes(StandardCharsets.UTF_8);
+		assertEquals(expected.length, buffer.position());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], buffer.get(i));
+		}
+	}
+
+	@Test
+	public void unpairedSurrogatesBecomeQuestionMarks() {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		UserCodec.encode(new User("a\uD83Db", "", ""), buffer);
+		buffer.flip();
+		assertEquals(new User("a?b", "", ""), UserCodec.decode(buffer));
+	}
+
+	@Test
+	public void tooSmallBufferIsLeftUntouched() {
+		ByteBuffer buffer = ByteBuffer.allocate(10);
+		try {
+			UserCodec.encode(User.SKYLER, buffer);
+			fail();
+		}
+		catch (BufferOverflowException e) {
+			assertEquals(0, buffer.position());
+		}
+	}
+
+	@Test
+	public void truncatedRecordIsRejected() {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		UserCodec.encode(User.SKYLER, buffer);
+		buffer.flip().limit(buffer.limit() - 1);
+		try {
+			UserCodec.decode(buffer);
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			assertEquals(0, buffer.position());
+		}
+	}
+
+//========================================================================================
+
+	@Test
+	public void streamRoundTripThroughPooledBuffers() {
+		ByteBufferPool pool = new ByteBufferPool(64, 4);
+		List<User> users = users(200);
+
+		StepVerifier.create(UserStreams.decode(UserStreams.encode(Flux.fromIterable(users), pool), pool))
+				.expectNextSequence(users)
+				.verifyComplete();
+		assertTrue(pool.getCreated() <= 2);
+		assertTrue(pool.getReused() > 50);
+	}
+
+	@Test
+	public void recordsLargerThanBuffersAreSplit() {
+		ByteBufferPool pool = new ByteBufferPool(7, 4);
+		List<User> users = users(20);
+		users.add(EMOJI);
+
+		StepVerifier.create(UserStreams.decode(UserStreams.encode(Flux.fromIterable(users), pool), pool))
+				.expectNextSequence(users)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodesAnyChunking() {
+		List<User> users = users(100);
+		ByteBuffer all = ByteBuffer.allocate(8 * 1024);
+		users.forEach(user -> UserCodec.encode(user, all));
+		all.flip();
+
+		Random random = new Random(42);
+		List<ByteBuffer> chunks = new ArrayList<>();
+		while (all.hasRemaining()) {
+			int length = Math.min(all.remaining(), 1 + random.nextInt(12));
+			ByteBuffer chunk = all.slice();
+			chunk.limit(length);
+			chunks.add(chunk);
+			all.position(all.position() + length);
+		}
+
+		StepVerifier.create(UserStreams.decode(Flux.fromIterable(chunks)))
+				.expectNextSequence(users)
+				.verifyComplete();
+	}
+
+	@Test
+	public void streamEndingInARecordFails() {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		UserCodec.encode(User.SKYLER, buffer);
+		UserCodec.encode(User.JESSE, buffer);
+		buffer.flip().limit(buffer.limit() - 3);
+
+		StepVerifier.create(UserStreams.decode(Flux.just(buffer)))
+				.expectNext(User.SKYLER)
+				.verifyError(IllegalArgumentException.class);
+	}
+
+	static List<User> users(int count) {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			users.add(i % 3 == 0 ? ZOE : new User("user" + i, "First" + i, "Last" + i));
+		}
+		return users;
+	}
+}
@@ -0,0 +1,76 @@
+package io.pivotal.literx.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Goodput of a single threaded stage offered twice the load it can take, with and without a
+ * {@link DeadlineGuard} checked when the work is taken off the queue.
+ */
+public class DeadlineGuardManualTest {
+
+	private static final int REQUESTS = 2_000;
+
+	private static final long ARRIVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static final long WORK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+	private static final Duration TIMEOUT = Duration.ofMillis(50);
+
+	@Test
+	public void goodputUnderOverload() throws InterruptedException {
+		run("no deadline", Function.identity());
+		DeadlineGuard guard = new DeadlineGuard();
+		// the work, plus a millisecond for the resolution of the clock
+		long expectedMillis = TimeUnit.NANOSECONDS.toMillis(WORK_NANOS) + 1;
+		run("deadline guard", request -> guard.check(request, expectedMillis));
+		System.out.printf("dropped %,d requests%n", guard.getDropped());
+	}
+
+	private static void run(String name, Function<Mono<Integer>, Mono<Integer>> guard) throws InterruptedException {
+		Scheduler server = Schedulers.newSingle("server");
+		LongAdder inTime = new LongAdder();
+		CountDownLatch done = new CountDownLatch(REQUESTS);
+		long start = System.nanoTime();
+
+		for (int i = 0; i < REQUESTS; i++) {
+			LockSupport.parkNanos(start + i * ARRIVAL_NANOS - System.nanoTime());
+			Deadline deadline = Deadline.after(TIMEOUT);
+			Mono.just(i)
+					.map(DeadlineGuardManualTest::work)
+					.transform(guard)
+					.subscribeOn(server)
+					.subscriberContext(deadline.asContext())
+					.doFinally(signal -> done.countDown())
+					.subscribe(value -> {
+						if (!deadline.isExpired()) {
+							inTime.increment();
+						}
+					}, error -> {
+					});
+		}
+		done.await();
+		long elapsed = System.nanoTime() - start;
+		server.dispose();
+
+		System.out.printf("%-15s %,6d requests in time, goodput %,6d requests/s%n", name,
+				inTime.sum(), inTime.sum() * 1_000_000_000L / elapsed);
+	}
+
+	private static int work(int value) {
+		long end = System.nanoTime() + WORK_NANOS;
+		while (System.nanoTime() < end) {
+			// busy, like a CPU bound stage
+		}
+		return value;
+	}
+}
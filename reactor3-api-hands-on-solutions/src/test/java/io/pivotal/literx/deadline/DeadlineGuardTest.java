@@ -0,0 +1,88 @@
+package io.pivotal.literx.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class DeadlineGuardTest {
+
+	DeadlineGuard guard = new DeadlineGuard();
+
+//========================================================================================
+
+	@Test
+	public void withoutDeadlineNothingIsDropped() {
+		StepVerifier.create(Flux.range(0, 3).transform(guard::check))
+				.expectNext(0, 1, 2)
+				.verifyComplete();
+		assertEquals(0, guard.getDropped());
+	}
+
+	@Test
+	public void expiredRequestNeverSubscribes() {
+		AtomicBoolean subscribed = new AtomicBoolean();
+		Mono<Integer> source = Mono.just(1).doOnSubscribe(s -> subscribed.set(true));
+
+		StepVerifier.create(source.transform(guard::check)
+				.subscriberContext(Deadline.after(Duration.ofMillis(-1)).asContext()))
+				.verifyError(DeadlineExceededException.class);
+		assertFalse(subscribed.get());
+		assertEquals(1, guard.getDropped());
+	}
+
+	@Test
+	public void workThatCannotFinishInTimeIsDropped() {
+		StepVerifier.withVirtualTime(() -> guard.check(Mono.delay(Duration.ofSeconds(2)), 2_000)
+				.subscriberContext(Deadline.after(Duration.ofSeconds(1)).asContext()))
+				.verifyError(DeadlineExceededException.class);
+		assertEquals(1, guard.getDropped());
+	}
+
+	@Test
+	public void elementsPastTheDeadlineAreDropped() {
+		StepVerifier.withVirtualTime(() -> Flux.interval(Duration.ofSeconds(1)).take(5)
+				.transform(guard::check)
+				.subscriberContext(Deadline.after(Duration.ofMillis(2_500)).asContext()))
+				.thenAwait(Duration.ofSeconds(5))
+				.expectNext(0L, 1L)
+				.verifyError(DeadlineExceededException.class);
+		assertEquals(1, guard.getDropped());
+	}
+
+//========================================================================================
+
+	@Test
+	public void repositoryDropsRequestsThatWouldMissTheirDeadline() {
+		ReactiveUserRepository repository = new ReactiveUserRepository(100);
+
+		StepVerifier.create(repository.findById("swhite")
+				.subscriberContext(Deadline.after(Duration.ofMillis(50)).asContext()))
+				.verifyError(DeadlineExceededException.class);
+		StepVerifier.create(repository.findById("swhite")
+				.subscriberContext(Deadline.after(Duration.ofSeconds(1)).asContext()))
+				.expectNext(User.SKYLER)
+				.verifyComplete();
+		assertEquals(1, repository.getDeadlineDrops());
+	}
+
+	@Test
+	public void repositoryStopsScansAtTheDeadline() {
+		ReactiveUserRepository repository = new ReactiveUserRepository(100);
+
+		StepVerifier.withVirtualTime(() -> repository.findAll()
+				.subscriberContext(Deadline.after(Duration.ofMillis(250)).asContext()))
+				.thenAwait(Duration.ofSeconds(1))
+				.expectNext(User.SKYLER, User.JESSE)
+				.verifyError(DeadlineExceededException.class);
+		assertEquals(1, repository.getDeadlineDrops());
+	}
+}
@@ -0,0 +1,81 @@
+package io.pivotal.literx.index;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Latency of {@link ReactiveUserRepository#suggest(String, int)} over 5M random usernames, for
+ * prefixes of 1 to 4 letters, against a {@code findAll()} filtered by the caller, then the cost of
+ * saving more users into the index. Needs {@code -Xmx3g}.
+ */
+public class PrefixIndexManualTest {
+
+	private static final int USERS = 5_000_000;
+
+	private static final int QUERIES = 100_000;
+
+	private static final int K = 10;
+
+	@Test
+	public void suggestLatency() {
+		Random random = new Random(42);
+		User[] users = new User[USERS];
+		for (int i = 0; i < USERS; i++) {
+			users[i] = new User(username(random), "First", "Last");
+		}
+		long start = System.nanoTime();
+		ReactiveUserRepository repository = new ReactiveUserRepository(0, users);
+		System.out.printf("load %,d users %6d ms%n", USERS, (System.nanoTime() - start) / 1_000_000);
+
+		for (int round = 0; round < 2; round++) {
+			for (int length = 1; length <= 4; length++) {
+				int prefixLength = length;
+				run("suggest, prefix of " + length, random, QUERIES, prefixLength,
+						prefix -> repository.suggest(prefix, K));
+			}
+			run("findAll + filter, prefix of 4", random, 5, 4, prefix -> repository.findAll()
+					.filter(user -> user.getUsername().startsWith(prefix))
+					.take(K));
+		}
+
+		User[] more = new User[100_000];
+		for (int i = 0; i < more.length; i++) {
+			more[i] = new User(username(random), "First", "Last");
+		}
+		start = System.nanoTime();
+		repository.save(Flux.fromArray(more)).block();
+		System.out.printf("save %,d more users %6d ms%n", more.length,
+				(System.nanoTime() - start) / 1_000_000);
+		run("suggest after saves", random, QUERIES, 3, prefix -> repository.suggest(prefix, K));
+	}
+
+	private void run(String name, Random random, int queries, int prefixLength,
+			Function<String, Flux<User>> query) {
+		long[] latencies = new long[queries];
+		long found = 0;
+		for (int i = 0; i < queries; i++) {
+			String prefix = username(random).substring(0, prefixLength);
+			long start = System.nanoTime();
+			found += query.apply(prefix).count().block();
+			latencies[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(latencies);
+		System.out.printf("%-30s %5.1f users/query p50 %,10d ns p99 %,10d ns max %,12d ns%n", name,
+				(double) found / queries, latencies[queries / 2], latencies[queries * 99 / 100],
+				latencies[queries - 1]);
+	}
+
+	private static String username(Random random) {
+		char[] letters = new char[8];
+		for (int i = 0; i < letters.length; i++) {
+			letters[i] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(letters);
+	}
+}
@@ -0,0 +1,145 @@
+package io.pivotal.literx.index;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+
+public class PrefixIndexTest {
+
+//========================================================================================
+
+	@Test
+	public void prefixInKeyOrderAcrossMerges() {
+		PrefixIndex<String> index = new PrefixIndex<>(s -> s);
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			keys.add("key" + i);
+		}
+		Collections.shuffle(keys, new Random(42));
+		for (int i = 0; i < keys.size(); i++) {
+			index.add(keys.get(i));
+			if (i % 997 == 0) {
+				assertEquals(i + 1, count(index.prefix("")));
+			}
+		}
+		assertEquals(10_000, index.size());
+		assertEquals(Arrays.asList("key42", "key420", "key4200", "key4201", "key4202", "key4203",
+				"key4204", "key4205", "key4206", "key4207", "key4208", "key4209", "key421", "key4210"),
+				first(index.prefix("key42"), 14));
+		assertEquals(1_111, count(index.prefix("key1")));
+		assertEquals(0, count(index.prefix("key10000")));
+		assertEquals(0, count(index.prefix("zzz")));
+	}
+
+	@Test
+	public void sameKeyKeepsInsertionOrder() {
+		PrefixIndex<String[]> index = new PrefixIndex<>(pair -> pair[0]);
+		for (int i = 0; i < 1_000; i++) {
+			index.add(new String[] { "k" + (i % 10), Integer.toString(i) });
+		}
+		index.add(new String[] { null, "no key" });
+		int previous = -1;
+		for (String[] pair : index.prefix("k3")) {
+			int value = Integer.parseInt(pair[1]);
+			assertEquals(3, value % 10);
+			assertEquals(true, value > previous);
+			previous = value;
+		}
+		assertEquals(1_000, index.size());
+	}
+
+	@Test
+	public void addAllMergesWithPendingValues() {
+		PrefixIndex<String> index = new PrefixIndex<>(s -> s);
+		index.add("b2");
+		index.add("a2");
+		index.addAll(Arrays.asList("b1", null, "a1", "b3"));
+		index.add("a3");
+		assertEquals(Arrays.asList("a1", "a2", "a3", "b1", "b2", "b3"), first(index.prefix(""), 10));
+		assertEquals(6, index.size());
+	}
+
+//========================================================================================
+
+	@Test
+	public void suggestFirstUsernamesOfThePrefix() {
+		ReactiveUserRepository repository = new ReactiveUserRepository(0);
+		StepVerifier.create(repository.suggest("s", 5))
+				.expectNext(User.SAUL, User.SKYLER)
+				.verifyComplete();
+		StepVerifier.create(repository.suggest("", 3))
+				.expectNext(User.JESSE, User.SAUL, User.SKYLER)
+				.verifyComplete();
+
+		User skinny = new User("spete", "Skinny", "Pete");
+		repository.save(Flux.just(skinny, new User("spete", "Other", "Pete"))).block();
+		StepVerifier.create(repository.suggest("s", 5))
+				.expectNext(User.SAUL, skinny, User.SKYLER)
+				.verifyComplete();
+	}
+
+	@Test
+	public void suggestStopsReadingAtK() {
+		AtomicInteger read = new AtomicInteger();
+		PrefixIndex<User> index = new PrefixIndex<>(user -> {
+			read.incrementAndGet();
+			return user.getUsername();
+		});
+		for (int i = 0; i < 100; i++) {
+			index.add(new User("user" + i, "First", "Last"));
+		}
+		StepVerifier.create(Flux.fromIterable(index.prefix("user")).take(3), 1)
+				.expectNextCount(1)
+				.thenRequest(2)
+				.expectNextCount(2)
+				.verifyComplete();
+		// keys are read when adding, never when querying
+		assertEquals(100, read.get());
+	}
+
+	@Test
+	public void typeAheadCancelsSupersededPrefixes() {
+		StepVerifier.withVirtualTime(() -> {
+			ReactiveUserRepository repository = new ReactiveUserRepository();
+			// each suggestion takes 100ms, the user types a key every 40ms then pauses
+			Flux<String> keystrokes = Flux.just("s", "sw", "sw", "s", "sg")
+					.delayElements(Duration.ofMillis(40));
+			return repository.typeAhead(keystrokes, 5);
+		})
+				.thenAwait(Duration.ofSeconds(1))
+				.expectNext(Collections.singletonList(User.SAUL))
+				.verifyComplete();
+	}
+
+	private static int count(Iterable<?> values) {
+		int count = 0;
+		for (Object value : values) {
+			count++;
+		}
+		return count;
+	}
+
+	private static <T> List<T> first(Iterable<T> values, int n) {
+		List<T> first = new ArrayList<>();
+		for (T value : values) {
+			if (first.size() == n) {
+				break;
+			}
+			first.add(value);
+		}
+		return first;
+	}
+
+}
@@ -0,0 +1,55 @@
+package io.pivotal.literx.index;
+
+import java.util.function.Supplier;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Time of a lastname lookup and of a firstname prefix query as the repository grows, against a
+ * {@code findAll()} filtered by the caller. Each query returns 10 users
+ * whatever the size of the repository.
+ */
+public class SecondaryIndexManualTest {
+
+	private static final int QUERIES = 1_000;
+
+	@Test
+	public void lookupTimeFollowsResultSize() {
+		for (int size : new int[] { 10_000, 100_000, 1_000_000 }) {
+			User[] users = new User[size];
+			for (int i = 0; i < size; i++) {
+				users[i] = new User("user" + i, "First" + i, "Last" + i / 10);
+			}
+			ReactiveUserRepository repository = new ReactiveUserRepository(0, users);
+			String lastname = "Last" + (size / 20);
+			// First100 and First1000..First1008 when looking for 10 out of 10 000 users, and so on
+			String prefix = "First" + (size / 100);
+
+			for (int round = 0; round < 2; round++) {
+				System.out.println(size + " users, round " + round);
+				run("findByLastname", () -> repository.findByLastname(lastname));
+				run("findAll + filter", () -> repository.findAll()
+						.filter(user -> lastname.equals(user.getLastname())));
+				run("findByFirstnameStartingWith", () -> repository.findByFirstnameStartingWith(prefix)
+						.take(10));
+				run("findAll + filter", () -> repository.findAll()
+						.filter(user -> user.getFirstname().startsWith(prefix))
+						.take(10));
+			}
+		}
+	}
+
+	private void run(String name, Supplier<Flux<User>> query) {
+		long found = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < QUERIES; i++) {
+			found += query.get().count().block();
+		}
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("  %-28s %4d users %,10d ns/query%n", name, found / QUERIES,
+				elapsed / QUERIES);
+	}
+}
@@ -0,0 +1,108 @@
+package io.pivotal.literx.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+
+public class SecondaryIndexTest {
+
+//========================================================================================
+
+	@Test
+	public void findByLastnameInSaveOrder() {
+		ReactiveUserRepository repository = new ReactiveUserRepository(0);
+		StepVerifier.create(repository.findByLastname("White"))
+				.expectNext(User.SKYLER, User.WALTER)
+				.verifyComplete();
+		StepVerifier.create(repository.findByLastname("Schrader"))
+				.verifyComplete();
+
+		User hank = new User("hschrader", "Hank", "Schrader");
+		User holly = new User("hwhite", "Holly", "White");
+		repository.save(Flux.just(hank, holly)).block();
+		StepVerifier.create(repository.findByLastname("White"))
+				.expectNext(User.SKYLER, User.WALTER, holly)
+				.verifyComplete();
+		StepVerifier.create(repository.findByLastname("Schrader"))
+				.expectNext(hank)
+				.verifyComplete();
+	}
+
+//========================================================================================
+
+	@Test
+	public void findByFirstnamePrefixAndRangeInFirstnameOrder() {
+		ReactiveUserRepository repository = new ReactiveUserRepository(0);
+		StepVerifier.create(repository.findByFirstnameStartingWith("S"))
+				.expectNext(User.SAUL, User.SKYLER)
+				.verifyComplete();
+		StepVerifier.create(repository.findByFirstnameStartingWith("Sk"))
+				.expectNext(User.SKYLER)
+				.verifyComplete();
+		StepVerifier.create(repository.findByFirstnameStartingWith("X"))
+				.verifyComplete();
+		StepVerifier.create(repository.findByFirstnameStartingWith(""))
+				.expectNext(User.JESSE, User.SAUL, User.SKYLER, User.WALTER)
+				.verifyComplete();
+
+		StepVerifier.create(repository.findByFirstnameBetween("Jesse", "Skyler"))
+				.expectNext(User.JESSE, User.SAUL)
+				.verifyComplete();
+		StepVerifier.create(repository.findByFirstnameBetween("Skyler", "Jesse"))
+				.verifyComplete();
+	}
+
+	@Test
+	public void sameFirstnameKeepsSaveOrder() {
+		User otherSaul = new User("sother", "Saul", "Other");
+		ReactiveUserRepository repository = new ReactiveUserRepository(0);
+		repository.save(Flux.just(otherSaul)).block();
+		StepVerifier.create(repository.findByFirstnameStartingWith("Sa"))
+				.expectNext(User.SAUL, otherSaul)
+				.verifyComplete();
+	}
+
+//========================================================================================
+
+	@Test
+	public void queriesFollowDemand() {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			users.add(new User("user" + i, "Name" + i, "Same"));
+		}
+		ReactiveUserRepository repository = new ReactiveUserRepository(0, users.toArray(new User[0]));
+		List<Long> requests = new ArrayList<>();
+
+		StepVerifier.create(repository.findByLastname("Same").doOnRequest(requests::add), 2)
+				.expectNext(users.get(0), users.get(1))
+				.thenRequest(1)
+				.expectNext(users.get(2))
+				.thenCancel()
+				.verify();
+		assertEquals(2, requests.size());
+		StepVerifier.create(repository.findByFirstnameStartingWith("Name99"), 3)
+				.expectNextCount(3)
+				.thenRequest(Long.MAX_VALUE)
+				.expectNextCount(8)
+				.verifyComplete();
+	}
+
+	@Test
+	public void usersWithoutNamesAreNotIndexed() {
+		User anonymous = new User("anon", null, null);
+		ReactiveUserRepository repository = new ReactiveUserRepository(0, anonymous, User.SAUL);
+		StepVerifier.create(repository.findByFirstnameStartingWith(""))
+				.expectNext(User.SAUL)
+				.verifyComplete();
+		StepVerifier.create(repository.findByLastname(null))
+				.verifyComplete();
+	}
+
+}
@@ -0,0 +1,100 @@
+package io.pivotal.literx.index;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.pivotal.literx.domain.User;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@code distinct()}, an index build and random lookups over 10M users, with the JDK collections
+ * and with {@link UserSet} and {@link UsernameIndex}. Needs {@code -Xmx4g}. One
+ * user in ten is a copy of another one, so that {@code distinct()} has something to drop.
+ */
+public class UserSetManualTest {
+
+	private static final int USERS = 10_000_000;
+
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	@Test
+	public void distinctAndIndexBuild() {
+		String[] firstnames = new String[1_000];
+		String[] lastnames = new String[1_000];
+		for (int i = 0; i < firstnames.length; i++) {
+			firstnames[i] = "First" + i;
+			lastnames[i] = "Last" + i;
+		}
+		User[] users = new User[USERS];
+		for (int i = 0; i < USERS; i++) {
+			int id = i % 10 == 9 ? i - 9 : i;
+			users[i] = new User("user" + id, firstnames[id % 1_000], lastnames[id / 1_000 % 1_000]);
+		}
+
+		int[] lookups = new Random(42).ints(USERS, 0, USERS).toArray();
+
+		for (int round = 0; round < 2; round++) {
+			run("distinct HashSet", () -> Flux.fromArray(users).distinct().count().block());
+			run("distinct UserSet", () -> Flux.fromArray(users)
+					.distinct(Function.identity(), UserSet::new).count().block());
+
+			Map<String, User> map = new HashMap<>();
+			run("index HashMap", () -> {
+				for (User user : users) {
+					map.putIfAbsent(user.getUsername(), user);
+				}
+				return (long) map.size();
+			});
+			UsernameIndex index = new UsernameIndex();
+			run("index UsernameIndex", () -> {
+				for (User user : users) {
+					index.putIfAbsent(user);
+				}
+				return (long) index.size();
+			});
+
+			// random order, lookups in insertion order favour the HashMap nodes allocated in order
+			run("lookup HashMap", () -> {
+				long found = 0;
+				for (int i : lookups) {
+					found += map.get(users[i].getUsername()) != null ? 1 : 0;
+				}
+				return found;
+			});
+			run("lookup UsernameIndex", () -> {
+				long found = 0;
+				for (int i : lookups) {
+					found += index.get(users[i].getUsername()) != null ? 1 : 0;
+				}
+				return found;
+			});
+		}
+	}
+
+	private void run(String name, Supplier<Long> work) {
+		System.gc();
+		long gcs = collections();
+		long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		long start = System.nanoTime();
+		long count = work.get();
+		long elapsed = System.nanoTime() - start;
+		allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+		System.out.printf("%-20s %,10d users %6d ms %6.1f allocated bytes/user %3d GCs%n", name,
+				count, elapsed / 1_000_000, (double) allocated / USERS, collections() - gcs);
+	}
+
+	private static long collections() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += gc.getCollectionCount();
+		}
+		return count;
+	}
+}
@@ -0,0 +1,99 @@
+package io.pivotal.literx.index;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.function.Function;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UserSetTest {
+
+//========================================================================================
+
+	@Test
+	public void cachedHashKeepsTheContract() {
+		User copy = new User("swhite", "Skyler", "White");
+		assertEquals(User.SKYLER, copy);
+		assertEquals(User.SKYLER.hashCode(), copy.hashCode());
+		assertNotEquals(User.SKYLER, User.WALTER);
+		assertEquals(new User("swhite", null, null).hashCode(), new User("swhite", null, null).hashCode());
+	}
+
+	@Test
+	public void setGrowsAndKeepsEveryUserOnce() {
+		UserSet set = new UserSet(2);
+		for (int i = 0; i < 1_000; i++) {
+			assertTrue(set.add(user(i)));
+		}
+		for (int i = 0; i < 1_000; i++) {
+			assertFalse(set.add(user(i)));
+			assertTrue(set.contains(user(i)));
+		}
+		assertFalse(set.contains(user(1_000)));
+		assertFalse(set.contains("user0"));
+		assertEquals(1_000, set.size());
+
+		HashSet<User> iterated = new HashSet<>(set);
+		assertEquals(1_000, iterated.size());
+		set.clear();
+		assertTrue(set.isEmpty());
+		assertFalse(set.contains(user(0)));
+	}
+
+	@Test
+	public void distinctWithUserSet() {
+		StepVerifier.create(Flux.just(User.SKYLER, User.JESSE, new User("swhite", "Skyler", "White"), User.JESSE)
+				.distinct(Function.identity(), UserSet::new))
+				.expectNext(User.SKYLER, User.JESSE)
+				.verifyComplete();
+	}
+
+//========================================================================================
+
+	@Test
+	public void indexByUsername() {
+		UsernameIndex index = new UsernameIndex(2);
+		for (int i = 0; i < 1_000; i++) {
+			assertNull(index.put(user(i)));
+		}
+		for (int i = 0; i < 1_000; i++) {
+			assertEquals(user(i), index.get("user" + i));
+		}
+		assertNull(index.get("user1000"));
+		assertNull(index.get(null));
+
+		User renamed = new User("user7", "Other", "Name");
+		assertEquals(user(7), index.putIfAbsent(renamed));
+		assertEquals(user(7), index.get("user7"));
+		assertEquals(user(7), index.put(renamed));
+		assertSame(renamed, index.get("user7"));
+		assertEquals(1_000, index.size());
+	}
+
+	@Test
+	public void repositoryFindsByIndex() {
+		ReactiveUserRepository repository = new ReactiveUserRepository(0);
+		StepVerifier.create(repository.save(Flux.just(new User("mcain", "Marie", "Cain"))))
+				.verifyComplete();
+
+		StepVerifier.create(Flux.fromIterable(Arrays.asList("jpinkman", "mcain")).flatMap(repository::findById))
+				.expectNext(User.JESSE)
+				.expectNext(new User("mcain", "Marie", "Cain"))
+				.verifyComplete();
+	}
+
+	static User user(int i) {
+		return new User("user" + i, "First" + i, "Last" + i);
+	}
+}
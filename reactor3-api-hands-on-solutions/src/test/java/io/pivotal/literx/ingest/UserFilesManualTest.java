@@ -0,0 +1,71 @@
+package io.pivotal.literx.ingest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.pivotal.literx.domain.User;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import reactor.core.publisher.Flux;
+
+/**
+ * Ingestion throughput and heap usage of {@link UserFiles} on growing files.
+ * The heap used should not grow with the file size.
+ */
+public class UserFilesManualTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+	@Test
+	public void throughput() throws IOException {
+		for (int records : new int[] { 1_000_000, 4_000_000, 8_000_000 }) {
+			run(generate(records, UserFileFormat.CSV), UserFileFormat.CSV);
+			run(generate(records, UserFileFormat.NDJSON), UserFileFormat.NDJSON);
+		}
+	}
+
+	private void run(Path file, UserFileFormat format) throws IOException {
+		long size = Files.size(file);
+		AtomicLong maxHeap = new AtomicLong();
+		AtomicLong index = new AtomicLong();
+		Flux<User> users = UserFiles.read(file, format)
+				.doOnNext(user -> {
+					if (index.incrementAndGet() % 500_000 == 0) {
+						System.gc();
+						maxHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+					}
+				});
+		long start = System.nanoTime();
+		long count = users.count().block();
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("%-6s %,10d users %5d MB: %6.1f MB/s, max heap after GC %3d MB%n",
+				format, count, size >> 20, size * 1e3 / 1024 / 1024 / (elapsed / 1e6), maxHeap.get() >> 20);
+		Files.delete(file);
+	}
+
+	private Path generate(int records, UserFileFormat format) throws IOException {
+		Path file = folder.newFile().toPath();
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < records; i++) {
+				if (format == UserFileFormat.NDJSON) {
+					writer.write("{\"username\":\"user" + i + "\",\"firstname\":\"First" + i
+							+ "\",\"lastname\":\"Last" + i + "\"}\n");
+				}
+				else {
+					writer.write("user" + i + ",First" + i + ",\"Last, " + i + "\"\n");
+				}
+			}
+		}
+		return file;
+	}
+}
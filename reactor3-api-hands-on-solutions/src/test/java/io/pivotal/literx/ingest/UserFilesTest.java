@@ -0,0 +1,124 @@
+package io.pivotal.literx.ingest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveRepository;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UserFilesTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+//========================================================================================
+
+	@Test
+	public void csvWithHeader() throws IOException {
+		Path file = write("username,firstname,lastname\r\n"
+				+ "swhite,Skyler,White\r\n"
+				+ "jpinkman,Jesse,Pinkman\r\n");
+		StepVerifier.create(UserFiles.read(file, UserFileFormat.CSV_WITH_HEADER))
+				.expectNext(User.SKYLER, User.JESSE)
+				.verifyComplete();
+	}
+
+//========================================================================================
+
+	@Test
+	public void csvQuotingAndRecordsSplitAcrossBuffers() throws IOException {
+		Path file = write("swhite,Skyler,White\n"
+				+ "\n"
+				+ "\"gus\",\"Gustavo, \"\"Gus\"\"\",\"Fring\nPollos\"\n"
+				+ "wwhite,Walter,Whité");
+		User gus = new User("gus", "Gustavo, \"Gus\"", "Fring\nPollos");
+		for (int bufferSize = 1; bufferSize <= 16; bufferSize++) {
+			StepVerifier.create(UserFiles.read(file, UserFileFormat.CSV, bufferSize))
+					.expectNext(User.SKYLER, gus, new User("wwhite", "Walter", "Whité"))
+					.verifyComplete();
+		}
+	}
+
+//========================================================================================
+
+	@Test
+	public void ndjson() throws IOException {
+		Path file = write("{\"username\":\"swhite\",\"firstname\":\"Skyler\",\"lastname\":\"White\"}\n"
+				+ " { \"age\": 42, \"lastname\" : \"Goodman\", \"firstname\":\"Saul\", \"username\":\"sgoodman\", \"lawyer\":true }\n"
+				+ "{\"username\":\"jpinkman\",\"firstname\":\"Jesse\",\"lastname\":\"Pink\\u006dan\"}\n");
+		StepVerifier.create(UserFiles.read(file, UserFileFormat.NDJSON, 7))
+				.expectNext(User.SKYLER, User.SAUL, User.JESSE)
+				.verifyComplete();
+	}
+
+//========================================================================================
+
+	@Test
+	public void malformedRecordTerminatesWithError() throws IOException {
+		Path file = write("swhite,Skyler,White\njpinkman,Jesse\n");
+		StepVerifier.create(UserFiles.read(file, UserFileFormat.CSV))
+				.expectNext(User.SKYLER)
+				.expectErrorMessage("Malformed record #2 (expected 3 fields): jpinkman,Jesse")
+				.verify();
+	}
+
+//========================================================================================
+
+	@Test
+	public void missingFile() {
+		StepVerifier.create(UserFiles.read(Paths.get(folder.getRoot().getPath(), "missing.csv"), UserFileFormat.CSV))
+				.expectError(IOException.class)
+				.verify();
+	}
+
+//========================================================================================
+
+	@Test
+	public void readsOnlyWhatIsRequested() throws IOException {
+		StringBuilder csv = new StringBuilder();
+		for (int i = 0; i < 10_000; i++) {
+			csv.append("user").append(i).append(",First,Last\n");
+		}
+		Path file = write(csv.toString());
+		LongAdder bytesRead = new LongAdder();
+		StepVerifier.create(UserFiles.read(file, UserFileFormat.CSV, 64, bytesRead), 0)
+				.expectSubscription()
+				.then(() -> assertEquals(0, bytesRead.sum()))
+				.thenRequest(3)
+				.expectNextCount(3)
+				.then(() -> assertTrue("read " + bytesRead.sum() + " bytes for 3 records of ~20 bytes",
+						bytesRead.sum() > 0 && bytesRead.sum() <= 2 * 64))
+				.thenCancel()
+				.verify();
+		assertTrue(bytesRead.sum() <= 2 * 64);
+	}
+
+//========================================================================================
+
+	@Test
+	public void loadIntoRepository() throws IOException {
+		Path file = write("swhite,Skyler,White\njpinkman,Jesse,Pinkman\n");
+		ReactiveRepository<User> repository = new ReactiveUserRepository(0, User.WALTER);
+		StepVerifier.create(UserFiles.load(file, UserFileFormat.CSV, repository))
+				.verifyComplete();
+		StepVerifier.create(repository.findAll())
+				.expectNext(User.WALTER, User.SKYLER, User.JESSE)
+				.verifyComplete();
+	}
+
+	private Path write(String content) throws IOException {
+		return Files.write(folder.newFile().toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
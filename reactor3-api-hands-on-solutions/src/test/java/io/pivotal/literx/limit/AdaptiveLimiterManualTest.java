@@ -0,0 +1,124 @@
+package io.pivotal.literx.limit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.OverflowPolicy;
+import io.pivotal.literx.repository.ReactiveRepository;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Simulation of the limit converging while the delay of an overloaded backend changes, run it
+ * from the IDE.
+ *
+ * The backend serves {@link #CAPACITY} calls at its base delay, more calls slow all of them down
+ * proportionally, so the best limit stays {@link #CAPACITY} whatever the delay. It is offered about
+ * 5000 calls per second, more than it can serve at any of the delays.
+ */
+public class AdaptiveLimiterManualTest {
+
+	private static final int CAPACITY = 20;
+
+	private static final long[] DELAYS_MS = { 10, 40, 10 };
+
+	private static final long PHASE_MS = 3_000;
+
+	private static final long REPORT_MS = 500;
+
+	@Test
+	public void vegas() throws InterruptedException {
+		simulate(new VegasLimit(5, 1, 500));
+	}
+
+	private static void simulate(LimitAlgorithm algorithm) throws InterruptedException {
+		System.out.println(algorithm.getClass().getSimpleName() + ", best limit " + CAPACITY);
+		SimulatedBackend backend = new SimulatedBackend();
+		AdaptiveLimiter limiter = new AdaptiveLimiter(algorithm);
+		ReactiveRepository<User> repository = new LimitedRepository<>(backend, limiter);
+		LongAdder served = new LongAdder();
+		LongAdder latency = new LongAdder();
+
+		Disposable load = Flux.interval(Duration.ofMillis(1))
+				.flatMap(tick -> Flux.range(0, 5))
+				.flatMap(i -> {
+					long start = System.nanoTime();
+					return repository.findById("user")
+							.doOnSuccess(user -> {
+								served.increment();
+								latency.add(System.nanoTime() - start);
+							})
+							.onErrorResume(e -> Mono.empty());
+				}, Integer.MAX_VALUE)
+				.subscribe();
+
+		for (long delayMs : DELAYS_MS) {
+			backend.delayMs = delayMs;
+			for (long t = 0; t < PHASE_MS; t += REPORT_MS) {
+				long servedBefore = served.sum();
+				long latencyBefore = latency.sum();
+				long rejectedBefore = limiter.getRejected();
+				long limits = 0;
+				for (int sample = 0; sample < REPORT_MS / 10; sample++) {
+					Thread.sleep(10);
+					limits += limiter.getLimit();
+				}
+				long calls = served.sum() - servedBefore;
+				System.out.printf("delay %3d ms  mean limit %4d  served %,6d/s  latency %6.1f ms  rejected %,6d/s%n",
+						delayMs, limits * 10 / REPORT_MS, calls * 1000 / REPORT_MS,
+						calls == 0 ? 0 : (latency.sum() - latencyBefore) / 1e6 / calls,
+						(limiter.getRejected() - rejectedBefore) * 1000 / REPORT_MS);
+			}
+		}
+		load.dispose();
+	}
+
+	private static final class SimulatedBackend implements ReactiveRepository<User> {
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		volatile long delayMs;
+
+		@Override
+		public Mono<User> findById(String id) {
+			return Mono.defer(() -> {
+				int concurrent = active.incrementAndGet();
+				long delay = TimeUnit.MILLISECONDS.toNanos(delayMs) * Math.max(CAPACITY, concurrent) / CAPACITY;
+				return Mono.delay(Duration.ofNanos(delay))
+						.map(tick -> User.SKYLER)
+						.doFinally(signal -> active.decrementAndGet());
+			});
+		}
+
+		@Override
+		public Mono<Void> save(Publisher<User> publisher) {
+			return Mono.empty();
+		}
+
+		@Override
+		public Mono<User> findFirst() {
+			return Mono.empty();
+		}
+
+		@Override
+		public Flux<User> findAll() {
+			return Flux.empty();
+		}
+
+		@Override
+		public Flux<User> watch() {
+			return Flux.never();
+		}
+
+		@Override
+		public Flux<User> watch(int bufferSize, OverflowPolicy policy) {
+			return Flux.never();
+		}
+	}
+}
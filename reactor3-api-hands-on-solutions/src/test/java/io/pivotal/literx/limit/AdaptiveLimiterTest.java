@@ -0,0 +1,146 @@
+package io.pivotal.literx.limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveLimiterTest {
+
+	static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+//========================================================================================
+
+	@Test
+	public void vegasGrowsWhileThereIsNoQueue() {
+		VegasLimit vegas = new VegasLimit(10, 1, 100);
+		for (int i = 0; i < 50; i++) {
+			vegas.onSample(10 * MS, vegas.getLimit(), false);
+		}
+		assertTrue(vegas.toString(), vegas.getLimit() > 10);
+	}
+
+	@Test
+	public void vegasShrinksWhenLatencyBuildsUp() {
+		VegasLimit vegas = new VegasLimit(50, 1, 100);
+		vegas.onSample(10 * MS, 50, false);
+		for (int i = 0; i < 20; i++) {
+			vegas.onSample(30 * MS, vegas.getLimit(), false);
+		}
+		assertTrue(vegas.toString(), vegas.getLimit() < 50);
+
+		int limit = vegas.getLimit();
+		vegas.onSample(30 * MS, limit, true);
+		assertEquals(limit / 2, vegas.getLimit());
+	}
+
+	@Test
+	public void vegasHalvesOnEveryDrop() {
+		VegasLimit vegas = new VegasLimit(40, 1, 100, 1);
+		// faster than any sample so far
+		vegas.onSample(10 * MS, 40, true);
+		assertEquals(20, vegas.getLimit());
+
+		// a probe every 20 samples at this limit, which an idle caller does not grow
+		for (int i = 0; i < 19; i++) {
+			vegas.onSample(10 * MS, 1, false);
+		}
+		assertEquals(20, vegas.getLimit());
+		vegas.onSample(10 * MS, 1, true);
+		assertEquals(10, vegas.getLimit());
+	}
+
+	@Test
+	public void vegasDoesNotGrowAnUnusedLimit() {
+		VegasLimit vegas = new VegasLimit(10, 1, 100);
+		for (int i = 0; i < 50; i++) {
+			vegas.onSample(10 * MS, 2, false);
+		}
+		assertEquals(10, vegas.getLimit());
+	}
+
+//========================================================================================
+
+	@Test
+	public void callsBeyondTheLimitAreRejected() {
+		FixedLimit fixed = new FixedLimit(2);
+		AdaptiveLimiter limiter = new AdaptiveLimiter(fixed);
+
+		Disposable first = limiter.limit(Mono.never()).subscribe();
+		Disposable second = limiter.limit(Mono.never()).subscribe();
+		StepVerifier.create(limiter.limit(Mono.just(1)))
+				.verifyError(RejectedExecutionException.class);
+		assertEquals(1, limiter.getRejected());
+
+		first.dispose();
+		StepVerifier.create(limiter.limit(Mono.just(1)))
+				.expectNext(1)
+				.verifyComplete();
+		second.dispose();
+		assertEquals(0, limiter.getInFlight());
+		// cancelled calls are not sampled
+		assertEquals(1, fixed.samples.size());
+	}
+
+	@Test
+	public void timeoutsAreSampledAsDropped() {
+		FixedLimit fixed = new FixedLimit(2);
+		AdaptiveLimiter limiter = new AdaptiveLimiter(fixed);
+
+		StepVerifier.create(limiter.limit(Mono.error(new TimeoutException())))
+				.verifyError(TimeoutException.class);
+		StepVerifier.create(limiter.limit(Mono.error(new IllegalStateException())))
+				.verifyError(IllegalStateException.class);
+		assertEquals("[dropped]", fixed.samples.toString());
+	}
+
+	@Test
+	public void limitedRepositorySamplesEveryCall() {
+		FixedLimit fixed = new FixedLimit(2);
+		LimitedRepository<User> repository =
+				new LimitedRepository<>(new ReactiveUserRepository(0), new AdaptiveLimiter(fixed));
+
+		StepVerifier.create(repository.findById("swhite"))
+				.expectNext(User.SKYLER)
+				.verifyComplete();
+		StepVerifier.create(repository.findAll())
+				.expectNextCount(4)
+				.verifyComplete();
+		assertEquals("[ok, ok]", fixed.samples.toString());
+		assertEquals(0, repository.getLimiter().getInFlight());
+	}
+
+//========================================================================================
+
+	static class FixedLimit implements LimitAlgorithm {
+
+		final int limit;
+
+		final List<String> samples = new ArrayList<>();
+
+		FixedLimit(int limit) {
+			this.limit = limit;
+		}
+
+		@Override
+		public int getLimit() {
+			return limit;
+		}
+
+		@Override
+		public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+			samples.add(dropped ? "dropped" : "ok");
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package io.pivotal.literx.logging;
+
+import java.util.function.Function;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Throughput of {@link Flux#log()} against {@link SignalLog#sampled}.
+ */
+public class SignalLogManualTest {
+
+	private static final int ELEMENTS = 200_000;
+
+	@Test
+	public void throughput() {
+		SignalLogWriter writer = SignalLogWriter.shared();
+		long plain = run(Function.identity());
+		long log = run(f -> f.log("bench"));
+		long sampled = run(f -> f.transform(SignalLog.sampled("bench", SignalSampler.everyNth(1000), writer)));
+		long all = run(f -> f.transform(SignalLog.sampled("bench", SignalSampler.all(), writer)));
+
+		System.out.printf("plain:             %,12.0f elements/s%n", ELEMENTS * 1e9 / plain);
+		System.out.printf("log():             %,12.0f elements/s%n", ELEMENTS * 1e9 / log);
+		System.out.printf("sampled 1/1000:    %,12.0f elements/s%n", ELEMENTS * 1e9 / sampled);
+		System.out.printf("sampled all:       %,12.0f elements/s (%d records dropped)%n",
+				ELEMENTS * 1e9 / all, writer.getDropped());
+	}
+
+	private static long run(Function<Flux<Integer>, Flux<Integer>> logging) {
+		Flux<Integer> flux = Flux.range(0, ELEMENTS).map(i -> i * 2).transform(logging);
+		long start = System.nanoTime();
+		flux.blockLast();
+		return System.nanoTime() - start;
+	}
+}
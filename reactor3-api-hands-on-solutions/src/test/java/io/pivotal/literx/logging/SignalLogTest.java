@@ -0,0 +1,100 @@
+package io.pivotal.literx.logging;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveRepository;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+
+public class SignalLogTest {
+
+	List<SignalRecord> records = new CopyOnWriteArrayList<>();
+
+	ReactiveRepository<User> repository = new ReactiveUserRepository(10);
+
+//========================================================================================
+
+	@Test
+	public void samplesEveryNthValue() {
+		SignalLogWriter writer = new SignalLogWriter(64, records::add);
+		Flux<Integer> flux = Flux.range(1, 100)
+				.transform(SignalLog.sampled("range", SignalSampler.everyNth(10), writer));
+		StepVerifier.create(flux)
+				.expectNextCount(100)
+				.verifyComplete();
+		writer.drain();
+
+		assertEquals(SignalType.ON_SUBSCRIBE, records.get(0).getType());
+		assertEquals(SignalType.REQUEST, records.get(1).getType());
+		assertEquals(SignalType.ON_COMPLETE, records.get(records.size() - 1).getType());
+		List<Object> values = records.stream()
+				.filter(r -> r.getType() == SignalType.ON_NEXT)
+				.map(SignalRecord::getPayload)
+				.collect(Collectors.toList());
+		assertEquals(10, values.size());
+		assertEquals(1, values.get(0));
+		assertEquals(91, values.get(9));
+	}
+
+//========================================================================================
+
+	@Test
+	public void alwaysRecordsDemandAndTerminalSignals() {
+		SignalLogWriter writer = new SignalLogWriter(64, records::add);
+		Flux<User> flux = repository.findAll()
+				.transform(SignalLog.sampled("users", SignalSampler.rate(0), writer));
+		StepVerifier.create(flux, 1)
+				.expectNext(User.SKYLER)
+				.thenCancel()
+				.verify();
+		writer.drain();
+
+		List<SignalType> types = records.stream().map(SignalRecord::getType).collect(Collectors.toList());
+		assertEquals(3, types.size());
+		assertEquals(SignalType.REQUEST, types.get(1));
+		assertEquals(1L, records.get(1).getPayload());
+		assertEquals(SignalType.CANCEL, types.get(2));
+	}
+
+//========================================================================================
+
+	@Test
+	public void dropsInsteadOfBlockingWhenFull() {
+		SignalLogWriter writer = new SignalLogWriter(8, records::add);
+		Flux<Integer> flux = Flux.range(1, 100)
+				.transform(SignalLog.sampled("range", SignalSampler.all(), writer));
+		StepVerifier.create(flux)
+				.expectNextCount(100)
+				.verifyComplete();
+
+		assertEquals(8, writer.getBuffered());
+		assertEquals(103 - 8, writer.getDropped());
+		assertEquals(8, writer.drain());
+	}
+
+//========================================================================================
+
+	@Test
+	public void writesOnBackgroundThread() {
+		SignalLogWriter writer = new SignalLogWriter(1024, records::add).start();
+		Flux<Integer> flux = Flux.range(1, 10)
+				.transform(SignalLog.sampled("range", SignalSampler.all(), writer));
+		StepVerifier.create(flux)
+				.expectNextCount(10)
+				.verifyComplete();
+		writer.dispose();
+
+		assertEquals(13, writer.getWritten());
+		assertEquals(13, records.size());
+		assertEquals(Thread.currentThread().getName(), records.get(2).getThread());
+	}
+
+}
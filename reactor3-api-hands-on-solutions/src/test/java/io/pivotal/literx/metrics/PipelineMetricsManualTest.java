@@ -0,0 +1,45 @@
+package io.pivotal.literx.metrics;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Overhead of {@link PipelineMetrics} on a CPU-bound named pipeline.
+ */
+public class PipelineMetricsManualTest {
+
+	private static final int ELEMENTS = 20_000_000;
+
+	private static final int ROUNDS = 10;
+
+	@Test
+	public void overhead() {
+		for (int i = 0; i < ROUNDS / 2; i++) {
+			run();
+		}
+		long plain = 0;
+		long instrumented = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			PipelineMetrics.disable();
+			plain += run();
+			PipelineMetrics.enable();
+			instrumented += run();
+		}
+		PipelineMetrics.disable();
+		System.out.println(PipelineMetrics.snapshot("bench"));
+		System.out.printf("plain: %d ms, instrumented: %d ms, overhead: %.1f%%%n",
+				plain / ROUNDS / 1_000_000, instrumented / ROUNDS / 1_000_000,
+				(instrumented - plain) * 100.0 / plain);
+	}
+
+	private static long run() {
+		Flux<Long> pipeline = Flux.range(0, ELEMENTS)
+				.map(i -> i * 31 + 7)
+				.filter(i -> (i & 3) != 0)
+				.map(Integer::longValue)
+				.name("bench");
+		long start = System.nanoTime();
+		pipeline.blockLast();
+		return System.nanoTime() - start;
+	}
+}
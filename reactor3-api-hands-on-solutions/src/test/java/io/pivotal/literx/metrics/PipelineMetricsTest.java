@@ -0,0 +1,145 @@
+package io.pivotal.literx.metrics;
+
+import java.time.Duration;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveRepository;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PipelineMetricsTest {
+
+	ReactiveRepository<User> repository = new ReactiveUserRepository(10);
+
+	@Before
+	public void enable() {
+		PipelineMetrics.enable();
+	}
+
+	@After
+	public void disable() {
+		PipelineMetrics.disable();
+		PipelineMetrics.reset();
+	}
+
+//========================================================================================
+
+	@Test
+	public void recordsRequestsAndValues() {
+		Flux<Integer> flux = Flux.range(1, 10).name("range");
+		StepVerifier.create(flux, 0)
+				.thenRequest(3)
+				.expectNextCount(3)
+				.thenRequest(7)
+				.expectNextCount(7)
+				.verifyComplete();
+
+		PipelineSnapshot snapshot = PipelineMetrics.snapshot("range");
+		assertEquals(1, snapshot.getSubscriptions());
+		assertEquals(10, snapshot.getOnNext());
+		assertEquals(10, snapshot.getRequested());
+		assertEquals(0, snapshot.getUnboundedRequests());
+		assertEquals(1, snapshot.getCompletions());
+		assertEquals(0, snapshot.getCancellations());
+	}
+
+//========================================================================================
+
+	@Test
+	public void recordsCancellationsAndErrors() {
+		Flux<Integer> flux = Flux.range(1, 10).name("cancel");
+		StepVerifier.create(flux)
+				.expectNext(1, 2)
+				.thenCancel()
+				.verify();
+		Flux<Integer> failing = Flux.<Integer>error(new IllegalStateException()).name("error");
+		StepVerifier.create(failing)
+				.verifyError(IllegalStateException.class);
+
+		PipelineSnapshot cancel = PipelineMetrics.snapshot("cancel");
+		assertEquals(2, cancel.getOnNext());
+		assertEquals(1, cancel.getUnboundedRequests());
+		assertEquals(1, cancel.getCancellations());
+		assertEquals(0, cancel.getCompletions());
+		assertEquals(1, PipelineMetrics.snapshot("error").getErrors());
+	}
+
+//========================================================================================
+
+	@Test
+	public void recordsTimeToFirstElement() {
+		Flux<User> flux = repository.findAll().name("findAll");
+		StepVerifier.create(flux)
+				.expectNextCount(4)
+				.verifyComplete();
+		StepVerifier.create(flux)
+				.expectNextCount(4)
+				.verifyComplete();
+
+		PipelineSnapshot snapshot = PipelineMetrics.snapshot("findAll");
+		assertEquals(2, snapshot.getSubscriptions());
+		assertEquals(8, snapshot.getOnNext());
+		assertTrue(snapshot.getMeanTimeToFirstElement().compareTo(Duration.ofMillis(10)) >= 0);
+		assertTrue(snapshot.getMaxTimeToFirstElement().compareTo(snapshot.getMeanTimeToFirstElement()) >= 0);
+		assertTrue(snapshot.getOnNextRate() > 0);
+	}
+
+//========================================================================================
+
+	@Test
+	public void recordsSignalsSeenByTheFinalSubscriber() {
+		Flux<Integer> flux = Flux.range(1, 10).name("take").map(i -> i * 2);
+		StepVerifier.create(flux.take(2))
+				.expectNext(2, 4)
+				.verifyComplete();
+
+		PipelineSnapshot take = PipelineMetrics.snapshot("take");
+		assertEquals(2, take.getOnNext());
+		assertEquals(0, take.getCancellations());
+		assertEquals(1, take.getCompletions());
+	}
+
+//========================================================================================
+
+	@Test
+	public void resetKeepsCountingActiveSubscriptions() {
+		Flux<Integer> flux = Flux.range(1, 10).name("reset");
+		StepVerifier.create(flux, 0)
+				.thenRequest(3)
+				.expectNextCount(3)
+				.then(PipelineMetrics::reset)
+				.thenRequest(7)
+				.expectNextCount(7)
+				.verifyComplete();
+
+		PipelineSnapshot snapshot = PipelineMetrics.snapshot("reset");
+		assertEquals(0, snapshot.getSubscriptions());
+		assertEquals(7, snapshot.getOnNext());
+		assertEquals(7, snapshot.getRequested());
+		assertEquals(1, snapshot.getCompletions());
+
+		PipelineMetrics.reset();
+		assertNull(PipelineMetrics.snapshot("reset"));
+	}
+
+//========================================================================================
+
+	@Test
+	public void ignoresUnnamedPipelines() {
+		StepVerifier.create(Flux.range(1, 3).map(i -> i * 2)).expectNextCount(3).verifyComplete();
+		PipelineMetrics.disable();
+		StepVerifier.create(Flux.range(1, 3).name("disabled")).expectNextCount(3).verifyComplete();
+
+		assertNull(PipelineMetrics.snapshot("disabled"));
+		assertTrue(PipelineMetrics.snapshot().isEmpty());
+	}
+
+}
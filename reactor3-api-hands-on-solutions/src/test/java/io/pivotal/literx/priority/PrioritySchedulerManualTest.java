@@ -0,0 +1,72 @@
+package io.pivotal.literx.priority;
+
+import java.util.Arrays;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+/**
+ * Latency of {@code findById} while exports run concurrently on the same two threads, with the
+ * exports labelled as bulk work or not.
+ */
+public class PrioritySchedulerManualTest {
+
+	private static final int USERS = 2_000;
+
+	private static final int EXPORTS = 4;
+
+	private static final int LOOKUPS = 500;
+
+	private static volatile long sink;
+
+	@Test
+	public void lookupLatencyDuringExports() throws InterruptedException {
+		User[] users = new User[USERS];
+		for (int i = 0; i < USERS; i++) {
+			users[i] = new User("user" + i, "First" + i, "Last" + i);
+		}
+		run("unlabelled exports", users, Context.empty());
+		run("bulk exports", users, Priority.BULK.asContext());
+	}
+
+	private static void run(String name, User[] users, Context exportContext) throws InterruptedException {
+		PriorityScheduler scheduler = PriorityScheduler.create("priority", 2, 0.1);
+		ReactiveUserRepository repository = new ReactiveUserRepository(1, users);
+		repository.enablePriorityScheduling(scheduler);
+
+		Disposable exports = Flux.range(0, EXPORTS)
+				.flatMap(i -> repository.findAll()
+						.map(PrioritySchedulerManualTest::export)
+						.repeat()
+						.subscriberContext(exportContext))
+				.subscribe();
+		Thread.sleep(500);
+
+		long[] latencies = new long[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			long start = System.nanoTime();
+			repository.findById("user" + i).block();
+			latencies[i] = System.nanoTime() - start;
+		}
+		exports.dispose();
+		scheduler.dispose();
+
+		Arrays.sort(latencies);
+		System.out.printf("%-20s findById p50 %6.2f ms  p99 %6.2f ms  bulk tasks %,d%n", name,
+				latencies[LOOKUPS / 2] / 1e6, latencies[LOOKUPS * 99 / 100] / 1e6,
+				scheduler.getExecutedTasks(Priority.BULK));
+	}
+
+	private static long export(User user) {
+		long hash = user.hashCode();
+		for (int i = 0; i < 200_000; i++) {
+			hash = hash * 31 + i;
+		}
+		sink = hash;
+		return hash;
+	}
+}
@@ -0,0 +1,182 @@
+package io.pivotal.literx.priority;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrioritySchedulerTest {
+
+	PriorityScheduler scheduler = PriorityScheduler.create("priority", 1, 0.25);
+
+	@After
+	public void dispose() {
+		scheduler.dispose();
+	}
+
+//========================================================================================
+
+	@Test
+	public void priorityComesFromTheContext() {
+		assertEquals(Priority.INTERACTIVE, Priority.of(Context.empty()));
+		StepVerifier.create(Mono.subscriberContext().map(Priority::of)
+				.subscriberContext(Priority.BULK.asContext()))
+				.expectNext(Priority.BULK)
+				.verifyComplete();
+	}
+
+	@Test
+	public void interactiveTasksRunFirstWithinTheBulkShare() throws InterruptedException {
+		List<String> order = new CopyOnWriteArrayList<>();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(8);
+		scheduler.forPriority(Priority.BULK).schedule(() -> {
+			started.countDown();
+			await(release);
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < 2; i++) {
+			String name = "B" + i;
+			scheduler.forPriority(Priority.BULK).schedule(() -> {
+				order.add(name);
+				done.countDown();
+			});
+		}
+		for (int i = 0; i < 6; i++) {
+			String name = "I" + i;
+			scheduler.forPriority(Priority.INTERACTIVE).schedule(() -> {
+				order.add(name);
+				done.countDown();
+			});
+		}
+		release.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		// a share of 0.25 lets one bulk task through every three interactive ones
+		assertEquals("[I0, I1, I2, B0, I3, I4, I5, B1]", order.toString());
+	}
+
+	@Test
+	public void workersAndTimersKeepTheirPriority() {
+		Scheduler bulk = scheduler.forPriority(Priority.BULK);
+
+		StepVerifier.create(Flux.interval(Duration.ofMillis(5), bulk).take(3).publishOn(bulk))
+				.expectNext(0L, 1L, 2L)
+				.verifyComplete();
+		assertEquals(0, scheduler.getExecutedTasks(Priority.INTERACTIVE));
+		assertTrue(scheduler.getExecutedTasks(Priority.BULK) >= 3);
+	}
+
+	@Test
+	public void periodicRunsNeverOverlap() throws InterruptedException {
+		PriorityScheduler pool = PriorityScheduler.create("pool", 4, 0.25);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger overlaps = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(10);
+		try {
+			// every run outlasts many periods, leaving the next ones due while it runs
+			Disposable task = pool.forPriority(Priority.BULK).schedulePeriodically(() -> {
+				if (running.incrementAndGet() > 1) {
+					overlaps.incrementAndGet();
+				}
+				try {
+					Thread.sleep(10);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				done.countDown();
+			}, 0, 1, TimeUnit.MILLISECONDS);
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			task.dispose();
+		}
+		finally {
+			pool.dispose();
+		}
+		assertEquals(0, overlaps.get());
+	}
+
+	@Test
+	public void periodicRunsOfAWorkerDoNotPileUp() throws InterruptedException {
+		PriorityScheduler pool = PriorityScheduler.create("pool", 2, 0.25);
+		Scheduler.Worker worker = pool.forPriority(Priority.BULK).createWorker();
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger overlaps = new AtomicInteger();
+		CountDownLatch next = new CountDownLatch(1);
+		try {
+			worker.schedulePeriodically(() -> {
+				if (running.incrementAndGet() > 1) {
+					overlaps.incrementAndGet();
+				}
+				try {
+					Thread.sleep(20);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+			}, 0, 1, TimeUnit.MILLISECONDS);
+			Thread.sleep(200);
+			// queued behind at most one periodic run, not one per period elapsed
+			worker.schedule(next::countDown);
+			assertTrue(next.await(500, TimeUnit.MILLISECONDS));
+		}
+		finally {
+			worker.dispose();
+			pool.dispose();
+		}
+		assertEquals(0, overlaps.get());
+	}
+
+//========================================================================================
+
+	@Test
+	public void repositoryUsesThePriorityOfTheCaller() {
+		ReactiveUserRepository repository = new ReactiveUserRepository(5);
+		repository.enablePriorityScheduling(scheduler);
+
+		StepVerifier.create(repository.findAll().subscriberContext(Priority.BULK.asContext()))
+				.expectNextCount(4)
+				.verifyComplete();
+		assertEquals(0, scheduler.getExecutedTasks(Priority.INTERACTIVE));
+
+		StepVerifier.create(repository.findById("jpinkman"))
+				.expectNext(User.JESSE)
+				.verifyComplete();
+		assertEquals(1, scheduler.getExecutedTasks(Priority.INTERACTIVE));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void bulkShareMustLeaveRoomForInteractiveWork() {
+		PriorityScheduler.create("priority", 1, 0.9);
+	}
+
+//========================================================================================
+
+	static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package io.pivotal.literx.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * 16 threads sharing one {@link TokenBucket}, against the same bucket behind a lock, then 16
+ * pipelines sharing one {@link RateLimit}.
+ */
+public class RateLimitManualTest {
+
+	private static final int THREADS = 16;
+
+	private static final long RATE = 2_000_000;
+
+	private static final int BURST = 1_000;
+
+	private static final long MILLIS = 2_000;
+
+	@Test
+	public void contention() throws InterruptedException {
+		for (int round = 0; round < 2; round++) {
+			TokenBucket bucket = TokenBucket.create(RATE, BURST);
+			contend("lock-free", bucket::tryAcquire);
+			LockedBucket locked = new LockedBucket(RATE, BURST);
+			contend("locked", locked::tryAcquire);
+		}
+	}
+
+	@Test
+	public void pipelines() throws InterruptedException {
+		TokenBucket bucket = TokenBucket.create(RATE, BURST);
+		LongAdder received = new LongAdder();
+		CountDownLatch done = new CountDownLatch(THREADS);
+		for (int i = 0; i < THREADS; i++) {
+			Flux.range(0, Integer.MAX_VALUE)
+					.transform(RateLimit.limit(bucket))
+					.take(Duration.ofMillis(MILLIS))
+					.doFinally(signal -> done.countDown())
+					.subscribe(value -> received.increment());
+		}
+		done.await();
+		report("pipelines", received.sum(), TimeUnit.MILLISECONDS.toNanos(MILLIS), 0);
+	}
+
+	private static void contend(String name, IntPredicate tryAcquire) throws InterruptedException {
+		LongAdder acquired = new LongAdder();
+		LongAdder attempts = new LongAdder();
+		long start = System.nanoTime();
+		long end = start + TimeUnit.MILLISECONDS.toNanos(MILLIS);
+		Thread[] threads = new Thread[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			threads[i] = new Thread(() -> {
+				long mine = 0;
+				long tries = 0;
+				while (System.nanoTime() < end) {
+					tries++;
+					if (tryAcquire.test(1)) {
+						mine++;
+					}
+				}
+				acquired.add(mine);
+				attempts.add(tries);
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		// threads still running past the end no longer acquire anything
+		report(name, acquired.sum(), end - start, attempts.sum());
+	}
+
+	private static void report(String name, long permits, long nanos, long attempts) {
+		double expected = RATE * nanos / 1e9 + BURST;
+		System.out.printf("%-10s %,12d permits/s  accuracy %6.2f%%  %,14d attempts/s%n", name,
+				permits * 1_000_000_000L / nanos, 100.0 * permits / expected,
+				attempts * 1_000_000_000L / nanos);
+	}
+
+	/**
+	 * The same algorithm under a lock, for comparison.
+	 */
+	private static final class LockedBucket {
+
+		private final long interval;
+
+		private final long tolerance;
+
+		private long arrival = System.nanoTime();
+
+		LockedBucket(long permitsPerSecond, int burst) {
+			this.interval = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+			this.tolerance = burst * interval;
+		}
+
+		synchronized boolean tryAcquire(int permits) {
+			long now = System.nanoTime();
+			long next = Math.max(arrival, now) + permits * interval;
+			if (next - tolerance > now) {
+				return false;
+			}
+			arrival = next;
+			return true;
+		}
+	}
+}
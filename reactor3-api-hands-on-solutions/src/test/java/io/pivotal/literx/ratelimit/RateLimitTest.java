@@ -0,0 +1,131 @@
+package io.pivotal.literx.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimitTest {
+
+	AtomicLong clock = new AtomicLong();
+
+//========================================================================================
+
+	@Test
+	public void bucketStartsFullAndRefills() {
+		TokenBucket bucket = TokenBucket.create(10, 2, clock::get);
+
+		assertTrue(bucket.tryAcquire(2));
+		assertFalse(bucket.tryAcquire(1));
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+		assertTrue(bucket.tryAcquire(1));
+		assertFalse(bucket.tryAcquire(1));
+	}
+
+	@Test
+	public void reservationsAreServedInOrder() {
+		TokenBucket bucket = TokenBucket.create(10, 2, clock::get);
+
+		assertEquals(0, bucket.reserve(2));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.reserve(1));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(300), bucket.reserve(2));
+	}
+
+	@Test
+	public void ratesThatDoNotDivideASecondAddUp() {
+		TokenBucket bucket = TokenBucket.create(3_000_000, 2, clock::get);
+
+		long acquired = 0;
+		for (long nanos = 0; nanos < 1_000_000; nanos++) {
+			clock.set(nanos);
+			while (bucket.tryAcquire(1)) {
+				acquired++;
+			}
+		}
+		// the burst, then one every 333.33ns, give or take the one due at the very end
+		assertTrue("acquired " + acquired, Math.abs(acquired - 3_001) <= 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void burstMustBePositive() {
+		TokenBucket.create(10, 0);
+	}
+
+//========================================================================================
+
+	@Test
+	public void demandIsDelayedNotDropped() {
+		StepVerifier.withVirtualTime(() -> Flux.range(0, 10)
+				.transform(RateLimit.limit(virtualBucket(10, 4))))
+				.expectNext(0, 1, 2, 3)
+				.expectNoEvent(Duration.ofMillis(99))
+				.thenAwait(Duration.ofMillis(1))
+				.expectNext(4)
+				.thenAwait(Duration.ofMillis(500))
+				.expectNext(5, 6, 7, 8, 9)
+				.verifyComplete();
+	}
+
+	@Test
+	public void pipelinesShareTheBucket() {
+		StepVerifier.withVirtualTime(() -> {
+			TokenBucket bucket = virtualBucket(10, 1);
+			return Flux.merge(
+					Flux.range(0, 10).transform(RateLimit.limit(bucket)),
+					Flux.range(10, 10).transform(RateLimit.limit(bucket)));
+		})
+				.thenAwait(Duration.ofMillis(950))
+				.expectNextCount(10)
+				.expectNoEvent(Duration.ofMillis(40))
+				.thenAwait(Duration.ofSeconds(2))
+				.expectNextCount(10)
+				.verifyComplete();
+	}
+
+	@Test
+	public void requestsNoMoreThanTheSubscriber() {
+		AtomicLong requested = new AtomicLong();
+
+		StepVerifier.create(Flux.range(0, 100)
+				.doOnRequest(requested::addAndGet)
+				.transform(RateLimit.limit(TokenBucket.create(1_000, 100))), 3)
+				.expectNextCount(3)
+				.thenCancel()
+				.verify();
+		assertEquals(3, requested.get());
+	}
+
+//========================================================================================
+
+	@Test
+	public void repositoryLimitsSaves() {
+		ReactiveUserRepository repository = new ReactiveUserRepository(0);
+
+		StepVerifier.withVirtualTime(() -> {
+			repository.enableSaveRateLimit(virtualBucket(10, 1));
+			return repository.save(Flux.just(User.SKYLER, User.JESSE, User.WALTER, User.SAUL));
+		})
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(299))
+				.thenAwait(Duration.ofMillis(1))
+				.verifyComplete();
+		StepVerifier.create(repository.findAll())
+				.expectNextCount(8)
+				.verifyComplete();
+	}
+
+	private static TokenBucket virtualBucket(long permitsPerSecond, int burst) {
+		return TokenBucket.create(permitsPerSecond, burst,
+				() -> Schedulers.parallel().now(TimeUnit.NANOSECONDS));
+	}
+}
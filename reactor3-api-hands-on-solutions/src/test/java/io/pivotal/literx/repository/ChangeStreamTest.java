@@ -0,0 +1,121 @@
+package io.pivotal.literx.repository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.pivotal.literx.domain.User;
+import org.junit.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeStreamTest {
+
+	ReactiveUserRepository repository = new ReactiveUserRepository(0);
+
+//========================================================================================
+
+	@Test
+	public void onlyChangesAfterSubscription() {
+		repository.save(Flux.just(user(1))).block();
+
+		StepVerifier.create(repository.watch())
+				.then(() -> repository.save(Flux.just(user(2), user(3))).block())
+				.expectNext(user(2), user(3))
+				.thenCancel()
+				.verify();
+	}
+
+//========================================================================================
+
+	@Test
+	public void everyWatcherGetsEveryChange() {
+		Flux<String> first = repository.watch().map(User::getUsername).take(3);
+		Flux<String> second = repository.watch().map(User::getUsername).take(3);
+
+		StepVerifier.create(Flux.zip(first, second, (a, b) -> a + "/" + b))
+				.then(() -> repository.save(Flux.range(1, 3).map(ChangeStreamTest::user)).block())
+				.expectNext("user1/user1", "user2/user2", "user3/user3")
+				.verifyComplete();
+	}
+
+//========================================================================================
+
+	@Test
+	public void dropOldestKeepsTheMostRecentChanges() {
+		StepVerifier.create(repository.watch(3, OverflowPolicy.DROP_OLDEST).map(User::getUsername), 0)
+				.then(() -> repository.save(Flux.range(1, 10).map(ChangeStreamTest::user)).block())
+				.then(() -> assertEquals(6, stats().getDropped()))
+				.thenRequest(Long.MAX_VALUE)
+				// user1 was already handed over to the delivery scheduler
+				.expectNext("user1", "user8", "user9", "user10")
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	public void keepLatestSkipsToTheLastChange() {
+		StepVerifier.create(repository.watch(100, OverflowPolicy.KEEP_LATEST).map(User::getUsername), 0)
+				.then(() -> repository.save(Flux.range(1, 10).map(ChangeStreamTest::user)).block())
+				.thenRequest(Long.MAX_VALUE)
+				.expectNext("user1", "user10")
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	public void errorTerminatesTheSlowWatcherOnly() throws Exception {
+		CompletableFuture<List<User>> fast = repository.watch().take(6).collectList().toFuture();
+
+		StepVerifier.create(repository.watch(2, OverflowPolicy.ERROR), 0)
+				.then(() -> repository.save(Flux.range(1, 5).map(ChangeStreamTest::user)).block())
+				.verifyErrorMatches(Exceptions::isOverflow);
+		assertEquals(1, repository.getWatcherStats().size());
+
+		repository.save(Flux.just(user(6))).block();
+		assertEquals(6, fast.get(5, TimeUnit.SECONDS).size());
+	}
+
+//========================================================================================
+
+	@Test
+	public void statsReportLagPerWatcher() {
+		StepVerifier.create(repository.watch(10, OverflowPolicy.DROP_OLDEST), 0)
+				.then(() -> repository.save(Flux.range(1, 5).map(ChangeStreamTest::user)).block())
+				.then(() -> {
+					WatcherStats stats = stats();
+					assertEquals(OverflowPolicy.DROP_OLDEST, stats.getPolicy());
+					assertEquals(5, stats.getPublished());
+					assertEquals(0, stats.getDelivered());
+					assertEquals(5, stats.getLag());
+				})
+				.thenRequest(2)
+				.expectNextCount(2)
+				.then(() -> assertEquals(3, stats().getLag()))
+				.thenCancel()
+				.verify();
+
+		assertTrue(repository.getWatcherStats().isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsEmptyBuffer() {
+		repository.watch(0, OverflowPolicy.ERROR);
+	}
+
+//========================================================================================
+
+	WatcherStats stats() {
+		List<WatcherStats> stats = repository.getWatcherStats();
+		assertEquals(1, stats.size());
+		return stats.get(0);
+	}
+
+	static User user(int i) {
+		return new User("user" + i, "first" + i, "last" + i);
+	}
+}
@@ -0,0 +1,48 @@
+package io.pivotal.literx.repository;
+
+import java.time.Duration;
+
+import io.pivotal.literx.domain.User;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Backend scans of {@link ReactiveUserRepository#findAll()} under bursts of concurrent readers,
+ * with and without scan sharing.
+ */
+public class SharedScanManualTest {
+
+	private static final int USERS = 50;
+
+	private static final int READERS = 200;
+
+	private static final int BURSTS = 10;
+
+	@Test
+	public void concurrentReads() {
+		User[] users = new User[USERS];
+		for (int i = 0; i < USERS; i++) {
+			users[i] = new User("user" + i, "First" + i, "Last" + i);
+		}
+		ReactiveUserRepository repository = new ReactiveUserRepository(1, users);
+
+		run("separate scans", repository);
+		repository.enableScanSharing(Duration.ofMillis(20));
+		run("shared scans", repository);
+	}
+
+	private static void run(String name, ReactiveUserRepository repository) {
+		long scans = repository.getScanCount();
+		long start = System.nanoTime();
+		Long read = Flux.range(0, BURSTS)
+				.concatMap(burst -> Flux.range(0, READERS)
+						.flatMap(reader -> repository.findAll().count(), READERS)
+						.reduce(0L, Long::sum))
+				.reduce(0L, Long::sum)
+				.block();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		scans = repository.getScanCount() - scans;
+		System.out.printf("%-15s %,8d users read %6d scans %8.1f scans/s %6.2f s%n",
+				name, read, scans, scans / seconds, seconds);
+	}
+}
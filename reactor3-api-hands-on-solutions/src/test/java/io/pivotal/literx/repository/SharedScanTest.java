@@ -0,0 +1,194 @@
+package io.pivotal.literx.repository;
+
+import java.time.Duration;
+
+import io.pivotal.literx.deadline.Deadline;
+import io.pivotal.literx.deadline.DeadlineExceededException;
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.priority.Priority;
+import io.pivotal.literx.priority.PriorityScheduler;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SharedScanTest {
+
+	ReactiveUserRepository repository = new ReactiveUserRepository(20);
+
+//========================================================================================
+
+	@Test
+	public void concurrentSubscribersScanSeparatelyByDefault() {
+		StepVerifier.create(Flux.zip(repository.findAll(), repository.findAll()))
+				.expectNextCount(4)
+				.verifyComplete();
+		assertEquals(2, repository.getScanCount());
+	}
+
+	@Test
+	public void concurrentSubscribersShareOneScan() {
+		repository.enableScanSharing(Duration.ofSeconds(1));
+
+		StepVerifier.create(Flux.zip(repository.findAll(), repository.findAll(), repository.findAll()))
+				.expectNextCount(4)
+				.verifyComplete();
+		assertEquals(1, repository.getScanCount());
+	}
+
+//========================================================================================
+
+	@Test
+	public void lateJoinerCatchesUp() {
+		repository.enableScanSharing(Duration.ofSeconds(1));
+
+		StepVerifier.create(repository.findAll())
+				.expectNext(User.SKYLER, User.JESSE)
+				.then(() -> StepVerifier.create(repository.findAll())
+						.expectNext(User.SKYLER, User.JESSE, User.WALTER, User.SAUL)
+						.verifyComplete())
+				.expectNext(User.WALTER, User.SAUL)
+				.verifyComplete();
+		assertEquals(1, repository.getScanCount());
+	}
+
+	@Test
+	public void eachSubscriberKeepsItsOwnBackpressure() {
+		repository.enableScanSharing(Duration.ofSeconds(1));
+
+		StepVerifier.create(repository.findAll(), 1)
+				.expectNext(User.SKYLER)
+				.then(() -> StepVerifier.create(repository.findAll())
+						.expectNextCount(4)
+						.verifyComplete())
+				.expectNoEvent(Duration.ofMillis(50))
+				.thenRequest(3)
+				.expectNext(User.JESSE, User.WALTER, User.SAUL)
+				.verifyComplete();
+	}
+
+//========================================================================================
+
+	@Test
+	public void completedScanIsNotShared() {
+		repository.enableScanSharing(Duration.ofSeconds(1));
+
+		repository.findAll().blockLast();
+		repository.findAll().blockLast();
+		assertEquals(2, repository.getScanCount());
+	}
+
+	@Test
+	public void scanOlderThanTheWindowIsNotShared() {
+		repository.enableScanSharing(Duration.ofMillis(30));
+
+		StepVerifier.create(repository.findAll())
+				.expectNext(User.SKYLER, User.JESSE)
+				.then(() -> StepVerifier.create(repository.findAll())
+						.expectNextCount(4)
+						.verifyComplete())
+				.expectNextCount(2)
+				.verifyComplete();
+		assertEquals(2, repository.getScanCount());
+	}
+
+	@Test
+	public void scanIsCancelledWithItsLastSubscriber() throws InterruptedException {
+		PriorityScheduler scheduler = PriorityScheduler.create("priority", 1, 0.25);
+		try {
+			repository.enablePriorityScheduling(scheduler);
+			repository.enableScanSharing(Duration.ofSeconds(1));
+
+			StepVerifier.create(repository.findAll().take(1))
+					.expectNext(User.SKYLER)
+					.verifyComplete();
+			long executed = scheduler.getExecutedTasks(Priority.INTERACTIVE);
+			// long enough for the delays of the three users nobody waits for
+			Thread.sleep(100);
+			assertEquals(executed, scheduler.getExecutedTasks(Priority.INTERACTIVE));
+
+			StepVerifier.create(repository.findAll())
+					.expectNextCount(4)
+					.verifyComplete();
+			assertEquals(2, repository.getScanCount());
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+//========================================================================================
+
+	@Test
+	public void joinerIsNotFailedByTheDeadlineOfTheFirstSubscriber() {
+		ReactiveUserRepository repository = new ReactiveUserRepository(100);
+		repository.enableScanSharing(Duration.ofSeconds(1));
+
+		// time for the first user only
+		StepVerifier.create(Flux.defer(() -> repository.findAll()
+				.subscriberContext(Deadline.after(Duration.ofMillis(150)).asContext())))
+				.expectNext(User.SKYLER)
+				.then(() -> StepVerifier.create(repository.findAll())
+						.expectNext(User.SKYLER, User.JESSE, User.WALTER, User.SAUL)
+						.verifyComplete())
+				.verifyError(DeadlineExceededException.class);
+		assertEquals(1, repository.getScanCount());
+	}
+
+	@Test
+	public void joinerDeadlineIsChecked() {
+		repository.enableScanSharing(Duration.ofSeconds(1));
+
+		StepVerifier.create(repository.findAll())
+				.expectNext(User.SKYLER)
+				.then(() -> StepVerifier.create(repository.findAll()
+						.subscriberContext(Deadline.after(Duration.ofMillis(-1)).asContext()))
+						.verifyError(DeadlineExceededException.class))
+				.expectNext(User.JESSE, User.WALTER, User.SAUL)
+				.verifyComplete();
+		assertEquals(1, repository.getScanCount());
+		assertEquals(1, repository.getDeadlineDrops());
+	}
+
+	@Test
+	public void joinerKeepsItsPriority() {
+		PriorityScheduler scheduler = PriorityScheduler.create("priority", 1, 0.25);
+		try {
+			repository.enablePriorityScheduling(scheduler);
+			repository.enableScanSharing(Duration.ofSeconds(1));
+
+			StepVerifier.create(repository.findAll())
+					.expectNext(User.SKYLER)
+					.then(() -> StepVerifier.create(repository.findAll()
+							.subscriberContext(Priority.BULK.asContext()))
+							.expectNextCount(4)
+							.verifyComplete())
+					.expectNextCount(3)
+					.verifyComplete();
+			assertEquals(1, repository.getScanCount());
+			assertTrue(scheduler.getExecutedTasks(Priority.BULK) > 0);
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+//========================================================================================
+
+	@Test
+	public void scanWhileSaving() throws InterruptedException {
+		ReactiveUserRepository repository = new ReactiveUserRepository(0);
+		Thread saver = new Thread(() -> repository.save(Flux.range(0, 200_000)
+				.map(i -> new User("user" + i, "First", "Last"))).block());
+		saver.start();
+		while (saver.isAlive()) {
+			// each scan sees the users saved before it started, and no more
+			long count = repository.findAll().count().block();
+			assertEquals(true, count >= 4 && count <= 200_004);
+		}
+		saver.join();
+		assertEquals(200_004L, (long) repository.findAll().count().block());
+	}
+}
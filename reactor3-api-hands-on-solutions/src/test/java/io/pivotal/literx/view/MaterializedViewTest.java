@@ -0,0 +1,136 @@
+package io.pivotal.literx.view;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.pivotal.literx.domain.User;
+import io.pivotal.literx.repository.ReactiveUserRepository;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.assertEquals;
+
+public class MaterializedViewTest {
+
+	ReactiveUserRepository repository = new ReactiveUserRepository(0);
+
+//========================================================================================
+
+	@Test
+	public void countByKeyStartsFromExistingUsers() {
+		CountByKeyView<User> byLastname = repository.materialize(new CountByKeyView<>(User::getLastname));
+
+		assertEquals(2, byLastname.getCount("White"));
+		assertEquals(1, byLastname.getCount("Pinkman"));
+		assertEquals(0, byLastname.getCount("Ehrmantraut"));
+	}
+
+	@Test
+	public void countByKeyEmitsOnlyTheChangedKey() {
+		CountByKeyView<User> byLastname = repository.materialize(new CountByKeyView<>(User::getLastname));
+
+		StepVerifier.create(byLastname.changes())
+				.expectNext(new KeyCount("Goodman", 1))
+				.then(() -> save(user("mike", "Mike", "Ehrmantraut"), user("flynn", "Walter", "White")))
+				.expectNext(new KeyCount("Ehrmantraut", 1), new KeyCount("White", 3))
+				.thenCancel()
+				.verify();
+		assertEquals(3, byLastname.getCount("White"));
+	}
+
+	@Test
+	public void usersWithoutTheKeyAreNotCounted() {
+		CountByKeyView<User> byLastname = repository.materialize(new CountByKeyView<>(User::getLastname));
+		TopKView<User> top = repository.materialize(new TopKView<>(User::getLastname, 1));
+		save(user("anon", null, null));
+
+		assertEquals(0, byLastname.getCount(null));
+		assertEquals(3, byLastname.getCounts().size());
+		assertEquals(Collections.singletonList(new KeyCount("White", 2)), top.getTop());
+		StepVerifier.create(repository.findById("anon"))
+				.expectNextCount(1)
+				.verifyComplete();
+	}
+
+	@Test
+	public void changesAreEmittedOutsideTheRepositoryLock() {
+		CountByKeyView<User> byLastname = repository.materialize(new CountByKeyView<>(User::getLastname));
+		List<String> seen = new ArrayList<>();
+		byLastname.changes()
+				.filter(change -> change.getKey().equals("Ehrmantraut"))
+				// a subscriber calling back into the repository from another thread
+				.subscribe(change -> seen.add(Mono.defer(() -> repository.findById("swhite"))
+						.subscribeOn(Schedulers.single())
+						.block(Duration.ofSeconds(1))
+						.getLastname()));
+
+		save(user("mike", "Mike", "Ehrmantraut"));
+		assertEquals(Collections.singletonList("White"), seen);
+	}
+
+//========================================================================================
+
+	@Test
+	public void topKOnlyEmitsWhenTheRankingChanges() {
+		TopKView<User> topFirstnames = repository.materialize(new TopKView<>(User::getFirstname, 2));
+
+		StepVerifier.create(topFirstnames.changes().map(MaterializedViewTest::keys))
+				.expectNext(Arrays.asList("Jesse", "Saul"))
+				// ties are ranked by name
+				.then(() -> save(user("s2", "Skyler", "X")))
+				.expectNext(Arrays.asList("Skyler", "Jesse"))
+				.then(() -> save(user("w2", "Zed", "X")))
+				.expectNoEvent(Duration.ofMillis(50))
+				.then(() -> save(user("w3", "Walter", "X")))
+				.expectNext(Arrays.asList("Skyler", "Walter"))
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	public void topKHandlesMoreKeysThanK() {
+		TopKView<User> top = repository.materialize(new TopKView<>(User::getLastname, 1));
+		save(user("a", "A", "Pinkman"), user("b", "B", "Pinkman"));
+
+		assertEquals(Collections.singletonList(new KeyCount("Pinkman", 3)), top.getTop());
+	}
+
+//========================================================================================
+
+	@Test
+	public void viewsCombineLikeAnyFlux() {
+		CountByKeyView<User> byLastname = repository.materialize(new CountByKeyView<>(User::getLastname));
+		TopKView<User> topFirstnames = repository.materialize(new TopKView<>(User::getFirstname, 1));
+
+		Flux<String> dashboard = Flux.combineLatest(byLastname.changes(), topFirstnames.changes(),
+				(last, top) -> last + " " + top);
+
+		StepVerifier.create(dashboard)
+				.expectNext("Goodman=1 [Jesse=1]")
+				.then(() -> save(user("j2", "Jesse", "James")))
+				.expectNext("James=1 [Jesse=1]", "James=1 [Jesse=2]")
+				.thenCancel()
+				.verify();
+	}
+
+//========================================================================================
+
+	void save(User... users) {
+		repository.save(Flux.just(users)).block();
+	}
+
+	static User user(String username, String firstname, String lastname) {
+		return new User(username, firstname, lastname);
+	}
+
+	static List<String> keys(List<KeyCount> ranking) {
+		return ranking.stream().map(KeyCount::getKey).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,69 @@
+package reactor3.by.simonbasle.cardinality;
+
+import java.util.function.Function;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.ParallelFlux;
+
+/**
+ * Approximate {@code distinct().count()} in fixed memory, backed by a {@link HyperLogLog} per
+ * subscription:
+ *
+ * <pre>
+ * Mono&lt;Long&gt; letters = words.flatMap(w -&gt; Flux.fromArray(w.split("")))
+ *     .as(DistinctCount.estimate(DistinctCount.DEFAULT_PRECISION));
+ * </pre>
+ */
+public final class DistinctCount {
+
+  public static final int DEFAULT_PRECISION = 14;
+
+  private DistinctCount() {}
+
+  /** The sketch of all the values, once the source completes. */
+  public static <T> Function<Flux<T>, Mono<HyperLogLog>> sketch(int precision) {
+    HyperLogLog.checkPrecision(precision);
+    return flux -> flux.reduceWith(() -> new HyperLogLog(precision), HyperLogLog::offer);
+  }
+
+  /** The estimated number of distinct values, once the source completes. */
+  public static <T> Function<Flux<T>, Mono<Long>> estimate(int precision) {
+    Function<Flux<T>, Mono<HyperLogLog>> sketch = sketch(precision);
+    return flux -> sketch.apply(flux).map(HyperLogLog::estimate);
+  }
+
+  /**
+   * The running estimate every {@code every} values, and once more on completion if values came
+   * in since the last one.
+   */
+  public static <T> Function<Flux<T>, Flux<Long>> running(int precision, long every) {
+    HyperLogLog.checkPrecision(precision);
+    if (every <= 0) {
+      throw new IllegalArgumentException("every > 0 required but it was " + every);
+    }
+    return flux ->
+        Flux.defer(
+            () -> {
+              HyperLogLog sketch = new HyperLogLog(precision);
+              long[] seen = new long[1];
+              return flux.<Long>handle(
+                      (value, sink) -> {
+                        sketch.offer(value);
+                        if (++seen[0] % every == 0) {
+                          sink.next(sketch.estimate());
+                        }
+                      })
+                  .concatWith(
+                      Mono.fromSupplier(sketch::estimate).filter(e -> seen[0] % every != 0));
+            });
+  }
+
+  /** Each rail fills its own sketch, the sketches are merged once all rails complete. */
+  public static <T> Mono<HyperLogLog> sketch(ParallelFlux<T> rails, int precision) {
+    HyperLogLog.checkPrecision(precision);
+    return rails
+        .reduce(() -> new HyperLogLog(precision), HyperLogLog::offer)
+        .reduce(HyperLogLog::merge)
+        .switchIfEmpty(Mono.fromSupplier(() -> new HyperLogLog(precision)));
+  }
+}
@@ -0,0 +1,156 @@
+package reactor3.by.simonbasle.cardinality;
+
+/**
+ * HyperLogLog sketch: estimates the number of distinct values offered to it from {@code 2^p}
+ * one-byte registers, whatever that number is. The relative standard error is about {@code
+ * 1.04 / sqrt(2^p)}, e.g. 0.8% for the default precision of 14 (16 KB).
+ *
+ * <p>Values are hashed to 64 bits, the first {@code p} bits pick a register which keeps the
+ * longest run of leading zeros seen in the remaining bits. Small cardinalities are estimated
+ * with linear counting over the empty registers. Sketches of the same precision {@link #merge
+ * merge} into the sketch of the union, so parallel rails can each fill their own. Not
+ * thread-safe.
+ */
+public final class HyperLogLog {
+
+  public static final int MIN_PRECISION = 4;
+
+  public static final int MAX_PRECISION = 18;
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final int precision;
+
+  private final byte[] registers;
+
+  public HyperLogLog(int precision) {
+    this.precision = checkPrecision(precision);
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Offer a value: strings and other {@link CharSequence}s are hashed on their characters,
+   * integral numbers on their value, anything else on its {@code hashCode()}.
+   */
+  public HyperLogLog offer(Object value) {
+    return offerHash(hash(value));
+  }
+
+  /** Offer a value already hashed to 64 well-mixed bits. */
+  public HyperLogLog offerHash(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    // the guard bit bounds the rank to 64 - p + 1
+    int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    if (rank > registers[index]) {
+      registers[index] = (byte) rank;
+    }
+    return this;
+  }
+
+  public long estimate() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double estimate = alpha(m) * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  /** Fold the registers of {@code other} into this sketch, which then covers both. */
+  public HyperLogLog merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException(
+          "cannot merge precision " + other.precision + " into precision " + precision);
+    }
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+    return this;
+  }
+
+  public int precision() {
+    return precision;
+  }
+
+  public int sizeInBytes() {
+    return registers.length;
+  }
+
+  public double standardError() {
+    return 1.04 / Math.sqrt(registers.length);
+  }
+
+  static int checkPrecision(int precision) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException(
+          "precision between "
+              + MIN_PRECISION
+              + " and "
+              + MAX_PRECISION
+              + " required but it was "
+              + precision);
+    }
+    return precision;
+  }
+
+  static long hash(Object value) {
+    if (value instanceof CharSequence) {
+      CharSequence chars = (CharSequence) value;
+      long hash = FNV_OFFSET;
+      for (int i = 0; i < chars.length(); i++) {
+        hash = (hash ^ chars.charAt(i)) * FNV_PRIME;
+      }
+      return mix(hash);
+    }
+    if (value instanceof Long
+        || value instanceof Integer
+        || value instanceof Short
+        || value instanceof Byte) {
+      return mix(((Number) value).longValue());
+    }
+    if (value instanceof Character) {
+      return mix((Character) value);
+    }
+    return mix(value.hashCode());
+  }
+
+  /** MurmurHash3 finalizer, spreads every input bit over the 64 output bits. */
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private static double alpha(int m) {
+    switch (m) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "HyperLogLog{precision=" + precision + ", estimate=" + estimate() + '}';
+  }
+}
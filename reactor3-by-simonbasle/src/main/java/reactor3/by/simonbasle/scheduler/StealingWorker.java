@@ -0,0 +1,191 @@
+package reactor3.by.simonbasle.scheduler;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Worker of a {@link WorkStealingScheduler}: its tasks are queued and drained by one pool task at
+ * a time, so they never overlap and run in order, on whichever thread picks the drain up. The
+ * drain gives its thread back every {@link #BATCH} tasks, letting a long queue move to another
+ * thread.
+ */
+final class StealingWorker implements Scheduler.Worker, Runnable {
+
+  static final int BATCH = 64;
+
+  private final WorkStealingScheduler scheduler;
+
+  private final Queue<WorkerTask> queue = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger wip = new AtomicInteger();
+
+  private final Set<WorkerTask> timed = ConcurrentHashMap.newKeySet();
+
+  private volatile boolean disposed;
+
+  StealingWorker(WorkStealingScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public Disposable schedule(Runnable task) {
+    WorkerTask workerTask = new WorkerTask(task, false);
+    enqueue(workerTask);
+    return workerTask;
+  }
+
+  @Override
+  public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+    checkNotDisposed();
+    WorkerTask workerTask = new WorkerTask(task, false);
+    timed.add(workerTask);
+    workerTask.timer =
+        scheduler.delay(
+            () -> {
+              timed.remove(workerTask);
+              offer(workerTask);
+            },
+            delay,
+            unit);
+    return workerTask;
+  }
+
+  @Override
+  public Disposable schedulePeriodically(
+      Runnable task, long initialDelay, long period, TimeUnit unit) {
+    checkNotDisposed();
+    WorkerTask workerTask = new WorkerTask(task, true);
+    timed.add(workerTask);
+    workerTask.timer =
+        scheduler.repeat(
+            () -> {
+              if (workerTask.queued.compareAndSet(false, true)) {
+                offer(workerTask);
+              }
+            },
+            initialDelay,
+            period,
+            unit);
+    return workerTask;
+  }
+
+  private void enqueue(WorkerTask task) {
+    checkNotDisposed();
+    offer(task);
+  }
+
+  /** Called by the timer too, for which a disposed worker is not an error. */
+  private void offer(WorkerTask task) {
+    if (disposed) {
+      return;
+    }
+    queue.offer(task);
+    if (wip.getAndIncrement() == 0) {
+      scheduler.execute(this);
+    }
+  }
+
+  private void checkNotDisposed() {
+    if (disposed) {
+      throw Exceptions.failWithRejected();
+    }
+  }
+
+  @Override
+  public void run() {
+    int missed = 1;
+    int ran = 0;
+    for (; ; ) {
+      WorkerTask task;
+      while ((task = queue.poll()) != null) {
+        if (disposed) {
+          queue.clear();
+          return;
+        }
+        task.run();
+        if (++ran == BATCH) {
+          // resumes with the remaining tasks, possibly on another thread
+          scheduler.execute(this);
+          return;
+        }
+      }
+      missed = wip.addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void dispose() {
+    if (!disposed) {
+      disposed = true;
+      timed.forEach(WorkerTask::dispose);
+      timed.clear();
+      queue.clear();
+    }
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return disposed;
+  }
+
+  private static final class WorkerTask implements Runnable, Disposable {
+
+    final Runnable task;
+
+    final boolean periodic;
+
+    final AtomicBoolean disposed = new AtomicBoolean();
+
+    final AtomicBoolean queued = new AtomicBoolean();
+
+    volatile ScheduledFuture<?> timer;
+
+    WorkerTask(Runnable task, boolean periodic) {
+      this.task = task;
+      this.periodic = periodic;
+    }
+
+    @Override
+    public void run() {
+      if (disposed.get()) {
+        return;
+      }
+      try {
+        task.run();
+      } catch (Throwable e) {
+        WorkStealingScheduler.handleError(e);
+      } finally {
+        if (periodic) {
+          queued.set(false);
+        }
+      }
+    }
+
+    @Override
+    public void dispose() {
+      if (disposed.compareAndSet(false, true)) {
+        ScheduledFuture<?> timer = this.timer;
+        if (timer != null) {
+          timer.cancel(false);
+        }
+      }
+    }
+
+    @Override
+    public boolean isDisposed() {
+      return disposed.get();
+    }
+  }
+}
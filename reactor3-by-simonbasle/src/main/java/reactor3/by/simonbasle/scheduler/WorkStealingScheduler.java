@@ -0,0 +1,215 @@
+package reactor3.by.simonbasle.scheduler;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import reactor.core.Disposable;
+import reactor.core.scheduler.NonBlocking;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A {@link Scheduler} for CPU-bound stages backed by a {@link ForkJoinPool} in async mode, whose
+ * idle threads steal the tasks queued on busy ones:
+ *
+ * <pre>
+ * Scheduler cpu = WorkStealingScheduler.create("cpu");
+ * words.flatMap(w -&gt; Mono.fromCallable(() -&gt; analyze(w)).subscribeOn(cpu))
+ * </pre>
+ *
+ * <p>{@link Schedulers#parallel()} pins each worker to one of its threads in turn, so a worker
+ * landing on a thread stuck with expensive tasks waits even if the other threads are idle. Here a
+ * worker is not bound to any thread: its tasks still run one at a time and in order, but each
+ * batch of them can run on whichever thread is free. Tasks scheduled from a pool thread are
+ * queued on that thread first, and taken by other threads only when they run out of work.
+ *
+ * <p>The threads are {@link NonBlocking}, like the ones of {@code parallel()}. Delayed and
+ * periodic tasks are handed over to the pool by a single timer thread when they are due.
+ */
+public final class WorkStealingScheduler implements Scheduler {
+
+  private final ForkJoinPool pool;
+
+  private final ScheduledThreadPoolExecutor timer;
+
+  private WorkStealingScheduler(String name, int parallelism) {
+    AtomicLong threads = new AtomicLong();
+    this.pool =
+        new ForkJoinPool(
+            parallelism,
+            pool -> new StealingThread(pool, name + "-" + threads.incrementAndGet()),
+            null,
+            true);
+    this.timer =
+        new ScheduledThreadPoolExecutor(
+            1,
+            task -> {
+              Thread thread = new TimerThread(task, name + "-timer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.timer.setRemoveOnCancelPolicy(true);
+  }
+
+  /** A scheduler with one thread per available processor. */
+  public static WorkStealingScheduler create(String name) {
+    return create(name, Runtime.getRuntime().availableProcessors());
+  }
+
+  public static WorkStealingScheduler create(String name, int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+    }
+    return new WorkStealingScheduler(name, parallelism);
+  }
+
+  public int parallelism() {
+    return pool.getParallelism();
+  }
+
+  /** @return an estimate of the tasks stolen by idle threads so far */
+  public long stealCount() {
+    return pool.getStealCount();
+  }
+
+  @Override
+  public Disposable schedule(Runnable task) {
+    PoolTask poolTask = new PoolTask(task);
+    pool.execute(poolTask);
+    return poolTask;
+  }
+
+  @Override
+  public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+    PoolTask poolTask = new PoolTask(task);
+    poolTask.timer = timer.schedule(() -> pool.execute(poolTask), delay, unit);
+    return poolTask;
+  }
+
+  @Override
+  public Disposable schedulePeriodically(
+      Runnable task, long initialDelay, long period, TimeUnit unit) {
+    PeriodicTask periodicTask = new PeriodicTask(task);
+    periodicTask.timer =
+        timer.scheduleAtFixedRate(periodicTask::submit, initialDelay, period, unit);
+    return periodicTask;
+  }
+
+  @Override
+  public Worker createWorker() {
+    return new StealingWorker(this);
+  }
+
+  @Override
+  public void dispose() {
+    timer.shutdownNow();
+    pool.shutdownNow();
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return pool.isShutdown();
+  }
+
+  void execute(Runnable task) {
+    pool.execute(task);
+  }
+
+  ScheduledFuture<?> delay(Runnable task, long delay, TimeUnit unit) {
+    return timer.schedule(task, delay, unit);
+  }
+
+  ScheduledFuture<?> repeat(Runnable task, long initialDelay, long period, TimeUnit unit) {
+    return timer.scheduleAtFixedRate(task, initialDelay, period, unit);
+  }
+
+  static void handleError(Throwable e) {
+    Thread thread = Thread.currentThread();
+    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+  }
+
+  private static final class StealingThread extends ForkJoinWorkerThread implements NonBlocking {
+
+    StealingThread(ForkJoinPool pool, String name) {
+      super(pool);
+      setName(name);
+    }
+  }
+
+  private static final class TimerThread extends Thread implements NonBlocking {
+
+    TimerThread(Runnable task, String name) {
+      super(task, name);
+    }
+  }
+
+  /** A task scheduled directly on the scheduler. */
+  private static class PoolTask implements Runnable, Disposable {
+
+    final Runnable task;
+
+    final AtomicBoolean disposed = new AtomicBoolean();
+
+    volatile ScheduledFuture<?> timer;
+
+    PoolTask(Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      if (disposed.get()) {
+        return;
+      }
+      try {
+        task.run();
+      } catch (Throwable e) {
+        handleError(e);
+      }
+    }
+
+    @Override
+    public void dispose() {
+      if (disposed.compareAndSet(false, true)) {
+        ScheduledFuture<?> timer = this.timer;
+        if (timer != null) {
+          timer.cancel(false);
+        }
+      }
+    }
+
+    @Override
+    public boolean isDisposed() {
+      return disposed.get();
+    }
+  }
+
+  /** Submitted to the pool on each period, unless its previous run has not finished yet. */
+  private final class PeriodicTask extends PoolTask {
+
+    final AtomicBoolean running = new AtomicBoolean();
+
+    PeriodicTask(Runnable task) {
+      super(task);
+    }
+
+    void submit() {
+      if (running.compareAndSet(false, true)) {
+        pool.execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        super.run();
+      } finally {
+        running.set(false);
+      }
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package reactor3.by.simonbasle.sort;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.function.Function;
+import reactor.core.publisher.Flux;
+
+/**
+ * Bounded-memory alternative to {@link Flux#sort()}, to use with {@code transform}:
+ *
+ * <pre>
+ * words.transform(ExternalSort.naturalOrder(RunCodec.strings()).withBudget(100_000))
+ * </pre>
+ *
+ * <p>At most {@code budget} elements are held in memory. Each time the budget is reached, the
+ * buffered run is sorted and spilled to a temp file. When the source completes, the last run is
+ * sorted in memory and a k-way merge of all runs is streamed to the subscriber, on demand. If
+ * there are more runs than {@code maxFanIn}, they are first merged into fewer, longer runs. The
+ * temp files are deleted on completion, error or cancellation.
+ *
+ * <p>The sort is stable. Spilling and merging do blocking file I/O on the threads that
+ * respectively emit the elements and request them.
+ */
+public final class ExternalSort<T> implements Function<Flux<T>, Flux<T>> {
+
+  public static final int DEFAULT_BUDGET = 100_000;
+
+  public static final int DEFAULT_MAX_FAN_IN = 128;
+
+  private final Comparator<? super T> comparator;
+
+  private final RunCodec<T> codec;
+
+  private final int budget;
+
+  private final int maxFanIn;
+
+  private final Path directory;
+
+  private ExternalSort(
+      Comparator<? super T> comparator,
+      RunCodec<T> codec,
+      int budget,
+      int maxFanIn,
+      Path directory) {
+    if (budget <= 0) {
+      throw new IllegalArgumentException("budget > 0 required but it was " + budget);
+    }
+    if (maxFanIn < 2) {
+      throw new IllegalArgumentException("maxFanIn >= 2 required but it was " + maxFanIn);
+    }
+    this.comparator = comparator;
+    this.codec = codec;
+    this.budget = budget;
+    this.maxFanIn = maxFanIn;
+    this.directory = directory;
+  }
+
+  public static <T extends Comparable<? super T>> ExternalSort<T> naturalOrder(
+      RunCodec<T> codec) {
+    return by(Comparator.naturalOrder(), codec);
+  }
+
+  public static <T> ExternalSort<T> by(Comparator<? super T> comparator, RunCodec<T> codec) {
+    return new ExternalSort<>(
+        comparator,
+        codec,
+        DEFAULT_BUDGET,
+        DEFAULT_MAX_FAN_IN,
+        Paths.get(System.getProperty("java.io.tmpdir")));
+  }
+
+  /** @param budget the maximum number of elements held in memory */
+  public ExternalSort<T> withBudget(int budget) {
+    return new ExternalSort<>(comparator, codec, budget, maxFanIn, directory);
+  }
+
+  /** @param maxFanIn the maximum number of runs merged at once, i.e. of open spill files */
+  public ExternalSort<T> withMaxFanIn(int maxFanIn) {
+    return new ExternalSort<>(comparator, codec, budget, maxFanIn, directory);
+  }
+
+  /** @param directory where the runs are spilled */
+  public ExternalSort<T> withDirectory(Path directory) {
+    return new ExternalSort<>(comparator, codec, budget, maxFanIn, directory);
+  }
+
+  @Override
+  public Flux<T> apply(Flux<T> source) {
+    return Flux.using(
+        () -> new SpillingSorter<>(comparator, codec, budget, maxFanIn, directory),
+        sorter -> source.reduce(sorter, SpillingSorter::add).flatMapMany(SpillingSorter::merge),
+        SpillingSorter::close);
+  }
+}
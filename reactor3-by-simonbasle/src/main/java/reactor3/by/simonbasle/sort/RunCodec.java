@@ -0,0 +1,56 @@
+package reactor3.by.simonbasle.sort;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/** Writes the elements of a sorted run to a spill file and reads them back. */
+public interface RunCodec<T> {
+
+  void write(DataOutput out, T value) throws IOException;
+
+  T read(DataInput in) throws IOException;
+
+  /** Strings as modified UTF-8, up to 65535 encoded bytes each. */
+  static RunCodec<String> strings() {
+    return new RunCodec<String>() {
+      @Override
+      public void write(DataOutput out, String value) throws IOException {
+        out.writeUTF(value);
+      }
+
+      @Override
+      public String read(DataInput in) throws IOException {
+        return in.readUTF();
+      }
+    };
+  }
+
+  static RunCodec<Integer> integers() {
+    return new RunCodec<Integer>() {
+      @Override
+      public void write(DataOutput out, Integer value) throws IOException {
+        out.writeInt(value);
+      }
+
+      @Override
+      public Integer read(DataInput in) throws IOException {
+        return in.readInt();
+      }
+    };
+  }
+
+  static RunCodec<Long> longs() {
+    return new RunCodec<Long>() {
+      @Override
+      public void write(DataOutput out, Long value) throws IOException {
+        out.writeLong(value);
+      }
+
+      @Override
+      public Long read(DataInput in) throws IOException {
+        return in.readLong();
+      }
+    };
+  }
+}
@@ -0,0 +1,147 @@
+package reactor3.by.simonbasle.sort;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of sorted runs: a heap holds the head of each run, the smallest head is taken and
+ * replaced by the next element of its run. Equal heads come out in run order, which keeps the
+ * sort stable.
+ */
+final class RunMerger<T> implements Closeable {
+
+  private final PriorityQueue<Cursor<T>> heap;
+
+  private final Cursor<?>[] cursors;
+
+  RunMerger(
+      List<Path> files, Iterator<T> inMemory, RunCodec<T> codec, Comparator<? super T> comparator)
+      throws IOException {
+    Comparator<Cursor<T>> byHead = (a, b) -> comparator.compare(a.head, b.head);
+    this.heap =
+        new PriorityQueue<>(files.size() + 1, byHead.thenComparingInt(cursor -> cursor.index));
+    this.cursors = new Cursor<?>[files.size() + 1];
+    try {
+      for (int i = 0; i < files.size(); i++) {
+        FileCursor<T> cursor = new FileCursor<>(i, files.get(i), codec);
+        cursors[i] = cursor;
+        offer(cursor);
+      }
+      IteratorCursor<T> cursor = new IteratorCursor<>(files.size(), inMemory);
+      cursors[files.size()] = cursor;
+      offer(cursor);
+    } catch (IOException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  boolean hasNext() {
+    return !heap.isEmpty();
+  }
+
+  T next() throws IOException {
+    Cursor<T> cursor = heap.poll();
+    T value = cursor.head;
+    offer(cursor);
+    return value;
+  }
+
+  private void offer(Cursor<T> cursor) throws IOException {
+    if (cursor.advance()) {
+      heap.offer(cursor);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException failure = null;
+    for (Cursor<?> cursor : cursors) {
+      if (cursor == null) {
+        continue;
+      }
+      try {
+        cursor.close();
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+    heap.clear();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private abstract static class Cursor<T> implements Closeable {
+
+    final int index;
+
+    T head;
+
+    Cursor(int index) {
+      this.index = index;
+    }
+
+    /** @return false once the run is exhausted */
+    abstract boolean advance() throws IOException;
+
+    @Override
+    public void close() throws IOException {}
+  }
+
+  private static final class FileCursor<T> extends Cursor<T> {
+
+    private final DataInputStream in;
+
+    private final RunCodec<T> codec;
+
+    FileCursor(int index, Path file, RunCodec<T> codec) throws IOException {
+      super(index);
+      this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+      this.codec = codec;
+    }
+
+    @Override
+    boolean advance() throws IOException {
+      if (!in.readBoolean()) {
+        head = null;
+        return false;
+      }
+      head = codec.read(in);
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  private static final class IteratorCursor<T> extends Cursor<T> {
+
+    private final Iterator<T> iterator;
+
+    IteratorCursor(int index, Iterator<T> iterator) {
+      super(index);
+      this.iterator = iterator;
+    }
+
+    @Override
+    boolean advance() {
+      if (!iterator.hasNext()) {
+        head = null;
+        return false;
+      }
+      head = iterator.next();
+      return true;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package reactor3.by.simonbasle.sort;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+/**
+ * State of one external sort subscription: the in-memory run being filled, the runs spilled so
+ * far and the merger reading them back. Not thread-safe, elements are added serially by the
+ * upstream, then merged serially as the downstream requests.
+ */
+final class SpillingSorter<T> {
+
+  private final Comparator<? super T> comparator;
+
+  private final RunCodec<T> codec;
+
+  private final int budget;
+
+  private final int maxFanIn;
+
+  private final Path directory;
+
+  private final List<T> buffer;
+
+  private final List<Path> created = new ArrayList<>();
+
+  private List<Path> runs = new ArrayList<>();
+
+  private RunMerger<T> merger;
+
+  SpillingSorter(
+      Comparator<? super T> comparator,
+      RunCodec<T> codec,
+      int budget,
+      int maxFanIn,
+      Path directory) {
+    this.comparator = comparator;
+    this.codec = codec;
+    this.budget = budget;
+    this.maxFanIn = maxFanIn;
+    this.directory = directory;
+    this.buffer = new ArrayList<>(Math.min(budget, 1 << 16));
+  }
+
+  SpillingSorter<T> add(T value) {
+    buffer.add(value);
+    if (buffer.size() >= budget) {
+      buffer.sort(comparator);
+      try {
+        runs.add(write(buffer.iterator()));
+      } catch (IOException e) {
+        throw Exceptions.propagate(e);
+      }
+      buffer.clear();
+    }
+    return this;
+  }
+
+  /** Sort the last run in memory and merge it with the spilled ones. */
+  Flux<T> merge() {
+    buffer.sort(comparator);
+    if (runs.isEmpty()) {
+      return Flux.fromIterable(buffer);
+    }
+    try {
+      // leave one input of the final merge to the in-memory run
+      while (runs.size() >= maxFanIn) {
+        runs = mergePass(runs);
+      }
+      merger = new RunMerger<>(runs, buffer.iterator(), codec, comparator);
+    } catch (IOException e) {
+      throw Exceptions.propagate(e);
+    }
+    return Flux.generate(
+        sink -> {
+          try {
+            if (merger.hasNext()) {
+              sink.next(merger.next());
+            } else {
+              sink.complete();
+            }
+          } catch (IOException e) {
+            sink.error(e);
+          }
+        });
+  }
+
+  /** Merge groups of {@code maxFanIn} runs into longer runs, until few enough are left. */
+  private List<Path> mergePass(List<Path> runs) throws IOException {
+    List<Path> merged = new ArrayList<>();
+    for (int i = 0; i < runs.size(); i += maxFanIn) {
+      List<Path> group = runs.subList(i, Math.min(i + maxFanIn, runs.size()));
+      if (group.size() == 1) {
+        merged.add(group.get(0));
+        continue;
+      }
+      try (RunMerger<T> pass =
+          new RunMerger<>(group, Collections.emptyIterator(), codec, comparator)) {
+        merged.add(
+            write(
+                new Iterator<T>() {
+                  @Override
+                  public boolean hasNext() {
+                    return pass.hasNext();
+                  }
+
+                  @Override
+                  public T next() {
+                    try {
+                      return pass.next();
+                    } catch (IOException e) {
+                      throw Exceptions.propagate(e);
+                    }
+                  }
+                }));
+      }
+      for (Path run : group) {
+        Files.delete(run);
+      }
+    }
+    return merged;
+  }
+
+  /** Every element is preceded by {@code true}, the run ends with {@code false}. */
+  private Path write(Iterator<T> sorted) throws IOException {
+    Path file = Files.createTempFile(directory, "flux-sort-", ".run");
+    created.add(file);
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+      while (sorted.hasNext()) {
+        out.writeBoolean(true);
+        codec.write(out, sorted.next());
+      }
+      out.writeBoolean(false);
+    }
+    return file;
+  }
+
+  /** Close the merger and delete every file written, whatever the outcome of the sort. */
+  void close() {
+    buffer.clear();
+    try {
+      if (merger != null) {
+        merger.close();
+      }
+    } catch (IOException ignored) {
+      // the files are deleted anyway
+    }
+    for (Path file : created) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException ignored) {
+        // best effort, the temp directory is cleaned by the OS
+      }
+    }
+  }
+}
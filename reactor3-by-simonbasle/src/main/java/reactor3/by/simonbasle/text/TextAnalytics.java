@@ -0,0 +1,113 @@
+package reactor3.by.simonbasle.text;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Letter and word counts over large text files.
+ *
+ * <p>The file is cut into fixed-size chunks, identified by their offset only. The chunks are
+ * spread over parallel rails, and each rail reads them with positional {@link FileChannel}
+ * reads into its own reusable buffer and {@link TextStats} histogram. The per-rail histograms
+ * are merged once every chunk is counted. Unlike {@code word.split("")}, no object is
+ * allocated per character or per word.
+ */
+public final class TextAnalytics {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+  private TextAnalytics() {}
+
+  public static Mono<TextStats> analyze(Path file) {
+    return analyze(file, DEFAULT_CHUNK_SIZE, Schedulers.DEFAULT_POOL_SIZE, Schedulers.parallel());
+  }
+
+  public static Mono<TextStats> analyze(
+      Path file, int chunkSize, int parallelism, Scheduler scheduler) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize > 0 required but it was " + chunkSize);
+    }
+    return Mono.using(
+        () -> FileChannel.open(file, StandardOpenOption.READ),
+        channel ->
+            chunkOffsets(channel, chunkSize)
+                .parallel(parallelism)
+                .runOn(scheduler, 1)
+                .reduce(() -> new ChunkCounter(channel, chunkSize), ChunkCounter::count)
+                .map(ChunkCounter::stats)
+                .reduce(TextStats::merge)
+                .defaultIfEmpty(new TextStats()),
+        TextAnalytics::close);
+  }
+
+  private static Flux<Long> chunkOffsets(FileChannel channel, int chunkSize) {
+    return Mono.fromCallable(channel::size)
+        .flatMapMany(
+            size ->
+                Flux.range(0, (int) ((size + chunkSize - 1) / chunkSize))
+                    .map(i -> (long) i * chunkSize));
+  }
+
+  private static void close(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Counts the chunks of one rail, reusing the same buffer for all of them. */
+  private static final class ChunkCounter {
+
+    private final FileChannel channel;
+
+    private final int chunkSize;
+
+    private final ByteBuffer buffer;
+
+    private final TextStats stats = new TextStats();
+
+    ChunkCounter(FileChannel channel, int chunkSize) {
+      this.channel = channel;
+      this.chunkSize = chunkSize;
+      // one extra byte to look at the end of the previous chunk
+      this.buffer = ByteBuffer.allocate(chunkSize + 1);
+    }
+
+    ChunkCounter count(long offset) {
+      long from = offset == 0 ? 0 : offset - 1;
+      buffer.clear();
+      buffer.limit((int) (offset + chunkSize - from));
+      try {
+        while (buffer.hasRemaining()) {
+          if (channel.read(buffer, from + buffer.position()) < 0) {
+            break;
+          }
+        }
+      } catch (IOException e) {
+        throw Exceptions.propagate(e);
+      }
+      buffer.flip();
+      if (offset == 0) {
+        stats.count(buffer, (byte) ' ');
+      } else {
+        byte previous = buffer.get();
+        stats.count(buffer, previous);
+      }
+      return this;
+    }
+
+    TextStats stats() {
+      return stats;
+    }
+  }
+}
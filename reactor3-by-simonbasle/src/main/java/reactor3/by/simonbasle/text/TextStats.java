@@ -0,0 +1,98 @@
+package reactor3.by.simonbasle.text;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Letter histogram and word count of a text, accumulated into primitive arrays so that
+ * counting a byte allocates nothing.
+ *
+ * <p>Letters are the ASCII {@code a-z}, case-insensitive. Words are maximal runs of bytes
+ * above {@code ' '}, so multi-byte UTF-8 characters never split a word. Not thread-safe:
+ * each worker accumulates into its own instance, and instances are {@link #merge merged}.
+ */
+public final class TextStats {
+
+  private final long[] letters = new long[26];
+
+  private long words;
+
+  private long bytes;
+
+  /**
+   * Count the bytes between the position and the limit of a heap buffer.
+   *
+   * @param previous the byte just before the buffer position, or {@code ' '} at the start of the text
+   */
+  void count(ByteBuffer buffer, byte previous) {
+    byte[] array = buffer.array();
+    int from = buffer.arrayOffset() + buffer.position();
+    int to = buffer.arrayOffset() + buffer.limit();
+    boolean inWord = !isSeparator(previous);
+    long[] letters = this.letters;
+    long words = 0;
+    for (int i = from; i < to; i++) {
+      byte b = array[i];
+      int letter = (b | 0x20) - 'a';
+      if (letter >= 0 && letter < 26) {
+        letters[letter]++;
+      }
+      boolean separator = isSeparator(b);
+      if (!separator && !inWord) {
+        words++;
+      }
+      inWord = !separator;
+    }
+    this.words += words;
+    this.bytes += to - from;
+  }
+
+  public TextStats merge(TextStats other) {
+    for (int i = 0; i < letters.length; i++) {
+      letters[i] += other.letters[i];
+    }
+    words += other.words;
+    bytes += other.bytes;
+    return this;
+  }
+
+  /** @param letter an ASCII letter, in either case */
+  public long letterCount(char letter) {
+    int index = (letter | 0x20) - 'a';
+    if (letter > 'z' || index < 0 || index >= 26) {
+      throw new IllegalArgumentException("ASCII letter required but it was '" + letter + "'");
+    }
+    return letters[index];
+  }
+
+  public long[] letterCounts() {
+    return letters.clone();
+  }
+
+  public long words() {
+    return words;
+  }
+
+  public long bytes() {
+    return bytes;
+  }
+
+  /** @return the letters seen at least once, in alphabetical order */
+  public String presentLetters() {
+    StringBuilder present = new StringBuilder();
+    for (int i = 0; i < letters.length; i++) {
+      if (letters[i] > 0) {
+        present.append((char) ('a' + i));
+      }
+    }
+    return present.toString();
+  }
+
+  static boolean isSeparator(byte b) {
+    return b >= 0 && b <= ' ';
+  }
+
+  @Override
+  public String toString() {
+    return "TextStats{letters=" + presentLetters() + ", words=" + words + ", bytes=" + bytes + '}';
+  }
+}
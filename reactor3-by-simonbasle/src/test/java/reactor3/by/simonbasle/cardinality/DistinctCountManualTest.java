@@ -0,0 +1,75 @@
+package reactor3.by.simonbasle.cardinality;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Accuracy, memory and throughput of {@link DistinctCount} against {@code distinct().count()}.
+ * The exact count needs a heap of several GB at 100M elements.
+ */
+@Slf4j
+public class DistinctCountManualTest {
+
+  private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+  @Test
+  public void accuracy_and_memory() {
+    for (long elements : new long[] {10_000_000L, 100_000_000L}) {
+      // every value shows up twice, in two different orders
+      long distinct = elements / 2;
+      Flux<Long> values =
+          Flux.range(0, (int) elements)
+              .map(i -> i < distinct ? i * 0x9E3779B97F4A7C15L : (i - distinct) * 0x9E3779B97F4A7C15L);
+
+      for (int precision : new int[] {12, 14, 16}) {
+        long start = System.nanoTime();
+        HyperLogLog sketch = values.as(DistinctCount.sketch(precision)).block();
+        report("hll p=" + precision, elements, distinct, sketch.estimate(), start, sketch.sizeInBytes());
+      }
+
+      long start = System.nanoTime();
+      HyperLogLog sketch =
+          DistinctCount.sketch(values.parallel().runOn(Schedulers.parallel()), 14).block();
+      report("hll p=14 rails", elements, distinct, sketch.estimate(), start, sketch.sizeInBytes());
+
+      System.gc();
+      long before = memory.getHeapMemoryUsage().getUsed();
+      long[] peak = new long[1];
+      start = System.nanoTime();
+      try {
+        long exact =
+            values
+                .distinct()
+                .doOnNext(
+                    v -> {
+                      if (v % 1_000_000 == 0) {
+                        peak[0] = Math.max(peak[0], memory.getHeapMemoryUsage().getUsed());
+                      }
+                    })
+                .count()
+                .block();
+        report("distinct()", elements, distinct, exact, start, peak[0] - before);
+      } catch (OutOfMemoryError e) {
+        log.info("distinct()      {} elements: OutOfMemoryError", elements);
+      }
+    }
+  }
+
+  private static void report(
+      String name, long elements, long distinct, long estimate, long start, long bytes) {
+    long elapsed = System.nanoTime() - start;
+    log.info(
+        String.format(
+            "%-15s %,12d elements: estimate %,11d error %6.3f%%, %,13d bytes, %,11d elements/s",
+            name,
+            elements,
+            estimate,
+            100.0 * (estimate - distinct) / distinct,
+            bytes,
+            elements * 1_000_000_000L / elapsed));
+  }
+}
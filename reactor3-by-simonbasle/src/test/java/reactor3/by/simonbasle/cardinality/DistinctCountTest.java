@@ -0,0 +1,90 @@
+package reactor3.by.simonbasle.cardinality;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+public class DistinctCountTest {
+
+  private static List<String> words =
+      Arrays.asList("the", "quick", "brown", "fox", "jumped", "over", "the", "lazy", "dog");
+
+  @Test
+  public void counts_missing_letters_without_keeping_them() {
+    Flux<String> letters = Flux.fromIterable(words).flatMap(word -> Flux.fromArray(word.split("")));
+
+    StepVerifier.create(letters.as(DistinctCount.estimate(DistinctCount.DEFAULT_PRECISION)))
+        .expectNext(25L)
+        .verifyComplete();
+  }
+
+  @Test
+  public void estimate_within_three_standard_errors() {
+    int distinct = 200_000;
+    Flux<String> usernames = Flux.range(0, 3 * distinct).map(i -> "user" + (i % distinct));
+
+    StepVerifier.create(usernames.as(DistinctCount.sketch(12)))
+        .assertNext(
+            sketch -> {
+              double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+              assertTrue(error < 3 * sketch.standardError(), "relative error " + error);
+              assertEquals(4096, sketch.sizeInBytes());
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  public void running_estimate() {
+    StepVerifier.create(Flux.range(0, 25).as(DistinctCount.running(10, 10)))
+        .expectNext(10L, 20L, 25L)
+        .verifyComplete();
+    StepVerifier.create(Flux.range(0, 20).as(DistinctCount.running(10, 10)))
+        .expectNext(10L, 20L)
+        .verifyComplete();
+  }
+
+  @Test
+  public void parallel_rails_merge_into_the_sequential_sketch() {
+    Flux<Long> values = Flux.range(0, 100_000).map(i -> (long) i * 7 % 30_011);
+
+    long sequential = values.as(DistinctCount.estimate(14)).block();
+    long parallel =
+        DistinctCount.sketch(values.parallel(4).runOn(Schedulers.parallel()), 14)
+            .map(HyperLogLog::estimate)
+            .block();
+
+    assertEquals(sequential, parallel);
+  }
+
+  @Test
+  public void merge_is_a_union() {
+    HyperLogLog evens = new HyperLogLog(14);
+    HyperLogLog odds = new HyperLogLog(14);
+    HyperLogLog all = new HyperLogLog(14);
+    for (int i = 0; i < 50_000; i++) {
+      (i % 2 == 0 ? evens : odds).offer(i);
+      all.offer(i);
+    }
+
+    assertEquals(all.estimate(), evens.merge(odds).estimate());
+    assertThrows(IllegalArgumentException.class, () -> all.merge(new HyperLogLog(12)));
+  }
+
+  @Test
+  public void rejects_invalid_precision() {
+    assertThrows(IllegalArgumentException.class, () -> DistinctCount.estimate(3));
+    assertThrows(IllegalArgumentException.class, () -> DistinctCount.running(19, 1));
+  }
+
+  @Test
+  public void empty_source() {
+    StepVerifier.create(Flux.empty().as(DistinctCount.estimate(4))).expectNext(0L).verifyComplete();
+  }
+}
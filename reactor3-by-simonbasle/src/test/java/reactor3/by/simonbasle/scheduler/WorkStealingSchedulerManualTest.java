@@ -0,0 +1,76 @@
+package reactor3.by.simonbasle.scheduler;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Throughput and latency of CPU-bound tasks with skewed costs, one in 16 being 50 times more
+ * expensive, on {@link WorkStealingScheduler} against {@code newParallel}.
+ */
+public class WorkStealingSchedulerManualTest {
+
+  private static final int THREADS = 4;
+
+  private static final int ELEMENTS = 20_000;
+
+  private static final int CONCURRENCY = 64;
+
+  private static final int ROUNDS = 3;
+
+  private static volatile long sink;
+
+  @Test
+  public void skewed_costs() {
+    Scheduler parallel = Schedulers.newParallel("parallel", THREADS);
+    Scheduler stealing = WorkStealingScheduler.create("stealing", THREADS);
+    try {
+      for (int i = 0; i < ROUNDS; i++) {
+        run("newParallel", parallel);
+        run("work stealing", stealing);
+      }
+    } finally {
+      parallel.dispose();
+      stealing.dispose();
+    }
+  }
+
+  private static void run(String name, Scheduler scheduler) {
+    long[] latencies = new long[ELEMENTS];
+    long start = System.nanoTime();
+    Flux.range(0, ELEMENTS)
+        .flatMap(
+            i ->
+                Mono.defer(
+                    () -> {
+                      long submitted = System.nanoTime();
+                      return Mono.fromCallable(() -> work(i))
+                          .subscribeOn(scheduler)
+                          .doOnNext(w -> latencies[i] = System.nanoTime() - submitted);
+                    }),
+            CONCURRENCY)
+        .blockLast();
+    long elapsed = System.nanoTime() - start;
+    Arrays.sort(latencies);
+    System.out.printf(
+        "%-14s %,8d elements/s  p50 %6.2f ms  p99 %6.2f ms  max %6.2f ms%n",
+        name,
+        ELEMENTS * 1_000_000_000L / elapsed,
+        latencies[ELEMENTS / 2] / 1e6,
+        latencies[ELEMENTS * 99 / 100] / 1e6,
+        latencies[ELEMENTS - 1] / 1e6);
+  }
+
+  private static long work(int i) {
+    int iterations = i % 16 == 0 ? 100_000 : 2_000;
+    long hash = i;
+    for (int n = 0; n < iterations; n++) {
+      hash = hash * 31 + n;
+    }
+    sink = hash;
+    return hash;
+  }
+}
@@ -0,0 +1,136 @@
+package reactor3.by.simonbasle.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+public class WorkStealingSchedulerTest {
+
+  private final WorkStealingScheduler scheduler = WorkStealingScheduler.create("stealing", 2);
+
+  @AfterEach
+  public void dispose() {
+    scheduler.dispose();
+  }
+
+  @Test
+  public void runs_on_non_blocking_threads() {
+    StepVerifier.create(
+            Flux.just("a", "b")
+                .publishOn(scheduler)
+                .map(
+                    letter ->
+                        Thread.currentThread().getName().startsWith("stealing-")
+                            && Schedulers.isInNonBlockingThread()))
+        .expectNext(true, true)
+        .verifyComplete();
+  }
+
+  @Test
+  public void worker_runs_its_tasks_in_order_one_at_a_time() throws InterruptedException {
+    Scheduler.Worker worker = scheduler.createWorker();
+    List<Integer> order = new ArrayList<>();
+    AtomicBoolean running = new AtomicBoolean();
+    AtomicBoolean overlapped = new AtomicBoolean();
+    CountDownLatch done = new CountDownLatch(1);
+    // more than a batch, so the drain moves between threads
+    for (int i = 0; i < 10 * StealingWorker.BATCH; i++) {
+      int index = i;
+      worker.schedule(
+          () -> {
+            if (!running.compareAndSet(false, true)) {
+              overlapped.set(true);
+            }
+            order.add(index);
+            running.set(false);
+            if (index == 10 * StealingWorker.BATCH - 1) {
+              done.countDown();
+            }
+          });
+    }
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertFalse(overlapped.get());
+    for (int i = 0; i < order.size(); i++) {
+      assertEquals(i, (int) order.get(i));
+    }
+    worker.dispose();
+  }
+
+  @Test
+  public void idle_threads_steal_tasks_of_a_busy_one() throws InterruptedException {
+    CountDownLatch inner = new CountDownLatch(10);
+    CountDownLatch done = new CountDownLatch(1);
+    // the tasks are queued on the thread of the outer task, which waits for them
+    scheduler.schedule(
+        () -> {
+          for (int i = 0; i < 10; i++) {
+            scheduler.schedule(inner::countDown);
+          }
+          try {
+            if (inner.await(5, TimeUnit.SECONDS)) {
+              done.countDown();
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertTrue(scheduler.stealCount() > 0);
+  }
+
+  @Test
+  public void parallel_rails() {
+    StepVerifier.create(
+            Flux.range(1, 1_000).parallel().runOn(scheduler).map(i -> (long) i).reduce(Long::sum))
+        .expectNext(500_500L)
+        .verifyComplete();
+  }
+
+  @Test
+  public void delayed_and_periodic_tasks() {
+    StepVerifier.create(Mono.delay(Duration.ofMillis(10), scheduler)).expectNext(0L).verifyComplete();
+    StepVerifier.create(Flux.interval(Duration.ofMillis(5), scheduler).take(5))
+        .expectNext(0L, 1L, 2L, 3L, 4L)
+        .verifyComplete();
+  }
+
+  @Test
+  public void disposed_worker_drops_its_tasks() throws InterruptedException {
+    Scheduler.Worker worker = scheduler.createWorker();
+    AtomicInteger runs = new AtomicInteger();
+    worker.schedule(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+    worker.schedulePeriodically(runs::incrementAndGet, 50, 10, TimeUnit.MILLISECONDS);
+    worker.dispose();
+
+    Thread.sleep(100);
+    assertEquals(0, runs.get());
+    assertThrows(RejectedExecutionException.class, () -> worker.schedule(runs::incrementAndGet));
+  }
+
+  @Test
+  public void disposed_scheduler_rejects_tasks() {
+    scheduler.dispose();
+
+    assertTrue(scheduler.isDisposed());
+    assertThrows(RejectedExecutionException.class, () -> scheduler.schedule(() -> {}));
+  }
+}
@@ -0,0 +1,36 @@
+package reactor3.by.simonbasle.sort;
+
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Throughput of {@link ExternalSort} against the in-memory {@link Flux#sort()}, run it from the
+ * IDE, ideally with a small heap (e.g. {@code -Xmx256m}) to see {@code sort()} fail first.
+ */
+@Slf4j
+public class ExternalSortManualTest {
+
+  private static final int ELEMENTS = 5_000_000;
+
+  @Test
+  public void throughput() {
+    for (int i = 0; i < 3; i++) {
+      run("sort()", Flux::sort);
+      run("external 100k", f -> f.transform(ExternalSort.naturalOrder(RunCodec.longs())));
+      run(
+          "external 1M",
+          f -> f.transform(ExternalSort.naturalOrder(RunCodec.longs()).withBudget(1_000_000)));
+    }
+  }
+
+  private static void run(String name, Function<Flux<Long>, Flux<Long>> sort) {
+    Flux<Long> source =
+        Flux.range(0, ELEMENTS).map(i -> (i * 0x9E3779B97F4A7C15L) ^ (i >>> 7)).transform(sort);
+    long start = System.nanoTime();
+    long count = source.count().block();
+    long elapsed = System.nanoTime() - start;
+    log.info("{}: {} elements/s", String.format("%-14s", name), count * 1_000_000_000L / elapsed);
+  }
+}
@@ -0,0 +1,142 @@
+package reactor3.by.simonbasle.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class ExternalSortTest {
+
+  private static final int BUDGET = 1_000;
+
+  @TempDir Path dir;
+
+  @Test
+  public void sorts_ten_times_the_budget() {
+    List<Integer> values = randomInts(10 * BUDGET + 500);
+    List<Integer> expected = new ArrayList<>(values);
+    expected.sort(Comparator.naturalOrder());
+
+    Flux<Integer> sorted =
+        Flux.fromIterable(values)
+            .transform(
+                ExternalSort.naturalOrder(RunCodec.integers()).withBudget(BUDGET).withDirectory(dir));
+
+    StepVerifier.create(sorted.collectList())
+        .assertNext(list -> assertEquals(expected, list))
+        .verifyComplete();
+    assertEquals(0, spillFiles());
+  }
+
+  @Test
+  public void spills_full_runs_and_keeps_the_last_one_in_memory() {
+    Flux<Integer> sorted =
+        Flux.fromIterable(randomInts(10 * BUDGET + 500))
+            .transform(
+                ExternalSort.naturalOrder(RunCodec.integers()).withBudget(BUDGET).withDirectory(dir));
+
+    StepVerifier.create(sorted, 1)
+        .expectNextCount(1)
+        .then(() -> assertEquals(10, spillFiles()))
+        .thenRequest(Long.MAX_VALUE)
+        .expectNextCount(10 * BUDGET + 499)
+        .verifyComplete();
+    assertEquals(0, spillFiles());
+  }
+
+  @Test
+  public void merges_in_several_passes_above_max_fan_in() {
+    List<Integer> values = randomInts(1_000);
+    List<Integer> expected = new ArrayList<>(values);
+    expected.sort(Comparator.reverseOrder());
+
+    Flux<Integer> sorted =
+        Flux.fromIterable(values)
+            .transform(
+                ExternalSort.by(Comparator.<Integer>reverseOrder(), RunCodec.integers())
+                    .withBudget(10)
+                    .withMaxFanIn(3)
+                    .withDirectory(dir));
+
+    StepVerifier.create(sorted.collectList())
+        .assertNext(list -> assertEquals(expected, list))
+        .verifyComplete();
+    assertEquals(0, spillFiles());
+  }
+
+  @Test
+  public void is_stable() {
+    List<String> words =
+        Arrays.asList("the", "quick", "brown", "fox", "jumped", "over", "the", "lazy", "dog");
+
+    Flux<String> byLength =
+        Flux.fromIterable(words)
+            .transform(
+                ExternalSort.by(Comparator.comparingInt(String::length), RunCodec.strings())
+                    .withBudget(2)
+                    .withMaxFanIn(2)
+                    .withDirectory(dir));
+
+    StepVerifier.create(byLength)
+        .expectNext("the", "fox", "the", "dog", "over", "lazy", "quick", "brown", "jumped")
+        .verifyComplete();
+  }
+
+  @Test
+  public void deletes_runs_on_cancel() {
+    Flux<Integer> sorted =
+        Flux.fromIterable(randomInts(10 * BUDGET))
+            .transform(
+                ExternalSort.naturalOrder(RunCodec.integers()).withBudget(BUDGET).withDirectory(dir));
+
+    StepVerifier.create(sorted.take(5)).expectNextCount(5).verifyComplete();
+    assertEquals(0, spillFiles());
+  }
+
+  @Test
+  public void deletes_runs_on_source_error() {
+    Flux<Integer> sorted =
+        Flux.fromIterable(randomInts(5 * BUDGET))
+            .concatWith(Flux.error(new IllegalStateException("boom")))
+            .transform(
+                ExternalSort.naturalOrder(RunCodec.integers()).withBudget(BUDGET).withDirectory(dir));
+
+    StepVerifier.create(sorted).verifyErrorMessage("boom");
+    assertEquals(0, spillFiles());
+  }
+
+  @Test
+  public void empty_source() {
+    StepVerifier.create(
+            Flux.<String>empty().transform(ExternalSort.naturalOrder(RunCodec.strings())))
+        .verifyComplete();
+  }
+
+  private long spillFiles() {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.count();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static List<Integer> randomInts(int count) {
+    Random random = new Random(42);
+    List<Integer> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      values.add(random.nextInt(count / 2));
+    }
+    return values;
+  }
+}
@@ -0,0 +1,76 @@
+package reactor3.by.simonbasle.text;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+/** Throughput of {@link TextAnalytics} against the {@code split("")} pipeline. */
+@Slf4j
+public class TextAnalyticsManualTest {
+
+  private static final long SIZE = 64L << 20;
+
+  private static List<String> words =
+      Arrays.asList("the", "quick", "brown", "fox", "jumped", "over", "the", "lazy", "dog");
+
+  @TempDir Path dir;
+
+  @Test
+  public void throughput() throws IOException {
+    Path file = generate(dir.resolve("words.txt"));
+
+    for (int i = 0; i < 3; i++) {
+      long start = System.nanoTime();
+      TextStats stats = TextAnalytics.analyze(file).block();
+      log.info("chunked:  {} MB/s {}", mbPerSecond(start), stats);
+    }
+
+    for (int i = 0; i < 3; i++) {
+      long start = System.nanoTime();
+      Long letters =
+          Flux.fromStream(() -> lines(file))
+              .flatMapIterable(line -> Arrays.asList(line.split(" ")))
+              .flatMap(word -> Flux.fromArray(word.split("")))
+              .count()
+              .block();
+      log.info("split(\"\"): {} MB/s {} letters", mbPerSecond(start), letters);
+    }
+  }
+
+  private static Path generate(Path file) throws IOException {
+    Random random = new Random(0);
+    long written = 0;
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      while (written < SIZE) {
+        String word = words.get(random.nextInt(words.size()));
+        writer.write(word);
+        writer.write(random.nextInt(12) == 0 ? '\n' : ' ');
+        written += word.length() + 1;
+      }
+    }
+    return file;
+  }
+
+  private static Stream<String> lines(Path file) {
+    try {
+      return Files.lines(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static long mbPerSecond(long start) {
+    return (SIZE >> 20) * 1_000_000_000L / (System.nanoTime() - start);
+  }
+}
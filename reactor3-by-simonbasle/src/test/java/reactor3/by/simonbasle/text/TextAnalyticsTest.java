@@ -0,0 +1,91 @@
+package reactor3.by.simonbasle.text;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+public class TextAnalyticsTest {
+
+  private static List<String> words =
+      Arrays.asList("the", "quick", "brown", "fox", "jumped", "over", "the", "lazy", "dog");
+
+  @TempDir Path dir;
+
+  @Test
+  public void same_letters_as_split_based_missing_letters() throws IOException {
+    Path file = write(String.join(" ", words));
+
+    StepVerifier.create(TextAnalytics.analyze(file))
+        .assertNext(
+            stats -> {
+              // same result as Reactor3Test._1_2_missing_letters: all but "s"
+              assertEquals("abcdefghijklmnopqrtuvwxyz", stats.presentLetters());
+              assertEquals(9, stats.words());
+              assertEquals(4, stats.letterCount('o'));
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  public void words_and_letters_across_chunk_boundaries() throws IOException {
+    String text = "Hello,  World!\n\tthe quick  brown\r\nfox — jumped über the lazy dog \n";
+    Path file = write(text);
+
+    for (int chunkSize = 1; chunkSize <= 16; chunkSize++) {
+      TextStats stats =
+          TextAnalytics.analyze(file, chunkSize, 4, Schedulers.parallel()).block();
+      assertEquals(12, stats.words(), "chunk size " + chunkSize);
+      assertEquals(text.getBytes(StandardCharsets.UTF_8).length, stats.bytes());
+      assertEquals(expectedLetters(text), Arrays.toString(stats.letterCounts()));
+    }
+  }
+
+  @Test
+  public void letter_count_of_ascii_letters_only() {
+    TextStats stats = new TextStats();
+    assertEquals(0, stats.letterCount('A'));
+    assertEquals(0, stats.letterCount('z'));
+    for (char c : new char[] {'@', '[', '`', '{', '1', ' ', 'ü'}) {
+      assertThrows(IllegalArgumentException.class, () -> stats.letterCount(c), "'" + c + "'");
+    }
+  }
+
+  @Test
+  public void empty_file() throws IOException {
+    Path file = write("");
+
+    StepVerifier.create(TextAnalytics.analyze(file))
+        .assertNext(stats -> assertEquals(0, stats.words()))
+        .verifyComplete();
+  }
+
+  @Test
+  public void missing_file() {
+    StepVerifier.create(TextAnalytics.analyze(dir.resolve("missing.txt")))
+        .verifyError(IOException.class);
+  }
+
+  private Path write(String text) throws IOException {
+    return Files.write(dir.resolve("words.txt"), text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String expectedLetters(String text) {
+    long[] counts = new long[26];
+    for (char c : text.toLowerCase().toCharArray()) {
+      if (c >= 'a' && c <= 'z') {
+        counts[c - 'a']++;
+      }
+    }
+    return Arrays.toString(counts);
+  }
+}
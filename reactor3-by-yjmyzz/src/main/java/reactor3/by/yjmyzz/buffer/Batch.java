@@ -0,0 +1,119 @@
+package reactor3.by.yjmyzz.buffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * A batch of elements emitted by {@link PooledBuffer}, backed by an array taken from a {@link
+ * BatchPool}. The consumer must {@link #release()} it once done, after which the batch may be
+ * refilled with other elements and must not be used anymore. A batch that is never released is
+ * simply garbage collected.
+ */
+public final class Batch<T> implements Iterable<T> {
+
+  private final BatchPool<T> pool;
+
+  private final Object[] elements;
+
+  private int size;
+
+  private boolean released;
+
+  Batch(BatchPool<T> pool, int capacity) {
+    this.pool = pool;
+    this.elements = new Object[capacity];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    checkNotReleased();
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+    }
+    return (T) elements[index];
+  }
+
+  /** Iterates without allocating, unlike {@link #iterator()}. */
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(Consumer<? super T> action) {
+    checkNotReleased();
+    for (int i = 0; i < size; i++) {
+      action.accept((T) elements[i]);
+    }
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    checkNotReleased();
+    return new Iterator<T>() {
+      int index;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      public T next() {
+        if (index >= size) {
+          throw new NoSuchElementException();
+        }
+        return get(index++);
+      }
+    };
+  }
+
+  /** @return a copy of the elements, that outlives the release of the batch */
+  public List<T> toList() {
+    List<T> list = new ArrayList<>(size);
+    forEach(list::add);
+    return list;
+  }
+
+  /** Give the batch back to its pool. */
+  public void release() {
+    checkNotReleased();
+    released = true;
+    Arrays.fill(elements, 0, size, null);
+    size = 0;
+    pool.release(this);
+  }
+
+  boolean add(T element) {
+    elements[size++] = element;
+    return size == elements.length;
+  }
+
+  Batch<T> reuse() {
+    released = false;
+    return this;
+  }
+
+  int capacity() {
+    return elements.length;
+  }
+
+  private void checkNotReleased() {
+    if (released) {
+      throw new IllegalStateException("Batch already released");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return released ? "Batch[released]" : toList().toString();
+  }
+}
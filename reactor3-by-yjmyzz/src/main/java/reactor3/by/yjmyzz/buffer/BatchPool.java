@@ -0,0 +1,81 @@
+package reactor3.by.yjmyzz.buffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free pool of {@link Batch}es of a fixed capacity. Released batches are parked in a fixed
+ * number of slots, which acquiring threads scan and empty with a CAS. When every slot is taken,
+ * a released batch is left to the garbage collector; when every slot is empty, a new batch is
+ * allocated. Can be shared by several operators and subscriptions.
+ */
+public final class BatchPool<T> {
+
+  private final int batchSize;
+
+  private final AtomicReferenceArray<Batch<T>> slots;
+
+  private final AtomicLong created = new AtomicLong();
+
+  private final AtomicLong reused = new AtomicLong();
+
+  /**
+   * @param batchSize the capacity of each batch, i.e. the maximum size of a buffer
+   * @param maxPooled the maximum number of released batches kept for reuse
+   */
+  public BatchPool(int batchSize, int maxPooled) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batchSize > 0 required but it was " + batchSize);
+    }
+    if (maxPooled <= 0) {
+      throw new IllegalArgumentException("maxPooled > 0 required but it was " + maxPooled);
+    }
+    this.batchSize = batchSize;
+    this.slots = new AtomicReferenceArray<>(maxPooled);
+  }
+
+  public int batchSize() {
+    return batchSize;
+  }
+
+  Batch<T> acquire() {
+    for (int i = 0; i < slots.length(); i++) {
+      Batch<T> batch = slots.get(i);
+      if (batch != null && slots.compareAndSet(i, batch, null)) {
+        reused.incrementAndGet();
+        return batch.reuse();
+      }
+    }
+    created.incrementAndGet();
+    return new Batch<>(this, batchSize);
+  }
+
+  void release(Batch<T> batch) {
+    for (int i = 0; i < slots.length(); i++) {
+      if (slots.get(i) == null && slots.compareAndSet(i, null, batch)) {
+        return;
+      }
+    }
+  }
+
+  /** @return the batches allocated so far */
+  public long created() {
+    return created.get();
+  }
+
+  /** @return the batches taken from the pool instead of being allocated */
+  public long reused() {
+    return reused.get();
+  }
+
+  /** @return the released batches currently waiting for reuse */
+  public int pooled() {
+    int pooled = 0;
+    for (int i = 0; i < slots.length(); i++) {
+      if (slots.get(i) != null) {
+        pooled++;
+      }
+    }
+    return pooled;
+  }
+}
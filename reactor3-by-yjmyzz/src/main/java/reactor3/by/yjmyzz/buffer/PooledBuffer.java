@@ -0,0 +1,51 @@
+package reactor3.by.yjmyzz.buffer;
+
+import java.time.Duration;
+import java.util.function.Function;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@code buffer(int)} and {@code bufferTimeout(int, Duration)} emitting pooled {@link Batch}es
+ * instead of a new {@code ArrayList} per buffer, to use with {@code transform}:
+ *
+ * <pre>
+ * BatchPool&lt;Event&gt; pool = new BatchPool&lt;&gt;(256, 64);
+ * events.transform(PooledBuffer.buffer(pool))
+ *     .subscribe(batch -&gt; {
+ *       batch.forEach(this::handle);
+ *       batch.release();
+ *     });
+ * </pre>
+ *
+ * <p>The maximum buffer size is the batch size of the pool. Once released, a batch is refilled
+ * by a later buffer, so a consumer that keeps elements must copy them first, e.g. with {@link
+ * Batch#toList()}.
+ */
+public final class PooledBuffer {
+
+  private PooledBuffer() {}
+
+  public static <T> Function<Flux<T>, Flux<Batch<T>>> buffer(BatchPool<T> pool) {
+    return flux ->
+        new PooledBufferFlux<>(flux, actual -> new PooledBufferSubscriber<>(actual, pool));
+  }
+
+  /** Buffers closed on size or timeout, timed on {@link Schedulers#parallel()}. */
+  public static <T> Function<Flux<T>, Flux<Batch<T>>> bufferTimeout(
+      BatchPool<T> pool, Duration timeout) {
+    return bufferTimeout(pool, timeout, Schedulers.parallel());
+  }
+
+  public static <T> Function<Flux<T>, Flux<Batch<T>>> bufferTimeout(
+      BatchPool<T> pool, Duration timeout, Scheduler timer) {
+    long timeoutMillis = timeout.toMillis();
+    return flux ->
+        new PooledBufferFlux<>(
+            flux,
+            actual ->
+                new PooledBufferTimeoutSubscriber<>(
+                    actual, pool, timeoutMillis, timer.createWorker()));
+  }
+}
@@ -0,0 +1,39 @@
+package reactor3.by.yjmyzz.buffer;
+
+import java.util.function.Function;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Subscribes a buffering subscriber to the source. A plain {@link Flux} rather than {@code
+ * Operators.lift}, which in this Reactor version expects a fuseable subscriber when the source is
+ * fuseable.
+ */
+final class PooledBufferFlux<T> extends Flux<Batch<T>> implements Scannable {
+
+  private final Flux<T> source;
+
+  private final Function<CoreSubscriber<? super Batch<T>>, CoreSubscriber<T>> subscriberFactory;
+
+  PooledBufferFlux(
+      Flux<T> source,
+      Function<CoreSubscriber<? super Batch<T>>, CoreSubscriber<T>> subscriberFactory) {
+    this.source = source;
+    this.subscriberFactory = subscriberFactory;
+  }
+
+  @Override
+  public void subscribe(CoreSubscriber<? super Batch<T>> actual) {
+    source.subscribe(subscriberFactory.apply(actual));
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  public Object scanUnsafe(Attr key) {
+    if (key == Attr.PARENT) {
+      return source;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,116 @@
+package reactor3.by.yjmyzz.buffer;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+/** Count-based buffering into pooled batches, same demand handling as {@code buffer(int)}. */
+final class PooledBufferSubscriber<T> implements CoreSubscriber<T>, Subscription, Scannable {
+
+  private final CoreSubscriber<? super Batch<T>> actual;
+
+  private final BatchPool<T> pool;
+
+  private Subscription s;
+
+  private Batch<T> batch;
+
+  private boolean done;
+
+  PooledBufferSubscriber(CoreSubscriber<? super Batch<T>> actual, BatchPool<T> pool) {
+    this.actual = actual;
+    this.pool = pool;
+  }
+
+  @Override
+  public void onSubscribe(Subscription s) {
+    if (Operators.validate(this.s, s)) {
+      this.s = s;
+      actual.onSubscribe(this);
+    }
+  }
+
+  @Override
+  public void onNext(T t) {
+    if (done) {
+      Operators.onNextDropped(t, actual.currentContext());
+      return;
+    }
+    Batch<T> batch = this.batch;
+    if (batch == null) {
+      batch = pool.acquire();
+      this.batch = batch;
+    }
+    if (batch.add(t)) {
+      this.batch = null;
+      actual.onNext(batch);
+    }
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    if (done) {
+      Operators.onErrorDropped(t, actual.currentContext());
+      return;
+    }
+    done = true;
+    Batch<T> batch = this.batch;
+    this.batch = null;
+    if (batch != null) {
+      batch.release();
+    }
+    actual.onError(t);
+  }
+
+  @Override
+  public void onComplete() {
+    if (done) {
+      return;
+    }
+    done = true;
+    Batch<T> batch = this.batch;
+    this.batch = null;
+    if (batch != null) {
+      actual.onNext(batch);
+    }
+    actual.onComplete();
+  }
+
+  @Override
+  public void request(long n) {
+    if (Operators.validate(n)) {
+      s.request(Operators.multiplyCap(n, pool.batchSize()));
+    }
+  }
+
+  @Override
+  public void cancel() {
+    // a partial batch is left to the GC, it may still be filled by a racing onNext
+    s.cancel();
+  }
+
+  @Override
+  public Context currentContext() {
+    return actual.currentContext();
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  public Object scanUnsafe(Attr key) {
+    if (key == Attr.PARENT) {
+      return s;
+    }
+    if (key == Attr.ACTUAL) {
+      return actual;
+    }
+    if (key == Attr.TERMINATED) {
+      return done;
+    }
+    if (key == Attr.PREFETCH) {
+      return pool.batchSize();
+    }
+    return null;
+  }
+}
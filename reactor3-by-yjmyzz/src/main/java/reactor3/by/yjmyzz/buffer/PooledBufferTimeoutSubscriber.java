@@ -0,0 +1,191 @@
+package reactor3.by.yjmyzz.buffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
+
+/**
+ * Size or time buffering into pooled batches, same demand handling as {@code
+ * bufferTimeout(int, Duration)}: upstream is requested {@code batchSize} elements per requested
+ * batch, and a batch closed by the timer without pending demand fails with an overflow error.
+ * Elements, timeouts and cancellation are serialized on the subscriber monitor.
+ */
+final class PooledBufferTimeoutSubscriber<T>
+    implements CoreSubscriber<T>, Subscription, Scannable {
+
+  private final CoreSubscriber<? super Batch<T>> actual;
+
+  private final BatchPool<T> pool;
+
+  private final long timeoutMillis;
+
+  private final Scheduler.Worker timer;
+
+  private Subscription s;
+
+  private Batch<T> batch;
+
+  private Disposable timeout;
+
+  /** Number of the current batch, so that the timeout of an earlier one is ignored. */
+  private long generation;
+
+  private boolean done;
+
+  private volatile long requested;
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicLongFieldUpdater<PooledBufferTimeoutSubscriber> REQUESTED =
+      AtomicLongFieldUpdater.newUpdater(PooledBufferTimeoutSubscriber.class, "requested");
+
+  PooledBufferTimeoutSubscriber(
+      CoreSubscriber<? super Batch<T>> actual,
+      BatchPool<T> pool,
+      long timeoutMillis,
+      Scheduler.Worker timer) {
+    this.actual = actual;
+    this.pool = pool;
+    this.timeoutMillis = timeoutMillis;
+    this.timer = timer;
+  }
+
+  @Override
+  public void onSubscribe(Subscription s) {
+    if (Operators.validate(this.s, s)) {
+      this.s = s;
+      actual.onSubscribe(this);
+    }
+  }
+
+  @Override
+  public synchronized void onNext(T t) {
+    if (done) {
+      Operators.onNextDropped(t, actual.currentContext());
+      return;
+    }
+    if (batch == null) {
+      batch = pool.acquire();
+      long current = ++generation;
+      timeout = timer.schedule(() -> timeout(current), timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    if (batch.add(t)) {
+      timeout.dispose();
+      flush();
+    }
+  }
+
+  /**
+   * Timeout of the given batch, which a size-triggered flush may have closed while the timer was
+   * waiting for the monitor.
+   */
+  private synchronized void timeout(long batchGeneration) {
+    if (!done && batch != null && generation == batchGeneration) {
+      flush();
+    }
+  }
+
+  private void flush() {
+    Batch<T> batch = this.batch;
+    this.batch = null;
+    timeout = null;
+    if (requested == 0) {
+      batch.release();
+      done = true;
+      s.cancel();
+      timer.dispose();
+      actual.onError(Exceptions.failWithOverflow("Could not emit buffer due to lack of requests"));
+      return;
+    }
+    if (requested != Long.MAX_VALUE) {
+      REQUESTED.decrementAndGet(this);
+    }
+    actual.onNext(batch);
+  }
+
+  @Override
+  public synchronized void onError(Throwable t) {
+    if (done) {
+      Operators.onErrorDropped(t, actual.currentContext());
+      return;
+    }
+    done = true;
+    timer.dispose();
+    if (batch != null) {
+      batch.release();
+      batch = null;
+    }
+    actual.onError(t);
+  }
+
+  @Override
+  public synchronized void onComplete() {
+    if (done) {
+      return;
+    }
+    timer.dispose();
+    if (batch != null) {
+      flush();
+    }
+    if (!done) {
+      done = true;
+      actual.onComplete();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (Operators.validate(n)) {
+      Operators.addCap(REQUESTED, this, n);
+      s.request(Operators.multiplyCap(n, pool.batchSize()));
+    }
+  }
+
+  @Override
+  public void cancel() {
+    timer.dispose();
+    s.cancel();
+    synchronized (this) {
+      done = true;
+      if (batch != null) {
+        batch.release();
+        batch = null;
+      }
+    }
+  }
+
+  @Override
+  public Context currentContext() {
+    return actual.currentContext();
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  public Object scanUnsafe(Attr key) {
+    if (key == Attr.PARENT) {
+      return s;
+    }
+    if (key == Attr.ACTUAL) {
+      return actual;
+    }
+    if (key == Attr.TERMINATED) {
+      return done;
+    }
+    if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+      return requested;
+    }
+    if (key == Attr.PREFETCH) {
+      return pool.batchSize();
+    }
+    if (key == Attr.RUN_ON) {
+      return timer;
+    }
+    return null;
+  }
+}
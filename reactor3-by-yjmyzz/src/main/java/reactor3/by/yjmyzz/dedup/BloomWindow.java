@@ -0,0 +1,99 @@
+package reactor3.by.yjmyzz.dedup;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Approximate window over two rotating Bloom filters. New keys go to the current filter, and a
+ * key is a duplicate if either filter may contain it. Once the current filter holds {@code
+ * capacity} keys, it becomes the previous one and the old previous one is cleared and reused,
+ * evicting its keys all at once. Memory is fixed, but a false positive drops a new element.
+ */
+final class BloomWindow<K> extends KeyWindow<K> {
+
+  private final int capacity;
+
+  private final int bits;
+
+  private final int hashes;
+
+  private long[] current;
+
+  private long[] previous;
+
+  private volatile long currentKeys;
+
+  private volatile long previousKeys;
+
+  BloomWindow(int capacity, double falsePositiveRate, LongAdder evictions) {
+    super(evictions);
+    this.capacity = capacity;
+    // m = -n ln(p) / ln(2)^2 bits and k = m / n ln(2) hashes reach rate p at n keys
+    double ln2 = Math.log(2);
+    long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+    this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+    this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+    this.current = new long[(bits + 63) >>> 6];
+    this.previous = new long[current.length];
+  }
+
+  @Override
+  boolean add(K key) {
+    long hash = mix(key.hashCode());
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    if (mightContain(current, h1, h2) || mightContain(previous, h1, h2)) {
+      return false;
+    }
+    if (currentKeys == capacity) {
+      long[] recycled = previous;
+      Arrays.fill(recycled, 0L);
+      evictions.add(previousKeys);
+      previous = current;
+      previousKeys = currentKeys;
+      current = recycled;
+      currentKeys = 0;
+    }
+    for (int i = 0; i < hashes; i++) {
+      int bit = index(h1, h2, i);
+      current[bit >>> 6] |= 1L << bit;
+    }
+    currentKeys++;
+    return true;
+  }
+
+  private boolean mightContain(long[] filter, int h1, int h2) {
+    for (int i = 0; i < hashes; i++) {
+      int bit = index(h1, h2, i);
+      if ((filter[bit >>> 6] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Double hashing, the i-th probe is {@code h1 + i * h2}. */
+  private int index(int h1, int h2, int i) {
+    int combined = h1 + i * h2;
+    return (combined & Integer.MAX_VALUE) % bits;
+  }
+
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  @Override
+  long keys() {
+    return currentKeys + previousKeys;
+  }
+
+  @Override
+  long estimatedBytes() {
+    return 2L * current.length * Long.BYTES;
+  }
+}
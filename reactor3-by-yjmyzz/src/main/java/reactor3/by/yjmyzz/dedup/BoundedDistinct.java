@@ -0,0 +1,129 @@
+package reactor3.by.yjmyzz.dedup;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@code distinct()} with bounded state, for never-ending streams. To use with {@code transform}:
+ *
+ * <pre>
+ * BoundedDistinct&lt;Event, String&gt; dedup = BoundedDistinct.lru(Event::getId, 10_000);
+ * events.transform(dedup);
+ * dedup.stats(); // keys held, estimated bytes, evictions
+ * </pre>
+ *
+ * <p>Only the keys of a window are remembered, so an element whose key was evicted passes again:
+ *
+ * <ul>
+ *   <li>{@link #lru}: the {@code maxKeys} most recently seen keys.
+ *   <li>{@link #ttl}: the keys first seen less than {@code ttl} ago, at most {@code maxKeys}.
+ *   <li>{@link #bloom}: two rotating Bloom filters of {@code keysPerFilter} keys each, in fixed
+ *       memory. False positives drop new elements at about the configured rate.
+ * </ul>
+ *
+ * <p>Each subscription has its own window, the stats cover all of them.
+ */
+public final class BoundedDistinct<T, K> implements Function<Flux<T>, Flux<T>> {
+
+  private final Function<? super T, ? extends K> keySelector;
+
+  private final Function<LongAdder, KeyWindow<K>> windowFactory;
+
+  private final Set<KeyWindow<K>> windows = ConcurrentHashMap.newKeySet();
+
+  private final LongAdder evictions = new LongAdder();
+
+  private final LongAdder duplicates = new LongAdder();
+
+  private BoundedDistinct(
+      Function<? super T, ? extends K> keySelector,
+      Function<LongAdder, KeyWindow<K>> windowFactory) {
+    this.keySelector = keySelector;
+    this.windowFactory = windowFactory;
+  }
+
+  public static <T> BoundedDistinct<T, T> lru(int maxKeys) {
+    return lru(Function.identity(), maxKeys);
+  }
+
+  public static <T, K> BoundedDistinct<T, K> lru(
+      Function<? super T, ? extends K> keySelector, int maxKeys) {
+    checkPositive(maxKeys, "maxKeys");
+    return new BoundedDistinct<>(keySelector, evictions -> new LruWindow<>(maxKeys, evictions));
+  }
+
+  /** Time-to-live window, on the clock of {@link Schedulers#parallel()}. */
+  public static <T, K> BoundedDistinct<T, K> ttl(
+      Function<? super T, ? extends K> keySelector, Duration ttl, int maxKeys) {
+    return ttl(keySelector, ttl, maxKeys, Schedulers::parallel);
+  }
+
+  public static <T, K> BoundedDistinct<T, K> ttl(
+      Function<? super T, ? extends K> keySelector,
+      Duration ttl,
+      int maxKeys,
+      Supplier<Scheduler> clock) {
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("ttl > 0 required but it was " + ttl);
+    }
+    checkPositive(maxKeys, "maxKeys");
+    long ttlNanos = ttl.toNanos();
+    return new BoundedDistinct<>(
+        keySelector, evictions -> new TtlWindow<>(ttlNanos, maxKeys, clock.get(), evictions));
+  }
+
+  public static <T, K> BoundedDistinct<T, K> bloom(
+      Function<? super T, ? extends K> keySelector, int keysPerFilter, double falsePositiveRate) {
+    checkPositive(keysPerFilter, "keysPerFilter");
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException(
+          "falsePositiveRate in ]0, 1[ required but it was " + falsePositiveRate);
+    }
+    return new BoundedDistinct<>(
+        keySelector, evictions -> new BloomWindow<>(keysPerFilter, falsePositiveRate, evictions));
+  }
+
+  @Override
+  public Flux<T> apply(Flux<T> source) {
+    return Flux.defer(
+        () -> {
+          KeyWindow<K> window = windowFactory.apply(evictions);
+          windows.add(window);
+          return source
+              .filter(
+                  value -> {
+                    if (window.add(keySelector.apply(value))) {
+                      return true;
+                    }
+                    duplicates.increment();
+                    return false;
+                  })
+              .doFinally(signal -> windows.remove(window));
+        });
+  }
+
+  public DedupStats stats() {
+    int subscriptions = 0;
+    long keys = 0;
+    long bytes = 0;
+    for (KeyWindow<K> window : windows) {
+      subscriptions++;
+      keys += window.keys();
+      bytes += window.estimatedBytes();
+    }
+    return new DedupStats(subscriptions, keys, bytes, evictions.sum(), duplicates.sum());
+  }
+
+  private static void checkPositive(int value, String name) {
+    if (value <= 0) {
+      throw new IllegalArgumentException(name + " > 0 required but it was " + value);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package reactor3.by.yjmyzz.dedup;
+
+/** Snapshot of the state held by a {@link BoundedDistinct} over all its live subscriptions. */
+public final class DedupStats {
+
+  private final int subscriptions;
+
+  private final long keys;
+
+  private final long estimatedBytes;
+
+  private final long evictions;
+
+  private final long duplicates;
+
+  DedupStats(int subscriptions, long keys, long estimatedBytes, long evictions, long duplicates) {
+    this.subscriptions = subscriptions;
+    this.keys = keys;
+    this.estimatedBytes = estimatedBytes;
+    this.evictions = evictions;
+    this.duplicates = duplicates;
+  }
+
+  public int subscriptions() {
+    return subscriptions;
+  }
+
+  /** @return the keys currently remembered */
+  public long keys() {
+    return keys;
+  }
+
+  /** @return the estimated memory of the windows, excluding the keys themselves */
+  public long estimatedBytes() {
+    return estimatedBytes;
+  }
+
+  /** @return the keys forgotten so far, to bound the state, since the operator was created */
+  public long evictions() {
+    return evictions;
+  }
+
+  /** @return the elements dropped as duplicates since the operator was created */
+  public long duplicates() {
+    return duplicates;
+  }
+
+  @Override
+  public String toString() {
+    return "DedupStats{subscriptions="
+        + subscriptions
+        + ", keys="
+        + keys
+        + ", estimatedBytes="
+        + estimatedBytes
+        + ", evictions="
+        + evictions
+        + ", duplicates="
+        + duplicates
+        + '}';
+  }
+}
@@ -0,0 +1,24 @@
+package reactor3.by.yjmyzz.dedup;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The bounded memory of one deduplicating subscription. Called serially from {@code onNext},
+ * the counters are read from other threads.
+ */
+abstract class KeyWindow<K> {
+
+  final LongAdder evictions;
+
+  KeyWindow(LongAdder evictions) {
+    this.evictions = evictions;
+  }
+
+  /** @return true if the key was not seen within the window, and remember it */
+  abstract boolean add(K key);
+
+  abstract long keys();
+
+  /** @return the estimated size of the window, excluding the keys themselves */
+  abstract long estimatedBytes();
+}
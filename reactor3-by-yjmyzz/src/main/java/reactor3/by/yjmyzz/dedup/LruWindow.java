@@ -0,0 +1,52 @@
+package reactor3.by.yjmyzz.dedup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/** The most recently seen keys, a duplicate counts as a use and refreshes its key. */
+final class LruWindow<K> extends KeyWindow<K> {
+
+  /** LinkedHashMap entry and its share of the table, on a 64-bit JVM with compressed oops. */
+  static final int BYTES_PER_KEY = 48;
+
+  private final Map<K, Boolean> keys;
+
+  private volatile int size;
+
+  @SuppressWarnings("serial")
+  LruWindow(int maxKeys, LongAdder evictions) {
+    super(evictions);
+    this.keys =
+        new LinkedHashMap<K, Boolean>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+            if (size() > maxKeys) {
+              evictions.increment();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  @Override
+  boolean add(K key) {
+    if (keys.get(key) != null) {
+      return false;
+    }
+    keys.put(key, Boolean.TRUE);
+    size = keys.size();
+    return true;
+  }
+
+  @Override
+  long keys() {
+    return size;
+  }
+
+  @Override
+  long estimatedBytes() {
+    return (long) size * BYTES_PER_KEY;
+  }
+}
@@ -0,0 +1,76 @@
+package reactor3.by.yjmyzz.dedup;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * The keys first seen less than {@code ttl} ago, capped to {@code maxKeys}. Keys expire in the
+ * order they were first seen, a duplicate does not extend the life of its key. Expired keys are
+ * evicted lazily, as new elements come in.
+ */
+final class TtlWindow<K> extends KeyWindow<K> {
+
+  /** LinkedHashMap entry, boxed expiry and their share of the table. */
+  static final int BYTES_PER_KEY = 64;
+
+  private final Map<K, Long> keys = new LinkedHashMap<>();
+
+  private final long ttlNanos;
+
+  private final int maxKeys;
+
+  private final Scheduler clock;
+
+  private volatile int size;
+
+  TtlWindow(long ttlNanos, int maxKeys, Scheduler clock, LongAdder evictions) {
+    super(evictions);
+    this.ttlNanos = ttlNanos;
+    this.maxKeys = maxKeys;
+    this.clock = clock;
+  }
+
+  @Override
+  boolean add(K key) {
+    long now = clock.now(TimeUnit.NANOSECONDS);
+    expire(now);
+    size = keys.size();
+    if (keys.containsKey(key)) {
+      return false;
+    }
+    if (keys.size() == maxKeys) {
+      Iterator<Long> oldest = keys.values().iterator();
+      oldest.next();
+      oldest.remove();
+      evictions.increment();
+    }
+    keys.put(key, now + ttlNanos);
+    size = keys.size();
+    return true;
+  }
+
+  private void expire(long now) {
+    Iterator<Long> expiries = keys.values().iterator();
+    while (expiries.hasNext()) {
+      if (expiries.next() - now > 0) {
+        return;
+      }
+      expiries.remove();
+      evictions.increment();
+    }
+  }
+
+  @Override
+  long keys() {
+    return size;
+  }
+
+  @Override
+  long estimatedBytes() {
+    return (long) size * BYTES_PER_KEY;
+  }
+}
@@ -0,0 +1,203 @@
+package reactor3.by.yjmyzz.scheduler;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Wraps any {@link Scheduler}, {@link Schedulers#parallel()} or one built with {@link
+ * Schedulers#fromExecutorService} alike, to tell whether it is saturated:
+ *
+ * <pre>
+ * InstrumentedScheduler io = InstrumentedScheduler.wrap("io", Schedulers.elastic());
+ * flux.publishOn(io)...
+ * io.stats().queueWait().percentile(99)
+ * </pre>
+ *
+ * <p>Every task submitted, directly or through a worker, counts as pending until it starts and
+ * as active while it runs. The time between the moment it was due and its start is the queue
+ * wait, which grows when all threads are busy; the time it runs is its execution. Pending tasks
+ * dropped with their worker or with the scheduler count as cancelled, tasks the scheduler throws
+ * a {@link RejectedExecutionException} for count as rejected.
+ *
+ * <p>Each task costs two {@link System#nanoTime()} calls and a few uncontended counter updates.
+ */
+public final class InstrumentedScheduler implements Scheduler {
+
+  private final String name;
+
+  private final Scheduler delegate;
+
+  private final Set<InstrumentedTask> directTasks = ConcurrentHashMap.newKeySet();
+
+  private final AtomicInteger workers = new AtomicInteger();
+
+  final LongAdder submitted = new LongAdder();
+
+  final LongAdder pending = new LongAdder();
+
+  final LongAdder active = new LongAdder();
+
+  final LongAdder completed = new LongAdder();
+
+  final LongAdder failed = new LongAdder();
+
+  final LongAdder cancelled = new LongAdder();
+
+  final LongAdder rejected = new LongAdder();
+
+  final LatencyHistogram queueWait = new LatencyHistogram();
+
+  final LatencyHistogram execution = new LatencyHistogram();
+
+  private InstrumentedScheduler(String name, Scheduler delegate) {
+    this.name = name;
+    this.delegate = delegate;
+  }
+
+  public static InstrumentedScheduler wrap(String name, Scheduler delegate) {
+    return new InstrumentedScheduler(name, delegate);
+  }
+
+  public SchedulerStats stats() {
+    return new SchedulerStats(
+        name,
+        submitted.sum(),
+        pending.sum(),
+        active.sum(),
+        completed.sum(),
+        failed.sum(),
+        cancelled.sum(),
+        rejected.sum(),
+        workers.get(),
+        queueWait.snapshot(),
+        execution.snapshot());
+  }
+
+  @Override
+  public Disposable schedule(Runnable task) {
+    return submit(directTasks, task, 0, delegate::schedule);
+  }
+
+  @Override
+  public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+    return submit(
+        directTasks, task, unit.toNanos(delay), t -> delegate.schedule(t, delay, unit));
+  }
+
+  @Override
+  public Disposable schedulePeriodically(
+      Runnable task, long initialDelay, long period, TimeUnit unit) {
+    return submit(
+        directTasks,
+        task,
+        unit.toNanos(initialDelay),
+        t -> delegate.schedulePeriodically(t, initialDelay, period, unit));
+  }
+
+  @Override
+  public long now(TimeUnit unit) {
+    return delegate.now(unit);
+  }
+
+  @Override
+  public Worker createWorker() {
+    return new InstrumentedWorker(delegate.createWorker());
+  }
+
+  @Override
+  public void dispose() {
+    delegate.dispose();
+    directTasks.forEach(InstrumentedTask::dispose);
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return delegate.isDisposed();
+  }
+
+  @Override
+  public void start() {
+    delegate.start();
+  }
+
+  @Override
+  public String toString() {
+    return "InstrumentedScheduler(" + name + ", " + delegate + ")";
+  }
+
+  private Disposable submit(
+      Set<InstrumentedTask> owner,
+      Runnable task,
+      long delayNanos,
+      Function<Runnable, Disposable> schedule) {
+    InstrumentedTask instrumented =
+        new InstrumentedTask(this, owner, task, System.nanoTime() + Math.max(0, delayNanos));
+    submitted.increment();
+    pending.increment();
+    owner.add(instrumented);
+    try {
+      instrumented.delegate(schedule.apply(instrumented));
+    } catch (RejectedExecutionException e) {
+      instrumented.reject();
+      throw e;
+    }
+    return instrumented;
+  }
+
+  private final class InstrumentedWorker implements Worker {
+
+    private final Worker delegate;
+
+    private final Set<InstrumentedTask> tasks = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean disposed = new AtomicBoolean();
+
+    InstrumentedWorker(Worker delegate) {
+      this.delegate = delegate;
+      workers.incrementAndGet();
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+      return submit(tasks, task, 0, delegate::schedule);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+      return submit(tasks, task, unit.toNanos(delay), t -> delegate.schedule(t, delay, unit));
+    }
+
+    @Override
+    public Disposable schedulePeriodically(
+        Runnable task, long initialDelay, long period, TimeUnit unit) {
+      return submit(
+          tasks,
+          task,
+          unit.toNanos(initialDelay),
+          t -> delegate.schedulePeriodically(t, initialDelay, period, unit));
+    }
+
+    @Override
+    public void dispose() {
+      if (disposed.compareAndSet(false, true)) {
+        delegate.dispose();
+        workers.decrementAndGet();
+        tasks.forEach(InstrumentedTask::dispose);
+      }
+    }
+
+    @Override
+    public boolean isDisposed() {
+      return delegate.isDisposed();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package reactor3.by.yjmyzz.scheduler;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import reactor.core.Disposable;
+
+/** A task submitted to an {@link InstrumentedScheduler}, recording its own wait and execution. */
+final class InstrumentedTask implements Runnable, Disposable {
+
+  private static final int PENDING = 0;
+
+  private static final int STARTED = 1;
+
+  private static final int CANCELLED = 2;
+
+  private final InstrumentedScheduler scheduler;
+
+  private final Set<InstrumentedTask> owner;
+
+  private final Runnable task;
+
+  private final long dueNanos;
+
+  private final AtomicInteger state = new AtomicInteger(PENDING);
+
+  private volatile Disposable delegate;
+
+  InstrumentedTask(
+      InstrumentedScheduler scheduler, Set<InstrumentedTask> owner, Runnable task, long dueNanos) {
+    this.scheduler = scheduler;
+    this.owner = owner;
+    this.task = task;
+    this.dueNanos = dueNanos;
+  }
+
+  void delegate(Disposable delegate) {
+    this.delegate = delegate;
+    if (state.get() == CANCELLED) {
+      delegate.dispose();
+    }
+  }
+
+  @Override
+  public void run() {
+    long start = System.nanoTime();
+    int current = state.get();
+    if (current == CANCELLED) {
+      return;
+    }
+    // periodic tasks only wait before their first run
+    if (current == PENDING) {
+      if (!state.compareAndSet(PENDING, STARTED)) {
+        return;
+      }
+      owner.remove(this);
+      scheduler.pending.decrement();
+      scheduler.queueWait.record(start - dueNanos);
+    }
+    scheduler.active.increment();
+    try {
+      task.run();
+      scheduler.completed.increment();
+    } catch (Throwable e) {
+      scheduler.failed.increment();
+      throw e;
+    } finally {
+      // recorded first, so that a scheduler seen idle has every execution time
+      scheduler.execution.record(System.nanoTime() - start);
+      scheduler.active.decrement();
+    }
+  }
+
+  /** Counts the task as rejected if it was refused before it could run. */
+  void reject() {
+    if (state.compareAndSet(PENDING, CANCELLED)) {
+      owner.remove(this);
+      scheduler.pending.decrement();
+      scheduler.rejected.increment();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    if (state.compareAndSet(PENDING, CANCELLED)) {
+      owner.remove(this);
+      scheduler.pending.decrement();
+      scheduler.cancelled.increment();
+    }
+    Disposable delegate = this.delegate;
+    if (delegate != null) {
+      delegate.dispose();
+    }
+  }
+
+  @Override
+  public boolean isDisposed() {
+    Disposable delegate = this.delegate;
+    return state.get() == CANCELLED || (delegate != null && delegate.isDisposed());
+  }
+}
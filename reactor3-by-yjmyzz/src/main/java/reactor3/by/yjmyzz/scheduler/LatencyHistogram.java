@@ -0,0 +1,40 @@
+package reactor3.by.yjmyzz.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in power-of-two nanosecond buckets: bucket {@code i} counts
+ * the durations in {@code [2^i, 2^(i+1))}, so percentiles are known within a factor of two.
+ */
+final class LatencyHistogram {
+
+  private static final int BUCKETS = 64;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+  private final LongAdder total = new LongAdder();
+
+  private final AtomicLong max = new AtomicLong();
+
+  void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+    buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(nanos | 1));
+    total.add(nanos);
+    long current = max.get();
+    while (nanos > current && !max.compareAndSet(current, nanos)) {
+      current = max.get();
+    }
+  }
+
+  LatencySnapshot snapshot() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+    }
+    return new LatencySnapshot(counts, total.sum(), max.get());
+  }
+}
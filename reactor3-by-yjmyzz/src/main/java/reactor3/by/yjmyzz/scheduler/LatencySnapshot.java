@@ -0,0 +1,67 @@
+package reactor3.by.yjmyzz.scheduler;
+
+import java.time.Duration;
+
+/** Point-in-time copy of a latency histogram of an {@link InstrumentedScheduler}. */
+public final class LatencySnapshot {
+
+  private final long[] buckets;
+
+  private final long count;
+
+  private final long totalNanos;
+
+  private final long maxNanos;
+
+  LatencySnapshot(long[] buckets, long totalNanos, long maxNanos) {
+    this.buckets = buckets;
+    long count = 0;
+    for (long bucket : buckets) {
+      count += bucket;
+    }
+    this.count = count;
+    this.totalNanos = totalNanos;
+    this.maxNanos = maxNanos;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  public Duration mean() {
+    return Duration.ofNanos(count == 0 ? 0 : totalNanos / count);
+  }
+
+  public Duration max() {
+    return Duration.ofNanos(maxNanos);
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return an upper bound of the given percentile, at most twice the actual value
+   */
+  public Duration percentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be in [0, 100] but it was " + percentile);
+    }
+    if (count == 0) {
+      return Duration.ZERO;
+    }
+    long rank = (long) Math.ceil(count * percentile / 100);
+    long seen = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      seen += buckets[i];
+      if (seen >= rank && seen > 0) {
+        long upper = i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        return Duration.ofNanos(Math.min(upper, maxNanos));
+      }
+    }
+    return max();
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + count + ", mean=" + mean() + ", p50<=" + percentile(50) + ", p99<="
+        + percentile(99) + ", max=" + max();
+  }
+}
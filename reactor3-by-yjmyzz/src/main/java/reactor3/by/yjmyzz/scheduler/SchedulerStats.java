@@ -0,0 +1,130 @@
+package reactor3.by.yjmyzz.scheduler;
+
+/** Point-in-time counters of an {@link InstrumentedScheduler}, with the time spent by its tasks. */
+public final class SchedulerStats {
+
+  private final String name;
+
+  private final long submitted;
+
+  private final long pending;
+
+  private final long active;
+
+  private final long completed;
+
+  private final long failed;
+
+  private final long cancelled;
+
+  private final long rejected;
+
+  private final int workers;
+
+  private final LatencySnapshot queueWait;
+
+  private final LatencySnapshot execution;
+
+  SchedulerStats(
+      String name,
+      long submitted,
+      long pending,
+      long active,
+      long completed,
+      long failed,
+      long cancelled,
+      long rejected,
+      int workers,
+      LatencySnapshot queueWait,
+      LatencySnapshot execution) {
+    this.name = name;
+    this.submitted = submitted;
+    this.pending = pending;
+    this.active = active;
+    this.completed = completed;
+    this.failed = failed;
+    this.cancelled = cancelled;
+    this.rejected = rejected;
+    this.workers = workers;
+    this.queueWait = queueWait;
+    this.execution = execution;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public long submitted() {
+    return submitted;
+  }
+
+  /** @return the tasks submitted and not started yet, including delayed ones */
+  public long pending() {
+    return pending;
+  }
+
+  /** @return the tasks running right now, i.e. the busy threads */
+  public long active() {
+    return active;
+  }
+
+  public long completed() {
+    return completed;
+  }
+
+  /** @return the task runs that threw */
+  public long failed() {
+    return failed;
+  }
+
+  /** @return the tasks disposed, or dropped with their worker, before they started */
+  public long cancelled() {
+    return cancelled;
+  }
+
+  /** @return the tasks the scheduler refused, because it was disposed or saturated */
+  public long rejected() {
+    return rejected;
+  }
+
+  /** @return the workers created and not disposed yet */
+  public int workers() {
+    return workers;
+  }
+
+  /** @return the time from the moment a task was due, at submission or after its delay, to its start */
+  public LatencySnapshot queueWait() {
+    return queueWait;
+  }
+
+  public LatencySnapshot execution() {
+    return execution;
+  }
+
+  @Override
+  public String toString() {
+    return "SchedulerStats{name="
+        + name
+        + ", submitted="
+        + submitted
+        + ", pending="
+        + pending
+        + ", active="
+        + active
+        + ", completed="
+        + completed
+        + ", failed="
+        + failed
+        + ", cancelled="
+        + cancelled
+        + ", rejected="
+        + rejected
+        + ", workers="
+        + workers
+        + ", queueWait=["
+        + queueWait
+        + "], execution=["
+        + execution
+        + "]}";
+  }
+}
@@ -0,0 +1,102 @@
+package reactor3.by.yjmyzz.window;
+
+import java.util.Arrays;
+
+/**
+ * Per-slide counters of a window in primitive arrays, one slot per slide of the window. A slot
+ * is tagged with the number of the slide it holds, so a slot left over from an older turn of the
+ * ring is reset when reused and ignored when aggregating.
+ *
+ * <p>Values are added to the current slide, which the timer closes on every slide boundary, so
+ * the source never reads the clock. Values come from the source thread and slides from the timer
+ * thread, both synchronized on the ring.
+ */
+final class SlotRing {
+
+  private final long slideMillis;
+
+  private final long[] slides;
+
+  private final long[] counts;
+
+  private final long[] sums;
+
+  private final long[] mins;
+
+  private final long[] maxs;
+
+  SlotRing(long slideMillis, int slots) {
+    this.slideMillis = slideMillis;
+    this.slides = new long[slots];
+    this.counts = new long[slots];
+    this.sums = new long[slots];
+    this.mins = new long[slots];
+    this.maxs = new long[slots];
+    Arrays.fill(slides, Long.MIN_VALUE);
+  }
+
+  /** The slide values are added to, moved forward by the timer. */
+  private long currentSlide;
+
+  synchronized void add(long value) {
+    long slide = currentSlide;
+    int slot = slot(slide);
+    if (slides[slot] != slide) {
+      slides[slot] = slide;
+      counts[slot] = 0;
+      sums[slot] = 0;
+      mins[slot] = Long.MAX_VALUE;
+      maxs[slot] = Long.MIN_VALUE;
+    }
+    counts[slot]++;
+    sums[slot] += value;
+    if (value < mins[slot]) {
+      mins[slot] = value;
+    }
+    if (value > maxs[slot]) {
+      maxs[slot] = value;
+    }
+  }
+
+  long slideOf(long nowMillis) {
+    return Math.floorDiv(nowMillis, slideMillis);
+  }
+
+  synchronized void start(long slide) {
+    currentSlide = slide;
+  }
+
+  /** Close the current slide and aggregate the window that ends with it. */
+  synchronized WindowAggregate slide() {
+    long closed = currentSlide++;
+    return aggregate(closed, currentSlide * slideMillis, false);
+  }
+
+  /** Aggregate the window that ends with the current slide, at {@code endMillis}. */
+  synchronized WindowAggregate last(long endMillis) {
+    return aggregate(currentSlide, endMillis, true);
+  }
+
+  /** Aggregate the slides {@code [lastSlide - slots + 1, lastSlide]}. */
+  private WindowAggregate aggregate(long lastSlide, long endMillis, boolean partial) {
+    long firstSlide = lastSlide - slides.length + 1;
+    long count = 0;
+    long sum = 0;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int slot = 0; slot < slides.length; slot++) {
+      if (slides[slot] >= firstSlide && slides[slot] <= lastSlide) {
+        count += counts[slot];
+        sum += sums[slot];
+        min = Math.min(min, mins[slot]);
+        max = Math.max(max, maxs[slot]);
+      }
+    }
+    return new WindowAggregate(
+        firstSlide * slideMillis, endMillis, count, sum, min, max, partial);
+  }
+
+  private int slot(long slide) {
+    return (int) Math.floorMod(slide, (long) slides.length);
+  }
+}
@@ -0,0 +1,86 @@
+package reactor3.by.yjmyzz.window;
+
+/**
+ * Count, sum, min and max of the values of one window, emitted by {@link WindowAggregation}.
+ * Min and max are 0 when the window is empty.
+ */
+public final class WindowAggregate {
+
+  private final long start;
+
+  private final long end;
+
+  private final long count;
+
+  private final long sum;
+
+  private final long min;
+
+  private final long max;
+
+  private final boolean partial;
+
+  WindowAggregate(
+      long start, long end, long count, long sum, long min, long max, boolean partial) {
+    this.start = start;
+    this.end = end;
+    this.count = count;
+    this.sum = sum;
+    this.min = count == 0 ? 0 : min;
+    this.max = count == 0 ? 0 : max;
+    this.partial = partial;
+  }
+
+  /** @return the start of the window, inclusive, in milliseconds on the clock of the operator */
+  public long start() {
+    return start;
+  }
+
+  /** @return the end of the window, exclusive, in milliseconds on the clock of the operator */
+  public long end() {
+    return end;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  public long sum() {
+    return sum;
+  }
+
+  public long min() {
+    return min;
+  }
+
+  public long max() {
+    return max;
+  }
+
+  public double mean() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /** @return true for the last window, cut short by the completion of the source */
+  public boolean isPartial() {
+    return partial;
+  }
+
+  @Override
+  public String toString() {
+    return "WindowAggregate{["
+        + start
+        + ", "
+        + end
+        + (partial ? ") partial" : ")")
+        + ", count="
+        + count
+        + ", sum="
+        + sum
+        + ", min="
+        + min
+        + ", max="
+        + max
+        + '}';
+  }
+}
@@ -0,0 +1,110 @@
+package reactor3.by.yjmyzz.window;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Rolling count, sum, min and max over time windows, to use with {@code transform}:
+ *
+ * <pre>
+ * // per-second totals, refreshed every 100ms
+ * events.transform(WindowAggregation.sliding(Event::getAmount, Duration.ofSeconds(1),
+ *     Duration.ofMillis(100)))
+ * </pre>
+ *
+ * <p>Instead of a {@code Flux} per window and a boxed accumulator per value, as with {@code
+ * window(Duration).flatMap(w -&gt; w.reduce(...))}, each subscription keeps {@code size / slide}
+ * slots of {@code long} counters. A value is added to the slot of the current slide, and on every
+ * slide boundary the slots of the window that just ended are aggregated and emitted. Windows are
+ * aligned on multiples of the slide on the clock of the scheduler, whose timer decides which
+ * slide a value falls in. When the source completes, the window in progress is emitted as {@link
+ * WindowAggregate#isPartial() partial}.
+ *
+ * <p>Aggregates not requested in time are dropped, a slow subscriber misses slides.
+ */
+public final class WindowAggregation<T> implements Function<Flux<T>, Flux<WindowAggregate>> {
+
+  private final ToLongFunction<? super T> valueSelector;
+
+  private final long slideMillis;
+
+  private final int slots;
+
+  private final Supplier<Scheduler> clock;
+
+  private WindowAggregation(
+      ToLongFunction<? super T> valueSelector,
+      long slideMillis,
+      int slots,
+      Supplier<Scheduler> clock) {
+    this.valueSelector = valueSelector;
+    this.slideMillis = slideMillis;
+    this.slots = slots;
+    this.clock = clock;
+  }
+
+  /**
+   * Windows of {@code size} starting every {@code slide}, on the clock of {@link
+   * Schedulers#parallel()}. The size must be a multiple of the slide.
+   */
+  public static <T> WindowAggregation<T> sliding(
+      ToLongFunction<? super T> valueSelector, Duration size, Duration slide) {
+    long sizeMillis = size.toMillis();
+    long slideMillis = slide.toMillis();
+    if (slideMillis <= 0) {
+      throw new IllegalArgumentException("slide >= 1ms required but it was " + slide);
+    }
+    if (sizeMillis < slideMillis || sizeMillis % slideMillis != 0) {
+      throw new IllegalArgumentException(
+          "size must be a multiple of slide but they were " + size + " and " + slide);
+    }
+    return new WindowAggregation<>(
+        valueSelector, slideMillis, (int) (sizeMillis / slideMillis), Schedulers::parallel);
+  }
+
+  /** Back-to-back windows of {@code size}. */
+  public static <T> WindowAggregation<T> tumbling(
+      ToLongFunction<? super T> valueSelector, Duration size) {
+    return sliding(valueSelector, size, size);
+  }
+
+  /** Time values and slides on the given scheduler, resolved at each subscription. */
+  public WindowAggregation<T> clock(Supplier<Scheduler> clock) {
+    return new WindowAggregation<>(valueSelector, slideMillis, slots, clock);
+  }
+
+  @Override
+  public Flux<WindowAggregate> apply(Flux<T> source) {
+    return Flux.defer(
+        () -> {
+          Scheduler scheduler = clock.get();
+          SlotRing ring = new SlotRing(slideMillis, slots);
+          long now = scheduler.now(TimeUnit.MILLISECONDS);
+          long firstSlide = ring.slideOf(now);
+          long firstDelay = (firstSlide + 1) * slideMillis - now;
+          ring.start(firstSlide);
+
+          Flux<WindowAggregate> slides =
+              Flux.interval(
+                      Duration.ofMillis(firstDelay), Duration.ofMillis(slideMillis), scheduler)
+                  .map(tick -> ring.slide())
+                  .onBackpressureDrop();
+
+          Mono<WindowAggregate> last =
+              source
+                  .doOnNext(value -> ring.add(valueSelector.applyAsLong(value)))
+                  .then(
+                      Mono.fromSupplier(
+                          () -> ring.last(scheduler.now(TimeUnit.MILLISECONDS))));
+
+          return Flux.merge(slides, last).takeUntil(WindowAggregate::isPartial);
+        });
+  }
+}
@@ -0,0 +1,92 @@
+package reactor3.by.yjmyzz.buffer;
+
+import static java.lang.System.out;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Allocation and GC churn of {@link PooledBuffer} against the stock {@code buffer} operators, run
+ * it from the IDE. The source emits pre-boxed values so only the operators allocate.
+ */
+public class PooledBufferManualTest {
+
+  private static final int ELEMENTS = 20_000_000;
+
+  private static final int BATCH = 64;
+
+  private final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final Integer[] values = new Integer[ELEMENTS];
+
+  {
+    for (int i = 0; i < ELEMENTS; i++) {
+      values[i] = i;
+    }
+  }
+
+  @Test
+  public void allocation() {
+    BatchPool<Integer> pool = new BatchPool<>(BATCH, 16);
+    long[] sum = new long[1];
+    Consumer<Integer> consume = i -> sum[0] += i;
+
+    for (int round = 0; round < 3; round++) {
+      run(
+          "buffer(64)",
+          () -> Flux.fromArray(values).buffer(BATCH),
+          (List<Integer> list) -> list.forEach(consume));
+      run(
+          "pooled buffer",
+          () -> Flux.fromArray(values).transform(PooledBuffer.buffer(pool)),
+          (Batch<Integer> batch) -> {
+            batch.forEach(consume);
+            batch.release();
+          });
+      run(
+          "bufferTimeout",
+          () -> Flux.fromArray(values).bufferTimeout(BATCH, Duration.ofSeconds(10)),
+          (List<Integer> list) -> list.forEach(consume));
+      run(
+          "pooled timeout",
+          () ->
+              Flux.fromArray(values)
+                  .transform(PooledBuffer.bufferTimeout(pool, Duration.ofSeconds(10))),
+          (Batch<Integer> batch) -> {
+            batch.forEach(consume);
+            batch.release();
+          });
+    }
+    out.println("pool created " + pool.created() + " batches, reused " + pool.reused());
+  }
+
+  private <B> void run(String name, Supplier<Flux<B>> flux, Consumer<B> consumer) {
+    long gcs = youngCollections();
+    long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    long start = System.nanoTime();
+    flux.get().subscribe(consumer);
+    long elapsed = System.nanoTime() - start;
+    allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+    out.printf(
+        "%-15s %6.2f bytes/element %,12d elements/s %4d GCs%n",
+        name,
+        (double) allocated / ELEMENTS,
+        ELEMENTS * 1_000_000_000L / elapsed,
+        youngCollections() - gcs);
+  }
+
+  private static long youngCollections() {
+    long count = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += gc.getCollectionCount();
+    }
+    return count;
+  }
+}
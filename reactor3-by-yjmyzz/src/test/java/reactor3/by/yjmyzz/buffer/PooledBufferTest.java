@@ -0,0 +1,220 @@
+package reactor3.by.yjmyzz.buffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.test.StepVerifier;
+
+public class PooledBufferTest {
+
+  @Test
+  public void bufferByCount() {
+    // same batches as Reactor3Test.fluxBufferByCount
+    BatchPool<Integer> pool = new BatchPool<>(3, 4);
+    Flux<List<Integer>> lists =
+        Flux.range(0, 10)
+            .transform(PooledBuffer.buffer(pool))
+            .map(PooledBufferTest::copyAndRelease);
+
+    StepVerifier.create(lists)
+        .expectNext(Arrays.asList(0, 1, 2))
+        .expectNext(Arrays.asList(3, 4, 5))
+        .expectNext(Arrays.asList(6, 7, 8))
+        .expectNext(Arrays.asList(9))
+        .verifyComplete();
+
+    // each batch is released before the next one is acquired
+    assertEquals(1, pool.created());
+    assertEquals(3, pool.reused());
+    assertEquals(1, pool.pooled());
+  }
+
+  @Test
+  public void requestsBatchSizeElementsPerBatch() {
+    BatchPool<Integer> pool = new BatchPool<>(3, 4);
+    Flux<Integer> source = Flux.range(0, 10);
+    StringBuilder requests = new StringBuilder();
+
+    StepVerifier.create(
+            source
+                .doOnRequest(n -> requests.append(n).append(' '))
+                .transform(PooledBuffer.buffer(pool)),
+            2)
+        .expectNextCount(2)
+        .thenRequest(1)
+        .expectNextCount(1)
+        .thenCancel()
+        .verify();
+    assertEquals("6 3 ", requests.toString());
+  }
+
+  @Test
+  public void unreleasedBatchesAreNotReused() {
+    BatchPool<Integer> pool = new BatchPool<>(2, 4);
+
+    StepVerifier.create(Flux.range(0, 6).transform(PooledBuffer.buffer(pool)))
+        .expectNextCount(3)
+        .verifyComplete();
+    assertEquals(3, pool.created());
+    assertEquals(0, pool.reused());
+  }
+
+  @Test
+  public void releasedBatchCannotBeUsed() {
+    BatchPool<Integer> pool = new BatchPool<>(2, 4);
+    Batch<Integer> batch = Flux.range(0, 2).transform(PooledBuffer.buffer(pool)).blockFirst();
+
+    assertEquals(Integer.valueOf(1), batch.get(1));
+    batch.release();
+    assertThrows(IllegalStateException.class, () -> batch.get(0));
+    assertThrows(IllegalStateException.class, batch::release);
+  }
+
+  @Test
+  public void errorReleasesPartialBatch() {
+    BatchPool<Integer> pool = new BatchPool<>(3, 4);
+
+    StepVerifier.create(
+            Flux.range(0, 4)
+                .concatWith(Flux.error(new IllegalStateException("boom")))
+                .transform(PooledBuffer.buffer(pool))
+                .map(PooledBufferTest::copyAndRelease))
+        .expectNext(Arrays.asList(0, 1, 2))
+        .verifyErrorMessage("boom");
+    assertEquals(1, pool.created());
+    assertEquals(1, pool.pooled());
+  }
+
+  @Test
+  public void bufferByTime() {
+    // same batches as Reactor3Test.fluxBufferByTime, without waiting
+    BatchPool<Long> pool = new BatchPool<>(3, 4);
+
+    StepVerifier.withVirtualTime(
+            () ->
+                Flux.interval(Duration.of(1, ChronoUnit.SECONDS))
+                    .take(11)
+                    .transform(
+                        PooledBuffer.bufferTimeout(pool, Duration.of(2, ChronoUnit.SECONDS)))
+                    .map(PooledBufferTest::copyAndRelease))
+        .thenAwait(Duration.ofSeconds(3))
+        .expectNext(Arrays.asList(0L, 1L))
+        .thenAwait(Duration.ofSeconds(2))
+        .expectNext(Arrays.asList(2L, 3L))
+        .thenAwait(Duration.ofSeconds(6))
+        .expectNext(Arrays.asList(4L, 5L), Arrays.asList(6L, 7L), Arrays.asList(8L, 9L))
+        .expectNext(Arrays.asList(10L))
+        .verifyComplete();
+  }
+
+  @Test
+  public void bufferTimeoutBySize() {
+    BatchPool<Integer> pool = new BatchPool<>(3, 4);
+
+    StepVerifier.create(
+            Flux.range(0, 7)
+                .transform(PooledBuffer.bufferTimeout(pool, Duration.ofHours(1)))
+                .map(PooledBufferTest::copyAndRelease))
+        .expectNext(Arrays.asList(0, 1, 2), Arrays.asList(3, 4, 5), Arrays.asList(6))
+        .verifyComplete();
+    assertEquals(1, pool.created());
+  }
+
+  @Test
+  public void bufferTimeoutWithoutDemandOverflows() {
+    BatchPool<Long> pool = new BatchPool<>(3, 4);
+
+    StepVerifier.withVirtualTime(
+            () ->
+                Flux.interval(Duration.ofSeconds(1))
+                    .transform(PooledBuffer.bufferTimeout(pool, Duration.ofSeconds(2))),
+            1)
+        .thenAwait(Duration.ofSeconds(3))
+        .assertNext(Batch::release)
+        .thenAwait(Duration.ofSeconds(3))
+        .verifyErrorMatches(Exceptions::isOverflow);
+  }
+
+  @Test
+  public void staleTimeoutDoesNotCloseTheNextBatch() {
+    BatchPool<Integer> pool = new BatchPool<>(3, 4);
+    ManualTimer timer = new ManualTimer();
+    DirectProcessor<Integer> source = DirectProcessor.create();
+
+    StepVerifier.create(
+            source
+                .transform(PooledBuffer.bufferTimeout(pool, Duration.ofSeconds(1), timer))
+                .map(PooledBufferTest::copyAndRelease))
+        .then(() -> Flux.range(1, 4).subscribe(source::onNext))
+        .expectNext(Arrays.asList(1, 2, 3))
+        // the timeout of the first batch was already running when its size closed it
+        .then(() -> timer.tasks.get(0).run())
+        .then(() -> source.onNext(5))
+        .then(() -> timer.tasks.get(1).run())
+        .expectNext(Arrays.asList(4, 5))
+        .thenCancel()
+        .verify();
+  }
+
+  @Test
+  public void cancelReleasesPendingBatch() {
+    BatchPool<Integer> pool = new BatchPool<>(3, 4);
+
+    Flux.range(0, 2)
+        .concatWith(Flux.never())
+        .transform(PooledBuffer.bufferTimeout(pool, Duration.ofHours(1)))
+        .subscribe()
+        .dispose();
+    assertEquals(1, pool.created());
+    assertEquals(1, pool.pooled());
+  }
+
+  private static <T> List<T> copyAndRelease(Batch<T> batch) {
+    List<T> copy = batch.toList();
+    batch.release();
+    return copy;
+  }
+
+  /** Timer whose tasks are run by the test, disposing them once scheduled has no effect. */
+  private static final class ManualTimer implements Scheduler {
+
+    final List<Runnable> tasks = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Disposable schedule(Runnable task) {
+      tasks.add(task);
+      return Disposables.single();
+    }
+
+    @Override
+    public Worker createWorker() {
+      return new Worker() {
+        @Override
+        public Disposable schedule(Runnable task) {
+          return ManualTimer.this.schedule(task);
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+          return ManualTimer.this.schedule(task);
+        }
+
+        @Override
+        public void dispose() {}
+      };
+    }
+  }
+}
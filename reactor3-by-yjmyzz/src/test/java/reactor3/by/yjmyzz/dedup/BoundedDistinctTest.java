@@ -0,0 +1,148 @@
+package reactor3.by.yjmyzz.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class BoundedDistinctTest {
+
+  @Test
+  public void lruForgetsLeastRecentlySeenKeys() {
+    BoundedDistinct<Integer, Integer> dedup = BoundedDistinct.lru(2);
+
+    // 1 is refreshed by its duplicate, so 2 is the one evicted by 3
+    StepVerifier.create(Flux.just(1, 2, 1, 3, 1, 2).transform(dedup))
+        .expectNext(1, 2, 3, 2)
+        .verifyComplete();
+
+    DedupStats stats = dedup.stats();
+    assertEquals(0, stats.subscriptions());
+    assertEquals(2, stats.evictions());
+    assertEquals(2, stats.duplicates());
+  }
+
+  @Test
+  public void lruStateStaysBoundedOnInfiniteStream() {
+    BoundedDistinct<Long, Long> dedup = BoundedDistinct.lru(i -> i % 5_000, 1_000);
+
+    // keys are evicted before they come back, so every element passes
+    StepVerifier.withVirtualTime(() -> Flux.interval(Duration.ofMillis(1)).transform(dedup))
+        .thenAwait(Duration.ofSeconds(20))
+        .expectNextCount(20_000)
+        .then(
+            () -> {
+              DedupStats stats = dedup.stats();
+              assertEquals(1, stats.subscriptions());
+              assertEquals(1_000, stats.keys());
+              assertEquals(1_000L * LruWindow.BYTES_PER_KEY, stats.estimatedBytes());
+              assertEquals(19_000, stats.evictions());
+            })
+        .thenCancel()
+        .verify();
+    assertEquals(0, dedup.stats().subscriptions());
+  }
+
+  @Test
+  public void ttlForgetsKeysAfterTheirTimeToLive() {
+    BoundedDistinct<Long, Long> dedup =
+        BoundedDistinct.ttl(i -> i % 3, Duration.ofSeconds(10), 100);
+
+    StepVerifier.withVirtualTime(
+            () -> Flux.interval(Duration.ofSeconds(1)).take(15).transform(dedup))
+        .expectSubscription()
+        .thenAwait(Duration.ofSeconds(15))
+        // keys 0, 1, 2 pass at t=1s, 2s, 3s then are duplicates until they expire at 11s, 12s, 13s
+        .expectNext(0L, 1L, 2L, 12L, 13L, 14L)
+        .verifyComplete();
+
+    assertEquals(3, dedup.stats().evictions());
+    assertEquals(9, dedup.stats().duplicates());
+  }
+
+  @Test
+  public void ttlStatsDropKeysExpiredByADuplicate() {
+    BoundedDistinct<Long, Long> dedup =
+        BoundedDistinct.ttl(i -> i == 1 ? 1L : 0L, Duration.ofSeconds(10), 100);
+
+    // key 0 passes again at t=11s, then its duplicate at t=12s expires key 1
+    StepVerifier.withVirtualTime(
+            () -> Flux.interval(Duration.ofSeconds(1)).take(13).transform(dedup))
+        .expectSubscription()
+        .thenAwait(Duration.ofSeconds(12))
+        .expectNext(0L, 1L, 10L)
+        .then(
+            () -> {
+              DedupStats stats = dedup.stats();
+              assertEquals(1, stats.keys());
+              assertEquals(TtlWindow.BYTES_PER_KEY, stats.estimatedBytes());
+              assertEquals(2, stats.evictions());
+            })
+        .thenCancel()
+        .verify();
+  }
+
+  @Test
+  public void ttlIsCappedToMaxKeys() {
+    BoundedDistinct<Integer, Integer> dedup =
+        BoundedDistinct.ttl(Function.identity(), Duration.ofHours(1), 3);
+
+    StepVerifier.create(Flux.just(1, 2, 3, 4, 1, 4).transform(dedup))
+        .expectNext(1, 2, 3, 4, 1)
+        .verifyComplete();
+    assertEquals(2, dedup.stats().evictions());
+  }
+
+  @Test
+  public void bloomHasFixedMemoryAndBoundedFalsePositives() {
+    BoundedDistinct<Integer, Integer> dedup =
+        BoundedDistinct.bloom(Function.identity(), 10_000, 0.01);
+
+    long passed =
+        Flux.range(0, 20_000)
+            .concatWith(Flux.range(10_000, 10_000))
+            .transform(dedup)
+            .count()
+            .block();
+
+    // the second filter still knows 10_000..19_999
+    assertTrue(passed <= 20_000 && passed > 20_000 * 0.98, "passed " + passed);
+    assertEquals(0, dedup.stats().evictions());
+  }
+
+  @Test
+  public void bloomRotatesFilters() {
+    BoundedDistinct<Integer, Integer> dedup =
+        BoundedDistinct.bloom(Function.identity(), 1_000, 0.01);
+
+    StepVerifier.create(Flux.range(0, 3_001).transform(dedup).count())
+        .assertNext(count -> assertTrue(count > 2_900))
+        .verifyComplete();
+    // filters rotate at 1000 and 2000 keys (the first time with an empty previous filter)
+    assertTrue(dedup.stats().evictions() >= 900);
+  }
+
+  @Test
+  public void eachSubscriptionHasItsOwnWindow() {
+    BoundedDistinct<Integer, Integer> dedup = BoundedDistinct.lru(10);
+    Flux<Integer> flux = Flux.just(1, 1, 2).transform(dedup);
+
+    StepVerifier.create(flux).expectNext(1, 2).verifyComplete();
+    StepVerifier.create(flux).expectNext(1, 2).verifyComplete();
+  }
+
+  @Test
+  public void rejectsInvalidBounds() {
+    assertThrows(IllegalArgumentException.class, () -> BoundedDistinct.lru(0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> BoundedDistinct.ttl(Function.identity(), Duration.ZERO, 10));
+    assertThrows(
+        IllegalArgumentException.class, () -> BoundedDistinct.bloom(Function.identity(), 10, 1));
+  }
+}
@@ -0,0 +1,180 @@
+package reactor3.by.yjmyzz.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+public class InstrumentedSchedulerTest {
+
+  private final InstrumentedScheduler single =
+      InstrumentedScheduler.wrap("single", Schedulers.newSingle("instrumented"));
+
+  @AfterEach
+  public void dispose() {
+    single.dispose();
+  }
+
+  @Test
+  public void countsTasksOfAPipeline() {
+    InstrumentedScheduler parallel =
+        InstrumentedScheduler.wrap("parallel", Schedulers.newParallel("instrumented", 2));
+    try {
+      Flux.range(0, 100).publishOn(parallel).map(i -> i * 2).blockLast();
+
+      // blockLast returns from within the last task, before it is counted and its worker disposed
+      SchedulerStats stats = awaitIdle(parallel);
+      assertTrue(stats.completed() > 0, stats.toString());
+      assertEquals(stats.submitted(), stats.completed() + stats.cancelled(), stats.toString());
+      assertEquals(0, stats.pending());
+      assertEquals(0, stats.active());
+      assertEquals(0, stats.workers());
+    } finally {
+      parallel.dispose();
+    }
+  }
+
+  @Test
+  public void reportsPendingAndActiveTasks() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(4);
+    single.schedule(
+        () -> {
+          started.countDown();
+          await(release);
+          done.countDown();
+        });
+    for (int i = 0; i < 3; i++) {
+      single.schedule(done::countDown);
+    }
+    started.await();
+
+    SchedulerStats stats = single.stats();
+    assertEquals(4, stats.submitted());
+    assertEquals(1, stats.active());
+    assertEquals(3, stats.pending());
+
+    release.countDown();
+    done.await();
+    // the counters are updated right after the last task returns
+    stats = awaitIdle(single);
+    assertEquals(0, stats.pending());
+    assertEquals(4, stats.completed());
+  }
+
+  @Test
+  public void measuresQueueWaitOfSaturatedScheduler() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(5);
+    for (int i = 0; i < 5; i++) {
+      single.schedule(
+          () -> {
+            sleep(20);
+            done.countDown();
+          });
+    }
+    done.await();
+
+    SchedulerStats stats = awaitIdle(single);
+    // the last task waited for the four before it
+    assertTrue(stats.queueWait().max().toMillis() >= 75, stats.toString());
+    assertTrue(stats.execution().mean().toMillis() >= 19, stats.toString());
+    assertEquals(5, stats.execution().count());
+  }
+
+  @Test
+  public void delayedTasksWaitFromTheirDueTime() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    single.schedule(done::countDown, 100, TimeUnit.MILLISECONDS);
+
+    assertEquals(1, single.stats().pending());
+    done.await();
+    assertTrue(single.stats().queueWait().max().toMillis() < 50, single.stats().toString());
+  }
+
+  @Test
+  public void countsCancelledTasks() {
+    Disposable task = single.schedule(() -> {}, 1, TimeUnit.HOURS);
+    task.dispose();
+
+    Scheduler.Worker worker = single.createWorker();
+    worker.schedule(() -> {}, 1, TimeUnit.HOURS);
+    assertEquals(1, single.stats().workers());
+    worker.dispose();
+
+    SchedulerStats stats = single.stats();
+    assertEquals(2, stats.cancelled());
+    assertEquals(0, stats.pending());
+    assertEquals(0, stats.workers());
+  }
+
+  @Test
+  public void countsRejectedAndFailedTasks() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    single.schedule(
+        () -> {
+          done.countDown();
+          throw new IllegalStateException("boom");
+        });
+    done.await();
+    assertEquals(1, awaitIdle(single).failed());
+
+    single.dispose();
+    assertThrows(RejectedExecutionException.class, () -> single.schedule(() -> {}));
+    assertEquals(1, single.stats().rejected());
+    assertEquals(0, single.stats().pending());
+  }
+
+  @Test
+  public void percentilesAreBoundedWithinAFactorOfTwo() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1_000; i++) {
+      histogram.record(i * 1_000L);
+    }
+    LatencySnapshot snapshot = histogram.snapshot();
+
+    Duration p50 = snapshot.percentile(50);
+    assertTrue(p50.toNanos() >= 500_000 && p50.toNanos() < 1_000_000, p50.toString());
+    assertEquals(Duration.ofMillis(1), snapshot.max());
+    assertEquals(Duration.ofMillis(1), snapshot.percentile(100));
+    assertEquals(Duration.ofNanos(500_500), snapshot.mean());
+  }
+
+  /** @return the stats once no task is pending or running and no worker is left, within 1s */
+  private static SchedulerStats awaitIdle(InstrumentedScheduler scheduler) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    SchedulerStats stats = scheduler.stats();
+    while ((stats.pending() != 0 || stats.active() != 0 || stats.workers() != 0)
+        && System.nanoTime() < deadline) {
+      sleep(1);
+      stats = scheduler.stats();
+    }
+    return stats;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package reactor3.by.yjmyzz.window;
+
+import static java.lang.System.out;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Throughput and allocation of {@link WindowAggregation} against {@code
+ * window(Duration).flatMap(reduce)}. The source emits pre-boxed values so
+ * only the operators allocate.
+ */
+public class WindowAggregationManualTest {
+
+  private static final int ELEMENTS = 20_000_000;
+
+  private static final Duration WINDOW = Duration.ofMillis(100);
+
+  private final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final List<Long> values = Arrays.asList(new Long[1024]);
+
+  {
+    for (int i = 0; i < values.size(); i++) {
+      values.set(i, (long) i);
+    }
+  }
+
+  @Test
+  public void throughput() {
+    for (int round = 0; round < 3; round++) {
+      run(
+          "window().flatMap(reduce)",
+          flux ->
+              flux.window(WINDOW)
+                  .flatMap(
+                      w -> w.collect(LongSummaryStatistics::new, LongSummaryStatistics::accept))
+                  .map(LongSummaryStatistics::getCount));
+      run(
+          "tumbling ring",
+          flux ->
+              flux.transform(WindowAggregation.tumbling(v -> v, WINDOW))
+                  .map(WindowAggregate::count));
+      run(
+          "sliding ring 1s/100ms",
+          flux ->
+              flux.transform(WindowAggregation.sliding(v -> v, Duration.ofSeconds(1), WINDOW))
+                  .map(WindowAggregate::count));
+    }
+  }
+
+  private void run(String name, Function<Flux<Long>, Flux<Long>> aggregation) {
+    Flux<Long> source = Flux.range(0, ELEMENTS / values.size()).concatMapIterable(i -> values);
+    long thread = Thread.currentThread().getId();
+    long allocated = threads.getThreadAllocatedBytes(thread);
+    long start = System.nanoTime();
+    long windows = aggregation.apply(source).count().block();
+    long elapsed = System.nanoTime() - start;
+    allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+    out.printf(
+        "%-25s %6.2f bytes/element %,12d elements/s %4d windows%n",
+        name, (double) allocated / ELEMENTS, ELEMENTS * 1_000_000_000L / elapsed, windows);
+  }
+}
@@ -0,0 +1,123 @@
+package reactor3.by.yjmyzz.window;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class WindowAggregationTest {
+
+  // values 0..24, value i at t = (i + 1) * 100ms, completes at t = 2500ms
+  private static Flux<Long> source() {
+    return Flux.interval(Duration.ofMillis(100)).take(25);
+  }
+
+  @Test
+  public void tumbling() {
+    StepVerifier.withVirtualTime(
+            () ->
+                source().transform(WindowAggregation.tumbling(v -> v, Duration.ofSeconds(1))))
+        .thenAwait(Duration.ofSeconds(3))
+        .assertNext(window(0, 1000, 9, 36, 0, 8, false))
+        .assertNext(window(1000, 2000, 10, 135, 9, 18, false))
+        .assertNext(window(2000, 2500, 6, 129, 19, 24, true))
+        .verifyComplete();
+  }
+
+  @Test
+  public void sliding() {
+    StepVerifier.withVirtualTime(
+            () ->
+                source()
+                    .transform(
+                        WindowAggregation.sliding(
+                            v -> v, Duration.ofSeconds(2), Duration.ofSeconds(1))))
+        .thenAwait(Duration.ofSeconds(3))
+        .assertNext(window(-1000, 1000, 9, 36, 0, 8, false))
+        .assertNext(window(0, 2000, 19, 171, 0, 18, false))
+        .assertNext(window(1000, 2500, 16, 264, 9, 24, true))
+        .verifyComplete();
+  }
+
+  @Test
+  public void emitsEmptyWindowsWhileSourceIsIdle() {
+    StepVerifier.withVirtualTime(
+            () ->
+                Flux.<Long>never()
+                    .transform(WindowAggregation.tumbling(v -> v, Duration.ofSeconds(1))))
+        .thenAwait(Duration.ofSeconds(2))
+        .assertNext(window(0, 1000, 0, 0, 0, 0, false))
+        .assertNext(window(1000, 2000, 0, 0, 0, 0, false))
+        .thenCancel()
+        .verify();
+  }
+
+  @Test
+  public void ringIsReusedAcrossTurns() {
+    // 5 slots of 100ms, 100 turns of the ring
+    StepVerifier.withVirtualTime(
+            () ->
+                Flux.interval(Duration.ofMillis(10))
+                    .take(5_000)
+                    .map(i -> 1L)
+                    .transform(
+                        WindowAggregation.sliding(
+                            v -> v, Duration.ofMillis(500), Duration.ofMillis(100))))
+        .thenAwait(Duration.ofSeconds(60))
+        // the first windows start before the first value
+        .expectNextCount(5)
+        .thenConsumeWhile(
+            w -> !w.isPartial(),
+            w -> {
+              assertEquals(50, w.count());
+              assertEquals(500, w.end() - w.start());
+            })
+        .assertNext(w -> assertTrue(w.isPartial()))
+        .verifyComplete();
+  }
+
+  @Test
+  public void sourceErrorTerminates() {
+    StepVerifier.withVirtualTime(
+            () ->
+                source()
+                    .concatWith(Flux.error(new IllegalStateException("boom")))
+                    .transform(WindowAggregation.tumbling(v -> v, Duration.ofSeconds(1))))
+        .thenAwait(Duration.ofSeconds(3))
+        .expectNextCount(2)
+        .verifyErrorMessage("boom");
+  }
+
+  @Test
+  public void sizeMustBeMultipleOfSlide() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> WindowAggregation.sliding(v -> 0L, Duration.ofMillis(250), Duration.ofMillis(100)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> WindowAggregation.tumbling(v -> 0L, Duration.ZERO));
+  }
+
+  private static Consumer<WindowAggregate> window(
+      long start, long end, long count, long sum, long min, long max, boolean partial) {
+    return w -> {
+      assertEquals(start, w.start(), "start");
+      assertEquals(end, w.end(), "end");
+      assertEquals(count, w.count(), "count");
+      assertEquals(sum, w.sum(), "sum");
+      assertEquals(min, w.min(), "min");
+      assertEquals(max, w.max(), "max");
+      if (partial) {
+        assertTrue(w.isPartial());
+      } else {
+        assertFalse(w.isPartial());
+      }
+    };
+  }
+}